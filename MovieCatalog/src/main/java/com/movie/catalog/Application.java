@@ -2,6 +2,8 @@ package com.movie.catalog;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * <p><strong>Главный класс Spring Boot приложения для управления каталогом фильмов.</strong></p>
@@ -10,6 +12,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  */
 
  @SpringBootApplication
+@EnableScheduling
+@ConfigurationPropertiesScan
 public class Application {
 
     public static void main(String[] args) {
@@ -0,0 +1,14 @@
+package com.movie.catalog.analytics;
+
+/**
+ * Среднее время от добавления фильма в историю просмотра до завершения просмотра по жанру.
+ *
+ * @param genre                 жанр
+ * @param completions           число завершенных просмотров фильмов жанра
+ * @param averageDaysToComplete среднее число дней от добавления до завершения
+ */
+
+public record GenreCompletionTime(String genre,
+                                  long completions,
+                                  double averageDaysToComplete) {
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.movie.catalog.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Шаг временного ряда аналитики.
+ *
+ * <p>Неделя начинается с понедельника, месяц - с первого числа. Каждый шаг задает период по умолчанию,
+ * если границы ряда не указаны в запросе.</p>
+ */
+
+public enum Granularity {
+    DAY(30),
+    WEEK(12),
+    MONTH(12);
+
+    private final int defaultPeriods;
+
+    Granularity(int defaultPeriods) {
+        this.defaultPeriods = defaultPeriods;
+    }
+
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate next(LocalDate periodStart) {
+        return switch (this) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+
+    public LocalDate defaultFrom(LocalDate to) {
+        return switch (this) {
+            case DAY -> to.minusDays(defaultPeriods - 1L);
+            case WEEK -> to.minusWeeks(defaultPeriods - 1L);
+            case MONTH -> to.minusMonths(defaultPeriods - 1L);
+        };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.movie.catalog.analytics;
+
+import com.movie.catalog.entity.ViewingFact;
+import com.movie.catalog.entity.ViewingRollupKey;
+
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Изменение дневных сводок, накопленное по набору записей истории просмотра.
+ *
+ * <p>Для каждого ключа (день, жанр) хранит приращения добавлений, завершений и суммы дней до завершения.</p>
+ */
+
+class RollupDelta {
+
+    static final int ADDITIONS = 0;
+    static final int COMPLETIONS = 1;
+    static final int DAYS_TO_COMPLETE = 2;
+
+    private final Map<ViewingRollupKey, long[]> changes = new HashMap<>();
+
+    /**
+     * Добавляет ({@code sign = 1}) или вычитает ({@code sign = -1}) вклад записи в сводки.
+     */
+    void add(ViewingFact fact, int sign) {
+        List<String> genres = genresOf(fact.getGenre());
+
+        for (String genre : genres) {
+            if (fact.getAddedDate() != null) {
+                counters(new ViewingRollupKey(fact.getAddedDate(), genre))[ADDITIONS] += sign;
+            }
+
+            if (fact.getCompletedDate() != null) {
+                long[] counters = counters(new ViewingRollupKey(fact.getCompletedDate(), genre));
+                counters[COMPLETIONS] += sign;
+
+                if (fact.getAddedDate() != null) {
+                    long days = Math.max(0, ChronoUnit.DAYS.between(fact.getAddedDate(), fact.getCompletedDate()));
+                    counters[DAYS_TO_COMPLETE] += sign * days;
+                }
+            }
+        }
+    }
+
+    void merge(RollupDelta other) {
+        other.changes.forEach((key, values) -> {
+            long[] counters = counters(key);
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] += values[i];
+            }
+        });
+    }
+
+    /**
+     * Ненулевые изменения, упорядоченные по дню и жанру.
+     */
+    SortedMap<ViewingRollupKey, long[]> nonZero() {
+        SortedMap<ViewingRollupKey, long[]> result = new TreeMap<>(
+                Comparator.comparing(ViewingRollupKey::getDay).thenComparing(ViewingRollupKey::getGenre));
+
+        changes.forEach((key, values) -> {
+            if (values[ADDITIONS] != 0 || values[COMPLETIONS] != 0 || values[DAYS_TO_COMPLETE] != 0) {
+                result.put(key, values);
+            }
+        });
+        return result;
+    }
+
+    private long[] counters(ViewingRollupKey key) {
+        return changes.computeIfAbsent(key, k -> new long[3]);
+    }
+
+    // общая сводка плюс каждый жанр фильма (жанры перечисляются через запятую)
+    private static List<String> genresOf(String genre) {
+        List<String> genres = new ArrayList<>();
+        genres.add(ViewingRollupKey.ALL_GENRES);
+
+        if (genre != null) {
+            for (String g : genre.split(",")) {
+                String trimmedGenre = g.trim();
+                if (!trimmedGenre.isEmpty() && !genres.contains(trimmedGenre)) {
+                    genres.add(trimmedGenre);
+                }
+            }
+        }
+        return genres;
+    }
+}
\ No newline at end of file
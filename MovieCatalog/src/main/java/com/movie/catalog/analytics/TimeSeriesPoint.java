@@ -0,0 +1,16 @@
+package com.movie.catalog.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Точка временного ряда аналитики.
+ *
+ * @param period      начало периода (день, понедельник недели или первое число месяца)
+ * @param additions   число фильмов, добавленных в историю просмотра за период
+ * @param completions число завершенных за период просмотров
+ */
+
+public record TimeSeriesPoint(LocalDate period,
+                              long additions,
+                              long completions) {
+}
\ No newline at end of file
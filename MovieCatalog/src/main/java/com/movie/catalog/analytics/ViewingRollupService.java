@@ -0,0 +1,311 @@
+package com.movie.catalog.analytics;
+
+import com.movie.catalog.config.AnalyticsProperties;
+import com.movie.catalog.entity.*;
+import com.movie.catalog.repository.*;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервис аналитики просмотров на основе дневных сводок.
+ *
+ * <p>Сводки {@link ViewingDailyRollup} ведутся инкрементально: {@link ViewingRollupSink} получает из журнала изменений
+ * ID измененных записей истории и фильмов, и {@link #refresh(Collection, Collection)} применяет к сводкам
+ * разницу между учтенным ({@link ViewingFact}) и текущим состоянием этих записей.</p>
+ *
+ * <p><strong>Основные методы:</strong></p>
+ * <ul>
+ *   <li>{@link #refresh(Collection, Collection)} - пересчитывает вклад измененных записей истории и фильмов</li>
+ *   <li>{@link #markArchived(Collection)} - оставляет в сводках вклад записей, перенесенных в архив</li>
+ *   <li>{@link #backfill()} - строит сводки заново по всей истории просмотра в БД, обрабатывая диапазоны ID параллельно;
+ *       просмотры, перенесенные в архив, при этом из сводок выпадают</li>
+ *   <li>{@link #backfillIfIncomplete()} - при старте строит сводки, если нет отметки {@link ViewingRollupMarker}
+ *       о завершенном построении</li>
+ *   <li>{@link #getSeries(Granularity, String, LocalDate, LocalDate)} - добавления и завершения по дням, неделям или месяцам</li>
+ *   <li>{@link #getCompletionTimeByGenre()} - среднее число дней от добавления до завершения по жанрам</li>
+ * </ul>
+ *
+ * <p>Запись в сводки выполняется одним потоком за раз; чтение рядов обращается только к сводкам.</p>
+ *
+ * <p>Сводки общие для всего экземпляра приложения: в них учитывается история просмотра всех пользователей.</p>
+ *
+ * @see ViewingRollupSink
+ * @see AnalyticsProperties
+ */
+
+@Service
+public class ViewingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ViewingRollupService.class);
+
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private final WatchHistoryRepository watchHistoryRepository;
+    private final ViewingFactRepository viewingFactRepository;
+    private final ViewingDailyRollupRepository rollupRepository;
+    private final ViewingRollupMarkerRepository markerRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final AnalyticsProperties properties;
+
+    private final Object writeLock = new Object();
+
+    @Autowired // автоматическое внедрение зависимостей
+    public ViewingRollupService(WatchHistoryRepository watchHistoryRepository,
+                                ViewingFactRepository viewingFactRepository,
+                                ViewingDailyRollupRepository rollupRepository,
+                                ViewingRollupMarkerRepository markerRepository,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                AnalyticsProperties properties) {
+        this.watchHistoryRepository = watchHistoryRepository;
+        this.viewingFactRepository = viewingFactRepository;
+        this.rollupRepository = rollupRepository;
+        this.markerRepository = markerRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    public void refresh(Collection<Long> watchHistoryIds, Collection<Long> movieIds) {
+        synchronized (writeLock) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, ViewingFact> recorded = new HashMap<>();
+                Map<Long, ViewingFact> current = new HashMap<>();
+
+                for (List<Long> chunk : chunks(watchHistoryIds)) {
+                    viewingFactRepository.findByWatchHistoryIdIn(chunk).forEach(fact -> recorded.put(fact.getWatchHistoryId(), fact));
+                    watchHistoryRepository.findRollupRowsByIdIn(chunk).forEach(row -> putFact(current, row));
+                }
+                for (List<Long> chunk : chunks(movieIds)) {
+                    viewingFactRepository.findByMovieIdInAndArchivedFalse(chunk).forEach(fact -> recorded.put(fact.getWatchHistoryId(), fact));
+                    watchHistoryRepository.findRollupRowsByMovieIdIn(chunk).forEach(row -> putFact(current, row));
+                }
+
+                RollupDelta delta = new RollupDelta();
+                recorded.values().forEach(fact -> delta.add(fact, -1));
+                current.values().forEach(fact -> delta.add(fact, 1));
+                applyDelta(delta);
+
+                recorded.forEach((id, fact) -> {
+                    if (!current.containsKey(id)) {
+                        entityManager.remove(fact);
+                    }
+                });
+                current.forEach((id, fact) -> {
+                    ViewingFact existing = recorded.get(id);
+                    if (existing == null) {
+                        entityManager.persist(fact);
+                    } else {
+                        existing.setMovieId(fact.getMovieId());
+                        existing.setAddedDate(fact.getAddedDate());
+                        existing.setCompletedDate(fact.getCompletedDate());
+                        existing.setGenre(fact.getGenre());
+                    }
+                });
+            });
+        }
+    }
+
+    public void markArchived(Collection<Long> watchHistoryIds) {
+        synchronized (writeLock) {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (List<Long> chunk : chunks(watchHistoryIds)) {
+                    viewingFactRepository.markArchivedByWatchHistoryIdIn(chunk);
+                }
+            });
+        }
+    }
+
+    /**
+     * Строит сводки заново. Записи истории учитываются параллельными транзакциями по диапазонам ID,
+     * а сводки и отметка о завершении сохраняются последней транзакцией; если построение прервется между ними,
+     * отметки не будет, и {@link #backfillIfIncomplete()} повторит построение при следующем старте.
+     */
+    public int backfill() {
+        synchronized (writeLock) {
+            long startTime = System.currentTimeMillis();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                markerRepository.deleteAllInBatch();
+                rollupRepository.deleteAllInBatch();
+                viewingFactRepository.deleteAllInBatch();
+            });
+
+            Object[] range = watchHistoryRepository.findIdRange().get(0);
+            if (range[0] == null) {
+                transactionTemplate.executeWithoutResult(status -> markCompleted());
+                return 0;
+            }
+
+            long minId = (Long) range[0];
+            long maxId = (Long) range[1];
+            int chunkSize = Math.max(1, properties.getBackfillChunkSize());
+
+            AtomicInteger threadNumber = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.getBackfillThreads()), runnable -> {
+                Thread thread = new Thread(runnable, "viewing-rollup-backfill-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            try {
+                List<Future<RollupDelta>> parts = new ArrayList<>();
+                for (long fromId = minId; fromId <= maxId; fromId += chunkSize) {
+                    long chunkFrom = fromId;
+                    parts.add(executor.submit(() -> backfillChunk(chunkFrom, chunkFrom + chunkSize)));
+                }
+
+                RollupDelta total = new RollupDelta();
+                for (Future<RollupDelta> part : parts) {
+                    total.merge(part.get());
+                }
+
+                transactionTemplate.executeWithoutResult(status -> {
+                    applyDelta(total);
+                    markCompleted();
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Построение сводок просмотров прервано", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Не удалось построить сводки просмотров", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+
+            int records = (int) viewingFactRepository.count();
+            log.info("Сводки просмотров построены по {} записям истории за {} мс", records, System.currentTimeMillis() - startTime);
+            return records;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfIncomplete() {
+        if (!properties.isEnabled() || !properties.isBackfillOnStartup()) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            if (!markerRepository.existsById(ViewingRollupMarker.BACKFILL)) {
+                backfill();
+            }
+        }, "viewing-rollup-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public List<TimeSeriesPoint> getSeries(Granularity granularity, String genre, LocalDate from, LocalDate to) {
+        LocalDate firstPeriod = granularity.periodStart(from);
+        String genreKey = genre == null || genre.isBlank() ? ViewingRollupKey.ALL_GENRES : genre.trim();
+
+        Map<LocalDate, long[]> periods = new TreeMap<>();
+        for (LocalDate period = firstPeriod; !period.isAfter(to); period = granularity.next(period)) {
+            periods.put(period, new long[2]);
+        }
+
+        List<ViewingDailyRollup> rows = readOnlyTransactionTemplate.execute(status -> rollupRepository.findSeries(genreKey, firstPeriod, to));
+        for (ViewingDailyRollup row : rows) {
+            long[] counters = periods.get(granularity.periodStart(row.getId().getDay()));
+            counters[0] += row.getAdditions();
+            counters[1] += row.getCompletions();
+        }
+
+        List<TimeSeriesPoint> series = new ArrayList<>(periods.size());
+        periods.forEach((period, counters) -> series.add(new TimeSeriesPoint(period, counters[0], counters[1])));
+        return series;
+    }
+
+    public List<GenreCompletionTime> getCompletionTimeByGenre() {
+        List<GenreCompletionTime> result = new ArrayList<>();
+
+        for (Object[] row : readOnlyTransactionTemplate.execute(status -> rollupRepository.getCompletionTimeByGenre())) {
+            long completions = ((Number) row[1]).longValue();
+            long days = ((Number) row[2]).longValue();
+            result.add(new GenreCompletionTime((String) row[0], completions, (double) days / completions));
+        }
+        return result;
+    }
+
+    private RollupDelta backfillChunk(long fromId, long toId) {
+        return transactionTemplate.execute(status -> {
+            RollupDelta delta = new RollupDelta();
+
+            for (Object[] row : watchHistoryRepository.findRollupRowsByIdRange(fromId, toId)) {
+                ViewingFact fact = toFact(row);
+                entityManager.persist(fact);
+                delta.add(fact, 1);
+            }
+            return delta;
+        });
+    }
+
+    private void markCompleted() {
+        markerRepository.save(new ViewingRollupMarker(ViewingRollupMarker.BACKFILL, Instant.now()));
+    }
+
+    private void applyDelta(RollupDelta delta) {
+        SortedMap<ViewingRollupKey, long[]> changes = delta.nonZero();
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Map<ViewingRollupKey, ViewingDailyRollup> existing = new HashMap<>();
+        rollupRepository.findAllById(changes.keySet()).forEach(rollup -> existing.put(rollup.getId(), rollup));
+
+        changes.forEach((key, values) -> {
+            ViewingDailyRollup rollup = existing.get(key);
+            boolean created = rollup == null;
+            if (created) {
+                rollup = new ViewingDailyRollup(key);
+            }
+
+            rollup.setAdditions(rollup.getAdditions() + values[RollupDelta.ADDITIONS]);
+            rollup.setCompletions(rollup.getCompletions() + values[RollupDelta.COMPLETIONS]);
+            rollup.setDaysToCompleteSum(rollup.getDaysToCompleteSum() + values[RollupDelta.DAYS_TO_COMPLETE]);
+
+            if (created) {
+                entityManager.persist(rollup);
+            } else if (rollup.isEmpty()) {
+                entityManager.remove(rollup);
+            }
+        });
+    }
+
+    private static void putFact(Map<Long, ViewingFact> facts, Object[] row) {
+        ViewingFact fact = toFact(row);
+        facts.put(fact.getWatchHistoryId(), fact);
+    }
+
+    private static ViewingFact toFact(Object[] row) {
+        return new ViewingFact((Long) row[0], (Long) row[1], (LocalDate) row[2], (LocalDate) row[3], (String) row[4], false);
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += ID_CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(list.size(), from + ID_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.movie.catalog.analytics;
+
+import com.movie.catalog.event.CatalogChangedEvent.ChangeType;
+import com.movie.catalog.event.CatalogChangedEvent.EntityType;
+import com.movie.catalog.outbox.OutboxMessage;
+import com.movie.catalog.outbox.OutboxSink;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Получатель журнала изменений, поддерживающий дневные сводки просмотров.
+ *
+ * <p>Изменения записей истории просмотра пересчитываются по их ID; изменения и удаление фильма -
+ * по всем записям истории этого фильма (меняются жанры или записи удаляются каскадно).
+ * Перенос записей в архив сводки не меняет: записи только помечаются архивными, и просмотры остаются в аналитике.
+ * Пачка событий обрабатывается одним пересчетом.</p>
+ *
+ * @see ViewingRollupService
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "catalog.analytics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ViewingRollupSink implements OutboxSink {
+
+    private final ViewingRollupService viewingRollupService;
+
+    @Autowired // автоматическое внедрение зависимости с сервисом
+    public ViewingRollupSink(ViewingRollupService viewingRollupService) {
+        this.viewingRollupService = viewingRollupService;
+    }
+
+    @Override
+    public String name() {
+        return "viewing-rollups";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        Set<Long> watchHistoryIds = new HashSet<>();
+        Set<Long> movieIds = new HashSet<>();
+        Set<Long> archivedIds = new HashSet<>();
+
+        for (OutboxMessage message : batch) {
+            if (EntityType.WATCH_HISTORY.name().equals(message.entity()) && ChangeType.ARCHIVED.name().equals(message.change())) {
+                archivedIds.addAll(message.ids());
+            } else if (EntityType.WATCH_HISTORY.name().equals(message.entity())) {
+                watchHistoryIds.addAll(message.ids());
+            } else if (EntityType.MOVIE.name().equals(message.entity()) && !ChangeType.CREATED.name().equals(message.change())) {
+                movieIds.addAll(message.ids());
+            }
+        }
+
+        if (!archivedIds.isEmpty()) {
+            // архивная запись удалена из таблицы, пересчет по ее ID снял бы ее вклад из сводок
+            watchHistoryIds.removeAll(archivedIds);
+            viewingRollupService.markArchived(archivedIds);
+        }
+        if (!watchHistoryIds.isEmpty() || !movieIds.isEmpty()) {
+            viewingRollupService.refresh(watchHistoryIds, movieIds);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.movie.catalog.analytics;
+
+import java.util.List;
+
+/**
+ * Личная статистика просмотров для страницы {@code /stats}.
+ *
+ * @param totalEntries            число записей в истории просмотра
+ * @param completedEntries        число завершенных просмотров
+ * @param droppedEntries          число брошенных просмотров
+ * @param minutesWatched          суммарная длительность просмотренных фильмов в минутах
+ * @param favoriteGenres          жанры с наибольшим числом завершенных просмотров
+ * @param ratingDistribution      число рецензий по целой части оценки
+ * @param comparedReviews         число рецензий на фильмы с рейтингом в каталоге
+ * @param averageRatingGap        средняя разница "моя оценка минус рейтинг каталога", {@code null} без данных
+ * @param averageAbsoluteRatingGap средняя абсолютная разница оценок, {@code null} без данных
+ * @param largestRatingGaps       рецензии с наибольшим расхождением оценки и рейтинга каталога
+ */
+
+public record ViewingStats(long totalEntries,
+                           long completedEntries,
+                           long droppedEntries,
+                           long minutesWatched,
+                           List<GenreCount> favoriteGenres,
+                           List<RatingBucket> ratingDistribution,
+                           long comparedReviews,
+                           Double averageRatingGap,
+                           Double averageAbsoluteRatingGap,
+                           List<RatingGap> largestRatingGaps) {
+
+    /**
+     * Доля завершенных просмотров среди всех записей истории, в процентах.
+     */
+    public double completionRate() {
+        return totalEntries == 0 ? 0 : completedEntries * 100.0 / totalEntries;
+    }
+
+    public long hoursWatched() {
+        return minutesWatched / 60;
+    }
+
+    /**
+     * Наибольшее число рецензий с одной оценкой - для масштаба диаграммы оценок.
+     */
+    public long largestRatingBucket() {
+        return ratingDistribution.stream().mapToLong(RatingBucket::reviews).max().orElse(0);
+    }
+
+    public record GenreCount(String genre, long completed) {
+    }
+
+    public record RatingBucket(int rating, long reviews) {
+    }
+
+    public record RatingGap(Long movieId, String title, float catalogRating, float myRating) {
+
+        public float gap() {
+            return myRating - catalogRating;
+        }
+    }
+}
\ No newline at end of file
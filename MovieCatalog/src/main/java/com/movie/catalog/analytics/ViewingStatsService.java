@@ -0,0 +1,133 @@
+package com.movie.catalog.analytics;
+
+import com.movie.catalog.analytics.ViewingStats.*;
+import com.movie.catalog.config.PrimaryReads;
+import com.movie.catalog.repository.*;
+import com.movie.catalog.service.CatalogDataVersion;
+import com.movie.catalog.service.CurrentUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сервис личной статистики просмотров.
+ *
+ * <p>Каждый блок статистики считается одним агрегирующим запросом в БД по строкам текущего пользователя
+ * ({@link CurrentUser}) - списки сущностей не загружаются. Результат кэшируется для каждого пользователя
+ * вместе с версией данных каталога ({@link CatalogDataVersion}) и пересчитывается только после изменения
+ * фильмов, рецензий или истории просмотра. Расчет читает основную БД ({@link PrimaryReads}), а не реплику,
+ * чтобы под новой версией не закрепилась статистика до последней записи.</p>
+ *
+ * @see ViewingStats
+ * @see CatalogDataVersion
+ */
+
+@Service
+public class ViewingStatsService {
+
+    private static final int FAVORITE_GENRES = 5;
+    private static final int LARGEST_GAPS = 5;
+
+    private final WatchHistoryRepository watchHistoryRepository;
+    private final ReviewRepository reviewRepository;
+    private final CatalogDataVersion dataVersion;
+    private final CurrentUser currentUser;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final Map<Long, CachedStats> cached = new ConcurrentHashMap<>();
+
+    @Autowired // автоматическое внедрение зависимостей
+    public ViewingStatsService(WatchHistoryRepository watchHistoryRepository,
+                               ReviewRepository reviewRepository,
+                               CatalogDataVersion dataVersion,
+                               CurrentUser currentUser,
+                               PlatformTransactionManager transactionManager) {
+        this.watchHistoryRepository = watchHistoryRepository;
+        this.reviewRepository = reviewRepository;
+        this.dataVersion = dataVersion;
+        this.currentUser = currentUser;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    public ViewingStats getStats() {
+        // версия читается до расчета: изменение во время расчета сделает результат устаревшим
+        long version = dataVersion.current();
+        Long userId = currentUser.id();
+        CachedStats current = cached.get(userId);
+
+        if (current != null && current.version() == version) {
+            return current.stats();
+        }
+
+        ViewingStats stats = PrimaryReads.call(() -> readOnlyTransactionTemplate.execute(status -> calculate(userId)));
+        cached.put(userId, new CachedStats(version, stats));
+        return stats;
+    }
+
+    private ViewingStats calculate(Long userId) {
+        Object[] summary = watchHistoryRepository.getCompletionSummary(userId).get(0);
+
+        Object[] gapSummary = reviewRepository.getRatingGapSummary(userId).get(0);
+
+        return new ViewingStats(
+                toLong(summary[0]),
+                toLong(summary[1]),
+                toLong(summary[2]),
+                toLong(summary[3]),
+                favoriteGenres(userId),
+                ratingDistribution(userId),
+                toLong(gapSummary[0]),
+                toDouble(gapSummary[1]),
+                toDouble(gapSummary[2]),
+                largestRatingGaps(userId));
+    }
+
+    private List<GenreCount> favoriteGenres(Long userId) {
+        // жанры фильма хранятся одной строкой через запятую - запрос группирует по строке, здесь она разбивается на жанры
+        Map<String, Long> counts = new HashMap<>();
+
+        for (Object[] row : watchHistoryRepository.getCompletedCountByGenre(userId)) {
+            for (String g : ((String) row[0]).split(",")) {
+                String trimmedGenre = g.trim();
+                if (!trimmedGenre.isEmpty()) {
+                    counts.merge(trimmedGenre, toLong(row[1]), Long::sum);
+                }
+            }
+        }
+
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(FAVORITE_GENRES)
+                .map(entry -> new GenreCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private List<RatingBucket> ratingDistribution(Long userId) {
+        return reviewRepository.getRatingDistribution(userId).stream()
+                .map(row -> new RatingBucket(((Number) row[0]).intValue(), toLong(row[1])))
+                .toList();
+    }
+
+    private List<RatingGap> largestRatingGaps(Long userId) {
+        return reviewRepository.findLargestRatingGaps(userId, Limit.of(LARGEST_GAPS)).stream()
+                .map(row -> new RatingGap((Long) row[0], (String) row[1], ((Number) row[2]).floatValue(), ((Number) row[3]).floatValue()))
+                .toList();
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+
+    private static Double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+
+    private record CachedStats(long version, ViewingStats stats) {
+    }
+}
\ No newline at end of file
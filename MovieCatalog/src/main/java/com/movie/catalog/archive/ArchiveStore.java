@@ -0,0 +1,192 @@
+package com.movie.catalog.archive;
+
+import com.movie.catalog.config.ArchiveProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Файловый архив рецензий и истории просмотра.
+ *
+ * <p>Архивные строки хранятся сжатыми файлами NDJSON (одна строка JSON на запись) отдельно для каждого
+ * пользователя: {@code <root>/<раздел>/<ID пользователя>/<время>-<первый ID>.ndjson.gz}. Каждый запуск переноса
+ * добавляет новые файлы и не меняет старые. Файл пишется во временный файл, сбрасывается на диск
+ * и затем переносится на свое место, после чего на диск сбрасывается и каталог, поэтому читатель не видит
+ * наполовину записанных файлов, а перенесенный файл не пропадает после сбоя питания.</p>
+ *
+ * <p>Файл, который не удается прочитать (поврежден или обрезан), при чтении переименовывается
+ * в {@code <имя>.corrupt} и больше не читается; остальные файлы пользователя читаются как обычно.</p>
+ *
+ * <p>После сбоя между записью файла и коммитом удаления строк запись может попасть в архив повторно:
+ * при чтении из повторов остается последняя записанная копия.</p>
+ *
+ * @see CatalogArchiver
+ * @see ArchiveProperties
+ */
+
+@Component
+public class ArchiveStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveStore.class);
+
+    private static final String EXTENSION = ".ndjson.gz";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+
+    private final ArchiveProperties properties;
+    private final ObjectMapper objectMapper;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public ArchiveStore(ArchiveProperties properties,
+                        ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Записывает строки пользователя новым файлом архива.
+     */
+    public void write(Section section, Long userId, Long firstId, List<?> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Path directory = directory(section, userId);
+        Path temp = null;
+
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, "archive", ".tmp");
+
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 GZIPOutputStream gzip = new GZIPOutputStream(file);
+                 Writer out = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8))) {
+                for (Object row : rows) {
+                    out.write(objectMapper.writeValueAsString(row));
+                    out.write('\n');
+                }
+                out.flush();
+                // окончание потока gzip пишется до сброса на диск, иначе на диске может остаться файл без него
+                gzip.finish();
+                file.getFD().sync();
+            }
+
+            Path target = directory.resolve(System.currentTimeMillis() + "-" + firstId + EXTENSION);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(directory);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать архив " + section.getDirectory() + " пользователя " + userId, e);
+
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // временный файл будет перезаписан или удален при следующем запуске
+                }
+            }
+        }
+    }
+
+    /**
+     * Архивные строки пользователя в порядке записи; из повторов одной записи остается последняя копия.
+     */
+    public <T> List<T> read(Section section, Long userId, Class<T> type, Function<T, Long> idOf) {
+        Path directory = directory(section, userId);
+
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        Map<Long, T> rows = new LinkedHashMap<>();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            // имя файла начинается со времени записи, поэтому сортировка по имени - порядок записи
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(EXTENSION)).sorted().toList()) {
+                List<T> fileRows;
+                try {
+                    fileRows = readFile(file, type);
+                } catch (IOException | RuntimeException e) {
+                    quarantine(file, e);
+                    continue;
+                }
+
+                for (T row : fileRows) {
+                    Long id = idOf.apply(row);
+                    rows.remove(id);
+                    rows.put(id, row);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать архив " + section.getDirectory() + " пользователя " + userId, e);
+        }
+
+        return new ArrayList<>(rows.values());
+    }
+
+    private <T> List<T> readFile(Path file, Class<T> type) throws IOException {
+        List<T> rows = new ArrayList<>();
+
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    rows.add(objectMapper.readValue(line, type));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static void quarantine(Path file, Exception cause) {
+        Path corrupt = file.resolveSibling(file.getFileName() + CORRUPT_SUFFIX);
+
+        try {
+            Files.move(file, corrupt, StandardCopyOption.REPLACE_EXISTING);
+            log.warn("Файл архива {} не читается и переименован в {}: {}", file, corrupt.getFileName(), cause.toString());
+        } catch (IOException e) {
+            log.warn("Файл архива {} не читается и пропущен: {}", file, cause.toString());
+        }
+    }
+
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // не все системы позволяют открыть каталог (например, Windows) - там каталог не сбрасывается
+        }
+    }
+
+    private Path directory(Section section, Long userId) {
+        return properties.getRoot().toAbsolutePath().resolve(section.getDirectory()).resolve(String.valueOf(userId));
+    }
+
+    /** Раздел архива. */
+    public enum Section {
+        REVIEWS("reviews"),
+        WATCH_HISTORY("watch-history");
+
+        private final String directory;
+
+        Section(String directory) {
+            this.directory = directory;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.movie.catalog.archive;
+
+/**
+ * Итог переноса старых строк в архив.
+ *
+ * @param reviews       число рецензий, перенесенных в архив
+ * @param watchHistory  число записей истории просмотра, перенесенных в архив
+ * @param elapsedMillis время переноса в миллисекундах
+ */
+
+public record ArchiveSummary(int reviews,
+                             int watchHistory,
+                             long elapsedMillis) {
+}
\ No newline at end of file
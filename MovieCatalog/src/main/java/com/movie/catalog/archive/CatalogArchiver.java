@@ -0,0 +1,185 @@
+package com.movie.catalog.archive;
+
+import com.movie.catalog.archive.ArchiveStore.Section;
+import com.movie.catalog.config.ArchiveProperties;
+import com.movie.catalog.dto.MovieTitle;
+import com.movie.catalog.dto.ReviewRow;
+import com.movie.catalog.dto.WatchRow;
+import com.movie.catalog.entity.Review;
+import com.movie.catalog.entity.WatchHistory;
+import com.movie.catalog.event.CatalogChangedEvent;
+import com.movie.catalog.event.CatalogChangedEvent.ChangeType;
+import com.movie.catalog.event.CatalogChangedEvent.EntityType;
+import com.movie.catalog.repository.*;
+import com.movie.catalog.service.CurrentUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Перенос старых рецензий и завершенных просмотров из БД в файловый архив.
+ *
+ * <p>В архив переносятся рецензии с датой просмотра старше {@code catalog.archive.review-horizon}
+ * и завершенные просмотры с датой завершения старше {@code catalog.archive.watch-history-horizon}.
+ * Кандидаты читаются пачками по возрастанию ID и переносятся отдельной транзакцией для каждого пользователя:
+ * строки блокируются, записываются в {@link ArchiveStore} и удаляются из БД. Если строку изменили
+ * после чтения кандидатов и она больше не подходит под условие, она остается в БД.</p>
+ *
+ * <p>После переноса публикуется {@link CatalogChangedEvent} с {@link ChangeType#ARCHIVED}: списки и счетчики
+ * обновляются как после удаления, а сводки аналитики сохраняют вклад перенесенных просмотров.</p>
+ *
+ * @see ArchiveStore
+ * @see ArchiveProperties
+ */
+
+@Component
+public class CatalogArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogArchiver.class);
+
+    private final ReviewRepository reviewRepository;
+    private final WatchHistoryRepository watchHistoryRepository;
+    private final MovieRepository movieRepository;
+    private final ArchiveStore archiveStore;
+    private final ArchiveProperties properties;
+    private final CurrentUser currentUser;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public CatalogArchiver(ReviewRepository reviewRepository,
+                           WatchHistoryRepository watchHistoryRepository,
+                           MovieRepository movieRepository,
+                           ArchiveStore archiveStore,
+                           ArchiveProperties properties,
+                           CurrentUser currentUser,
+                           PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher eventPublisher) {
+        this.reviewRepository = reviewRepository;
+        this.watchHistoryRepository = watchHistoryRepository;
+        this.movieRepository = movieRepository;
+        this.archiveStore = archiveStore;
+        this.properties = properties;
+        this.currentUser = currentUser;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.archive.interval:1d}")
+    public void archiveOnSchedule() {
+        if (properties.isEnabled()) {
+            archive();
+        }
+    }
+
+    public synchronized ArchiveSummary archive() {
+        long startTime = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+
+        LocalDate reviewsBefore = today.minusDays(properties.getReviewHorizon().toDays());
+        int reviews = archiveInBatches(reviewRepository::findArchiveCandidates, reviewsBefore,
+                (userId, ids) -> archiveReviews(userId, ids, reviewsBefore));
+
+        LocalDate watchHistoryBefore = today.minusDays(properties.getWatchHistoryHorizon().toDays());
+        int watchHistory = archiveInBatches(watchHistoryRepository::findArchiveCandidates, watchHistoryBefore,
+                (userId, ids) -> archiveWatchHistory(userId, ids, watchHistoryBefore));
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        if (reviews > 0 || watchHistory > 0) {
+            log.info("В архив перенесено {} рецензий и {} записей истории просмотра за {} мс", reviews, watchHistory, elapsed);
+        }
+
+        return new ArchiveSummary(reviews, watchHistory, elapsed);
+    }
+
+    private int archiveInBatches(CandidateQuery candidates, LocalDate before, BiFunction<Long, List<Long>, Integer> archiveForUser) {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int archived = 0;
+        long afterId = 0;
+
+        while (true) {
+            List<Object[]> rows = candidates.find(before, afterId, Limit.of(batchSize));
+            if (rows.isEmpty()) {
+                return archived;
+            }
+
+            Map<Long, List<Long>> idsByUser = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                idsByUser.computeIfAbsent((Long) row[1], userId -> new ArrayList<>()).add((Long) row[0]);
+            }
+
+            // события публикуются после коммита, поэтому вся транзакция выполняется от имени пользователя строк
+            for (Map.Entry<Long, List<Long>> entry : idsByUser.entrySet()) {
+                archived += currentUser.callAs(entry.getKey(),
+                        () -> transactionTemplate.execute(status -> archiveForUser.apply(entry.getKey(), entry.getValue())));
+            }
+
+            if (rows.size() < batchSize) {
+                return archived;
+            }
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+
+    private int archiveReviews(Long userId, List<Long> ids, LocalDate before) {
+        List<Review> reviews = reviewRepository.lockArchivable(userId, ids, before);
+        if (reviews.isEmpty()) {
+            return 0;
+        }
+
+        // у отложенно загружаемого фильма ID доступен без запроса к БД
+        Map<Long, String> titles = findTitles(reviews.stream().map(review -> review.getMovie().getId()).toList());
+        List<ReviewRow> rows = reviews.stream()
+                .sorted(Comparator.comparing(Review::getId))
+                .map(review -> new ReviewRow(review.getId(), review.getMovie().getId(), titles.get(review.getMovie().getId()),
+                        review.getRating(), review.getComment(), review.getWatchDate()))
+                .toList();
+        List<Long> archivedIds = rows.stream().map(ReviewRow::id).toList();
+
+        archiveStore.write(Section.REVIEWS, userId, archivedIds.get(0), rows);
+        reviewRepository.deleteByIdIn(userId, archivedIds);
+        eventPublisher.publishEvent(new CatalogChangedEvent(EntityType.REVIEW, ChangeType.ARCHIVED, archivedIds));
+        return archivedIds.size();
+    }
+
+    private int archiveWatchHistory(Long userId, List<Long> ids, LocalDate before) {
+        List<WatchHistory> entries = watchHistoryRepository.lockArchivable(userId, ids, before);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> titles = findTitles(entries.stream().map(entry -> entry.getMovie().getId()).toList());
+        List<WatchRow> rows = entries.stream()
+                .sorted(Comparator.comparing(WatchHistory::getId))
+                .map(entry -> new WatchRow(entry.getId(), entry.getMovie().getId(), titles.get(entry.getMovie().getId()),
+                        entry.getStatus(), entry.getAddedDate(), entry.getCompletedDate()))
+                .toList();
+        List<Long> archivedIds = rows.stream().map(WatchRow::id).toList();
+
+        archiveStore.write(Section.WATCH_HISTORY, userId, archivedIds.get(0), rows);
+        watchHistoryRepository.deleteByIdIn(userId, archivedIds);
+        eventPublisher.publishEvent(new CatalogChangedEvent(EntityType.WATCH_HISTORY, ChangeType.ARCHIVED, archivedIds));
+        return archivedIds.size();
+    }
+
+    private Map<Long, String> findTitles(Collection<Long> movieIds) {
+        return movieRepository.findTitlesByIdIn(new HashSet<>(movieIds)).stream()
+                .collect(Collectors.toMap(MovieTitle::id, MovieTitle::title));
+    }
+
+    @FunctionalInterface
+    private interface CandidateQuery {
+        List<Object[]> find(LocalDate before, Long afterId, Limit limit);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки аналитики просмотров.
+ *
+ * <p>Свойства с префиксом {@code catalog.analytics}:
+ * <ul>
+ *   <li>{@code enabled} - ведение дневных сводок по журналу изменений каталога</li>
+ *   <li>{@code backfill-on-startup} - построить сводки при старте, если они еще не строились или построение было прервано</li>
+ *   <li>{@code backfill-threads} - число потоков, параллельно обрабатывающих историю при построении сводок</li>
+ *   <li>{@code backfill-chunk-size} - размер диапазона ID записей, обрабатываемого одним потоком за раз</li>
+ * </ul>
+ * </p>
+ *
+ * @see com.movie.catalog.analytics.ViewingRollupService
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.analytics")
+public class AnalyticsProperties {
+
+    private boolean enabled = true;
+
+    private boolean backfillOnStartup = true;
+
+    private int backfillThreads = 4;
+
+    private int backfillChunkSize = 5000;
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки архивирования старых рецензий и истории просмотра.
+ *
+ * <p>Свойства с префиксом {@code catalog.archive}:
+ * <ul>
+ *   <li>{@code enabled} - включает перенос старых строк в архив по расписанию</li>
+ *   <li>{@code root} - каталог архивных файлов</li>
+ *   <li>{@code review-horizon} - рецензии с датой просмотра старше этого срока переносятся в архив</li>
+ *   <li>{@code watch-history-horizon} - завершенные просмотры с датой завершения старше этого срока переносятся в архив</li>
+ *   <li>{@code interval} - интервал между запусками переноса</li>
+ *   <li>{@code batch-size} - число строк, читаемых из БД за один запрос</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Архив читается только со страниц архива, поэтому обычные списки и статистика работают с меньшими таблицами.</p>
+ *
+ * @see com.movie.catalog.archive.CatalogArchiver
+ * @see com.movie.catalog.archive.ArchiveStore
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = false;
+
+    private Path root = Path.of("data/archive");
+
+    private Duration reviewHorizon = Duration.ofDays(730);
+
+    private Duration watchHistoryHorizon = Duration.ofDays(365);
+
+    private Duration interval = Duration.ofDays(1);
+
+    private int batchSize = 1000;
+}
\ No newline at end of file
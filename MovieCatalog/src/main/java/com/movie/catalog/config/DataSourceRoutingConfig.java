@@ -0,0 +1,86 @@
+package com.movie.catalog.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.*;
+
+/**
+ * Конфигурация маршрутизации чтения на реплики PostgreSQL.
+ *
+ * <p>Включается свойством {@code catalog.datasource.routing.enabled=true}. Основная БД настраивается
+ * стандартными свойствами {@code spring.datasource.*}, реплики - списком {@code catalog.datasource.routing.replicas}.
+ * Методы сервисов с {@code @Transactional(readOnly = true)} читают с реплик, остальные работают с основной БД.
+ * Данные для кэшей с версией каталога читаются из основной БД через {@link PrimaryReads}.</p>
+ *
+ * <p>Пример для двух локальных экземпляров PostgreSQL:
+ * <pre>
+ * catalog.datasource.routing.enabled=true
+ * catalog.datasource.routing.replicas[0].url=jdbc:postgresql://localhost:5433/movie_catalog
+ * catalog.datasource.routing.replicas[0].username=postgres
+ * catalog.datasource.routing.replicas[0].password=${REPLICA_PASSWORD}
+ * </pre>
+ * </p>
+ *
+ * @see ReplicaRoutingDataSource
+ * @see ReplicaLagMonitor
+ * @see ReplicaRoutingProperties
+ */
+
+@Configuration
+@ConditionalOnProperty(prefix = "catalog.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaRoutingProperties properties) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ReplicaRoutingProperties properties,
+                                                             ReadYourWritesTracker readYourWritesTracker) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaRoutingProperties.Replica> replicaSettings = properties.getReplicas();
+
+        for (int i = 0; i < replicaSettings.size(); i++) {
+            ReplicaRoutingProperties.Replica settings = replicaSettings.get(i);
+
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(settings.getUrl());
+            replica.setUsername(settings.getUsername() != null ? settings.getUsername() : dataSourceProperties.getUsername());
+            replica.setPassword(settings.getPassword() != null ? settings.getPassword() : dataSourceProperties.getPassword());
+            replica.setReadOnly(true);
+
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWritesTracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("replicaRoutingDataSource") DataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               ReadYourWritesTracker readYourWritesTracker,
+                                               ReplicaRoutingProperties properties) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, readYourWritesTracker, properties.getMaxReplicaLag());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.movie.catalog.config;
+
+import com.movie.catalog.enrichment.FileMetadataProvider;
+import com.movie.catalog.enrichment.HttpMetadataProvider;
+import com.movie.catalog.enrichment.MetadataCache;
+import com.movie.catalog.enrichment.MetadataProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Источник и кэш метаданных для заполнения фильмов.
+ *
+ * <p>Источник выбирается свойством {@code catalog.enrichment.provider}. Включается при {@code catalog.enrichment.enabled=true}.</p>
+ *
+ * @see EnrichmentProperties
+ * @see com.movie.catalog.enrichment.MetadataEnricher
+ */
+
+@Configuration
+@ConditionalOnProperty(prefix = "catalog.enrichment", name = "enabled", havingValue = "true")
+public class EnrichmentConfig {
+
+    @Bean
+    public MetadataProvider metadataProvider(EnrichmentProperties properties,
+                                             ObjectMapper objectMapper) {
+        return switch (properties.getProvider()) {
+            case FILE -> new FileMetadataProvider(properties.getFile(), objectMapper);
+            case HTTP -> new HttpMetadataProvider(properties.getUrl(), properties.getRequestTimeout(), objectMapper);
+        };
+    }
+
+    @Bean
+    public MetadataCache metadataCache(EnrichmentProperties properties,
+                                       ObjectMapper objectMapper) {
+        return new MetadataCache(properties, objectMapper);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки заполнения метаданных фильмов из внешнего источника.
+ *
+ * <p>Свойства с префиксом {@code catalog.enrichment}:
+ * <ul>
+ *   <li>{@code enabled} - включает заполнение метаданных ({@code /admin/enrichment})</li>
+ *   <li>{@code provider} - источник метаданных: {@code file} - локальный файл NDJSON, {@code http} - HTTP-сервис</li>
+ *   <li>{@code file} - файл NDJSON источника {@code file}, одна строка JSON на фильм</li>
+ *   <li>{@code url} - адрес источника {@code http}, к нему добавляются параметры {@code title} и {@code year}</li>
+ *   <li>{@code request-timeout} - время ожидания ответа источника {@code http}</li>
+ *   <li>{@code concurrency} - число одновременных запросов к источнику</li>
+ *   <li>{@code permits-per-second} - максимальное число запросов к источнику в секунду</li>
+ *   <li>{@code burst} - число запросов, которые можно выполнить сразу после простоя</li>
+ *   <li>{@code batch-size} - число фильмов, обновляемых одной транзакцией</li>
+ *   <li>{@code cache-directory} - каталог дискового кэша ответов источника</li>
+ *   <li>{@code cache-ttl} - срок хранения найденных метаданных в кэше</li>
+ *   <li>{@code negative-cache-ttl} - срок хранения ответа "фильм не найден" в кэше</li>
+ * </ul>
+ * </p>
+ *
+ * <p>При 200 запросах в секунду каталог из 100 000 фильмов без кэша заполняется примерно за 8-9 минут;
+ * при повторном запуске найденные метаданные берутся из кэша без обращения к источнику.</p>
+ *
+ * @see com.movie.catalog.enrichment.MetadataEnricher
+ * @see com.movie.catalog.enrichment.MetadataProvider
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.enrichment")
+public class EnrichmentProperties {
+
+    private boolean enabled = false;
+
+    private ProviderType provider = ProviderType.FILE;
+
+    private Path file = Path.of("data/metadata.ndjson");
+
+    private String url;
+
+    private Duration requestTimeout = Duration.ofSeconds(5);
+
+    private int concurrency = 16;
+
+    private double permitsPerSecond = 200;
+
+    private int burst = 50;
+
+    private int batchSize = 500;
+
+    private Path cacheDirectory = Path.of("data/metadata-cache");
+
+    private Duration cacheTtl = Duration.ofDays(30);
+
+    private Duration negativeCacheTtl = Duration.ofDays(1);
+
+    public enum ProviderType {
+        FILE,
+        HTTP
+    }
+}
\ No newline at end of file
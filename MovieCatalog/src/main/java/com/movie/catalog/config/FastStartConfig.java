@@ -0,0 +1,48 @@
+package com.movie.catalog.config;
+
+import com.movie.catalog.archive.CatalogArchiver;
+import com.movie.catalog.outbox.OutboxRelay;
+import com.movie.catalog.service.WatchStatusWriteBehind;
+import com.movie.catalog.snapshot.CatalogSnapshot;
+import com.movie.catalog.web.CatalogEventBroadcaster;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * Исключения из отложенной инициализации бинов для профиля {@code fast-start}.
+ *
+ * <p>При {@code spring.main.lazy-initialization=true} бин создается при первом обращении. Сразу при старте
+ * по-прежнему создаются:
+ * <ul>
+ *   <li>фабрика {@link EntityManagerFactory} - проверка схемы ({@code ddl-auto=validate}) выполняется при старте,
+ *   а не при первом запросе</li>
+ *   <li>бины с задачами {@code @Scheduled} - задачи регистрируются только при создании бина</li>
+ *   <li>{@link WatchStatusWriteBehind} - восстанавливает журнал отложенной записи при старте</li>
+ *   <li>{@link CatalogSnapshot} - ошибка открытия снимка в автономном режиме должна остановить запуск</li>
+ * </ul>
+ * </p>
+ *
+ * @see org.springframework.boot.LazyInitializationBeanFactoryPostProcessor
+ */
+
+@Configuration
+@ConditionalOnProperty(prefix = "spring.main", name = "lazy-initialization", havingValue = "true")
+public class FastStartConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerCatalogBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                EntityManagerFactory.class,
+                AbstractEntityManagerFactoryBean.class,
+                OutboxRelay.class,
+                CatalogEventBroadcaster.class,
+                ReplicaLagMonitor.class,
+                CatalogArchiver.class,
+                WatchStatusWriteBehind.class,
+                CatalogSnapshot.class);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки кэша отрисованных фрагментов страниц.
+ *
+ * <p>Свойства с префиксом {@code catalog.fragment-cache}:
+ * <ul>
+ *   <li>{@code enabled} - включает кэширование (в профиле {@code prod})</li>
+ *   <li>{@code max-entries} - максимальное число фрагментов в кэше</li>
+ * </ul>
+ * </p>
+ *
+ * @see com.movie.catalog.web.FragmentCache
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.fragment-cache")
+public class FragmentCacheProperties {
+
+    private boolean enabled = false;
+
+    private int maxEntries = 256;
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки ленты изменений каталога (server-sent events).
+ *
+ * <p>Свойства с префиксом {@code catalog.live-updates}:
+ * <ul>
+ *   <li>{@code enabled} - включает endpoint {@code /events}</li>
+ *   <li>{@code max-clients} - максимальное число одновременных подписчиков</li>
+ *   <li>{@code client-buffer-size} - размер буфера событий одного клиента, при переполнении отбрасываются самые старые</li>
+ *   <li>{@code dispatch-threads} - число потоков, отправляющих события всем клиентам</li>
+ *   <li>{@code emitter-timeout} - время жизни соединения, после которого браузер переподключается</li>
+ *   <li>{@code heartbeat-interval} - интервал служебных сообщений для обнаружения закрытых соединений</li>
+ * </ul>
+ * </p>
+ *
+ * @see com.movie.catalog.web.CatalogEventBroadcaster
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.live-updates")
+public class LiveUpdatesProperties {
+
+    private boolean enabled = true;
+
+    private int maxClients = 10000;
+
+    private int clientBufferSize = 32;
+
+    private int dispatchThreads = 2;
+
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+
+    private Duration heartbeatInterval = Duration.ofSeconds(20);
+}
\ No newline at end of file
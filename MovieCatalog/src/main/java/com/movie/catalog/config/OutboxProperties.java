@@ -0,0 +1,78 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки журнала изменений каталога (transactional outbox).
+ *
+ * <p>Свойства с префиксом {@code catalog.outbox}:
+ * <ul>
+ *   <li>{@code enabled} - запись событий в журнал и их доставка получателям</li>
+ *   <li>{@code batch-size} - число событий, передаваемых получателю за раз</li>
+ *   <li>{@code relay-interval} - интервал опроса журнала</li>
+ *   <li>{@code gap-timeout} - сколько ждать отсутствующий ID в журнале, прежде чем считать
+ *       его транзакцию откаченной и доставлять события после него</li>
+ *   <li>{@code retention} - сколько хранить события, уже переданные всем получателям (для повторной доставки)</li>
+ *   <li>{@code cleanup-interval} - интервал удаления событий с истекшим сроком хранения</li>
+ *   <li>{@code memory-bus.enabled} - получатель в памяти процесса</li>
+ *   <li>{@code ndjson.enabled}, {@code ndjson.path} - получатель, дописывающий события в файл NDJSON</li>
+ *   <li>{@code broker.enabled}, {@code broker.capacity} - локальная замена брокера сообщений</li>
+ * </ul>
+ * </p>
+ *
+ * @see com.movie.catalog.outbox.OutboxRelay
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = true;
+
+    private int batchSize = 500;
+
+    private Duration relayInterval = Duration.ofSeconds(1);
+
+    private Duration gapTimeout = Duration.ofMinutes(1);
+
+    private Duration retention = Duration.ofDays(7);
+
+    private Duration cleanupInterval = Duration.ofHours(1);
+
+    private MemoryBus memoryBus = new MemoryBus();
+
+    private Ndjson ndjson = new Ndjson();
+
+    private Broker broker = new Broker();
+
+    @Getter
+    @Setter
+    public static class MemoryBus {
+
+        private boolean enabled = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Ndjson {
+
+        private boolean enabled = false;
+
+        private Path path = Path.of("data/outbox/catalog-events.ndjson");
+    }
+
+    @Getter
+    @Setter
+    public static class Broker {
+
+        private boolean enabled = false;
+
+        private int capacity = 100000;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Настройки хранилища постеров фильмов.
+ *
+ * <p>Свойства с префиксом {@code catalog.posters}:
+ * <ul>
+ *   <li>{@code root} - каталог, в котором хранятся постеры и их уменьшенные копии</li>
+ *   <li>{@code thumbnail-threads} - число потоков, создающих уменьшенные копии</li>
+ *   <li>{@code thumbnail-queue-capacity} - максимальное число постеров в очереди на уменьшение,
+ *       при переполнении задание отбрасывается и повторяется при следующем запросе копии</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Размер загружаемого файла ограничивается свойствами {@code spring.servlet.multipart}.</p>
+ *
+ * @see com.movie.catalog.poster.PosterStore
+ * @see com.movie.catalog.poster.PosterThumbnailer
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.posters")
+public class PosterProperties {
+
+    private Path root = Path.of("data/posters");
+
+    private int thumbnailThreads = 2;
+
+    private int thumbnailQueueCapacity = 100;
+}
\ No newline at end of file
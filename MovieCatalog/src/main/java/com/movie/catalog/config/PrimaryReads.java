@@ -0,0 +1,41 @@
+package com.movie.catalog.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Чтение из основной БД в обход реплик.
+ *
+ * <p>Результаты, которые кэшируются вместе с версией данных каталога, нельзя читать с реплики:
+ * отстающая реплика вернет данные до последней записи, и они закрепятся в кэше под новой версией.
+ * Внутри {@link #call(Supplier)} read-only транзакции {@link ReplicaRoutingDataSource} направляет в основную БД.
+ * Признак не считается записью клиента и не продлевает окно "read-your-writes".
+ * Без маршрутизации на реплики признак ни на что не влияет.</p>
+ *
+ * @see ReplicaRoutingDataSource
+ */
+
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> REQUESTED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static boolean isRequested() {
+        return REQUESTED.get() != null;
+    }
+
+    public static <T> T call(Supplier<T> action) {
+        if (isRequested()) {
+            return action.get();
+        }
+
+        REQUESTED.set(Boolean.TRUE);
+
+        try {
+            return action.get();
+        } finally {
+            REQUESTED.remove();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки записи профиля JFR по запросу.
+ *
+ * <p>Свойства с префиксом {@code catalog.profiling}:
+ * <ul>
+ *   <li>{@code enabled} - включает запросы {@code /admin/profiling/*}</li>
+ *   <li>{@code directory} - каталог файлов записи; файл прошлой записи удаляется при запуске новой</li>
+ *   <li>{@code settings} - набор настроек JFR: {@code default} или {@code profile} (подробнее, с выделением памяти)</li>
+ *   <li>{@code default-duration} - длительность записи, если она не указана в запросе</li>
+ *   <li>{@code max-duration} - наибольшая длительность записи</li>
+ *   <li>{@code max-size} - наибольший объем данных записи на диске, старые данные отбрасываются</li>
+ * </ul>
+ * </p>
+ *
+ * <p>События каталога записываются всегда, когда идет запись JFR, в том числе запущенная
+ * через {@code -XX:StartFlightRecording} или {@code jcmd}.</p>
+ *
+ * @see com.movie.catalog.profiling.ProfilingRecorder
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.profiling")
+public class ProfilingProperties {
+
+    private boolean enabled = false;
+
+    private Path directory = Path.of("data/profiling");
+
+    private String settings = "profile";
+
+    private Duration defaultDuration = Duration.ofSeconds(60);
+
+    private Duration maxDuration = Duration.ofMinutes(5);
+
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+}
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.movie.catalog.config;
+
+import com.movie.catalog.profiling.TemplateRenderInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Регистрация перехватчика {@link TemplateRenderInterceptor}, записывающего события JFR об отрисовке шаблонов.
+ *
+ * @see com.movie.catalog.profiling.ProfilingRecorder
+ */
+
+@Configuration
+public class ProfilingWebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TemplateRenderInterceptor())
+                .excludePathPatterns("/css/**", "/js/**", "/error");
+    }
+}
\ No newline at end of file
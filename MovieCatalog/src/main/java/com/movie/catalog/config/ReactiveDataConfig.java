@@ -0,0 +1,82 @@
+package com.movie.catalog.config;
+
+import com.movie.catalog.reactive.ReactiveMovieRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Конфигурация неблокирующего чтения списков через R2DBC.
+ *
+ * <p>Включается свойством {@code catalog.reactive.enabled=true}. Пул соединений R2DBC работает рядом
+ * с пулом JDBC: страницы и запись идут через JPA, а потоковые JSON-ответы читают строки через
+ * репозитории {@code com.movie.catalog.reactive} и отдают их клиенту по мере того, как клиент их принимает.</p>
+ *
+ * <p>Пул не регистрируется бином {@code ConnectionFactory}: при таком бине Spring Boot не создает
+ * {@code DataSource}, и JPA осталась бы без соединений. Пул закрывается при остановке приложения.</p>
+ *
+ * <p>Пример:
+ * <pre>
+ * catalog.reactive.enabled=true
+ * catalog.reactive.url=r2dbc:postgresql://localhost:5432/movie_catalog
+ * catalog.reactive.username=postgres
+ * catalog.reactive.password=${DB_PASSWORD}
+ * </pre>
+ * </p>
+ *
+ * @see ReactiveProperties
+ * @see com.movie.catalog.controller.CatalogStreamController
+ */
+
+@Configuration
+@ConditionalOnProperty(prefix = "catalog.reactive", name = "enabled", havingValue = "true")
+@EnableR2dbcRepositories(basePackageClasses = ReactiveMovieRepository.class, entityOperationsRef = "reactiveEntityTemplate")
+public class ReactiveDataConfig implements WebMvcConfigurer {
+
+    private final ReactiveProperties properties;
+    private ConnectionPool connectionPool;
+
+    @Autowired // автоматическое внедрение зависимости
+    public ReactiveDataConfig(ReactiveProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public R2dbcEntityTemplate reactiveEntityTemplate() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, properties.getUsername() != null ? properties.getUsername() : "")
+                .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword() != null ? properties.getPassword() : "")
+                .build();
+
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("catalog-reactive")
+                .initialSize(properties.getInitialSize())
+                .maxSize(properties.getMaxSize())
+                .build());
+
+        return new R2dbcEntityTemplate(connectionPool);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        // потоковый ответ медленному клиенту может идти дольше стандартного тайм-аута асинхронного запроса
+        configurer.setDefaultTimeout(properties.getStreamTimeout().toMillis());
+    }
+
+    @PreDestroy
+    void closePool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки неблокирующего чтения списков через R2DBC.
+ *
+ * <p>Свойства с префиксом {@code catalog.reactive}:
+ * <ul>
+ *   <li>{@code enabled} - включает пул R2DBC и потоковые JSON-ответы {@code /stream/*}</li>
+ *   <li>{@code url}, {@code username}, {@code password} - подключение к БД по R2DBC</li>
+ *   <li>{@code initial-size}, {@code max-size} - начальный и наибольший размер пула соединений</li>
+ *   <li>{@code stream-timeout} - наибольшее время отдачи одного потокового ответа медленному клиенту</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Страницы приложения и запись по-прежнему работают через JPA; R2DBC только читает.</p>
+ *
+ * @see ReactiveDataConfig
+ * @see com.movie.catalog.controller.CatalogStreamController
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.reactive")
+public class ReactiveProperties {
+
+    private boolean enabled = false;
+
+    private String url = "r2dbc:postgresql://localhost:5432/movie_catalog";
+
+    private String username;
+
+    private String password;
+
+    private int initialSize = 2;
+
+    private int maxSize = 10;
+
+    private Duration streamTimeout = Duration.ofMinutes(10);
+}
\ No newline at end of file
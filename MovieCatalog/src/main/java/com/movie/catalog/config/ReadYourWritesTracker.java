@@ -0,0 +1,61 @@
+package com.movie.catalog.config;
+
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Учет последних записей клиента для гарантии "read-your-writes".
+ *
+ * <p>Клиент определяется по HTTP-сессии (она уже создается для flash-сообщений после каждой записи).
+ * Пока с момента последней записи клиента не прошло {@code read-your-writes-window},
+ * его read-only транзакции направляются в основную БД, а не на реплику.</p>
+ *
+ * @see ReplicaRoutingDataSource
+ */
+
+public class ReadYourWritesTracker {
+
+    private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void recordWrite() {
+        String clientKey = currentClientKey(true);
+
+        if (clientKey != null) {
+            lastWrites.put(clientKey, System.nanoTime());
+        }
+    }
+
+    public boolean hasRecentWrite() {
+        String clientKey = currentClientKey(false);
+
+        if (clientKey == null) {
+            return false;
+        }
+
+        Long lastWrite = lastWrites.get(clientKey);
+        return lastWrite != null && System.nanoTime() - lastWrite < windowNanos;
+    }
+
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+    }
+
+    private String currentClientKey(boolean create) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+
+        HttpSession session = attributes.getRequest().getSession(create);
+        return session != null ? session.getId() : null;
+    }
+}
\ No newline at end of file
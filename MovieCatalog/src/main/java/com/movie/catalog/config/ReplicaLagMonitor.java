@@ -0,0 +1,64 @@
+package com.movie.catalog.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+
+/**
+ * Периодическая проверка отставания реплик PostgreSQL.
+ *
+ * <p>Отставание считается по времени последней воспроизведенной транзакции. Если реплика
+ * получила и воспроизвела весь WAL, отставание равно нулю, даже когда основная БД простаивает.
+ * Недоступная реплика считается бесконечно отстающей и исключается из чтения до следующей успешной проверки.</p>
+ *
+ * @see ReplicaRoutingDataSource
+ * @see ReplicaRoutingProperties
+ */
+
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN 0
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Duration maxReplicaLag;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource,
+                             ReadYourWritesTracker readYourWritesTracker,
+                             Duration maxReplicaLag) {
+        this.routingDataSource = routingDataSource;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.maxReplicaLag = maxReplicaLag;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.datasource.routing.lag-check-interval:5s}")
+    public void checkReplicas() {
+        for (String key : routingDataSource.getReplicaKeys()) {
+            Duration lag;
+
+            try {
+                Number lagMillis = new JdbcTemplate(routingDataSource.getReplica(key)).queryForObject(LAG_QUERY, Number.class);
+                lag = Duration.ofMillis(lagMillis != null ? lagMillis.longValue() : 0);
+
+            } catch (RuntimeException e) {
+                log.warn("Не удалось проверить реплику {}: {}", key, e.getMessage());
+                lag = null;
+            }
+
+            routingDataSource.updateReplicaLag(key, lag, maxReplicaLag);
+        }
+
+        readYourWritesTracker.evictExpired();
+    }
+}
\ No newline at end of file
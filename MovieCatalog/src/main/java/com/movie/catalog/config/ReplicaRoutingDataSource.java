@@ -0,0 +1,133 @@
+package com.movie.catalog.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник данных, направляющий read-only транзакции на реплики, а остальные - в основную БД.
+ *
+ * <p>Правила выбора:
+ * <ul>
+ *   <li>транзакция не read-only - основная БД, после коммита запись клиента фиксируется в {@link ReadYourWritesTracker}</li>
+ *   <li>запрошено чтение из основной БД ({@link PrimaryReads}) - основная БД</li>
+ *   <li>клиент недавно выполнял запись - основная БД</li>
+ *   <li>иначе - следующая по кругу реплика, отставание которой не превышает допустимое</li>
+ *   <li>нет доступных реплик - основная БД</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Ключ выбирается в момент получения соединения, поэтому источник оборачивается в
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: соединение берется
+ * уже после того, как менеджер транзакций выставил признак read-only.</p>
+ *
+ * @see DataSourceRoutingConfig
+ * @see ReplicaLagMonitor
+ */
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final Object WRITE_MARKER = new Object();
+
+    private final List<String> replicaKeys;
+    private final Map<String, Boolean> replicaAvailability = new HashMap<>();
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        replicaKeys.forEach(key -> replicaAvailability.put(key, Boolean.TRUE));
+    }
+
+    public List<String> getReplicaKeys() {
+        return replicaKeys;
+    }
+
+    public DataSource getReplica(String key) {
+        return getResolvedDataSources().get(key);
+    }
+
+    public void updateReplicaLag(String key, Duration lag, Duration maxLag) {
+        boolean available = lag != null && lag.compareTo(maxLag) <= 0;
+
+        synchronized (replicaAvailability) {
+            Boolean previous = replicaAvailability.put(key, available);
+
+            if (previous != null && previous != available) {
+                log.info("Реплика {} {} (отставание: {})", key,
+                        available ? "возвращена в ротацию" : "исключена из ротации", lag);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWriteTransaction();
+            return PRIMARY;
+        }
+
+        if (PrimaryReads.isRequested() || readYourWritesTracker.hasRecentWrite()) {
+            return PRIMARY;
+        }
+
+        List<String> available;
+        synchronized (replicaAvailability) {
+            available = replicaKeys.stream().filter(replicaAvailability::get).toList();
+        }
+
+        if (available.isEmpty()) {
+            return PRIMARY;
+        }
+
+        return available.get(Math.floorMod(nextReplica.getAndIncrement(), available.size()));
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void trackWriteTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_MARKER)) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(WRITE_MARKER, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesTracker.recordWrite();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_MARKER);
+            }
+        });
+    }
+}
\ No newline at end of file
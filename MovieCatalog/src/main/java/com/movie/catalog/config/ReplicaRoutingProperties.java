@@ -0,0 +1,52 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Настройки маршрутизации запросов между основной БД и репликами.
+ *
+ * <p>Свойства с префиксом {@code catalog.datasource.routing}:
+ * <ul>
+ *   <li>{@code enabled} - включает маршрутизацию (по умолчанию выключена)</li>
+ *   <li>{@code replicas} - список реплик PostgreSQL (url, username, password)</li>
+ *   <li>{@code max-replica-lag} - допустимое отставание реплики, после которого она исключается из чтения</li>
+ *   <li>{@code read-your-writes-window} - время после записи клиента, в течение которого его чтения идут в основную БД</li>
+ *   <li>{@code lag-check-interval} - период проверки отставания реплик</li>
+ * </ul>
+ * </p>
+ *
+ * @see DataSourceRoutingConfig
+ * @see ReplicaRoutingDataSource
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    private Duration maxReplicaLag = Duration.ofSeconds(5);
+
+    private Duration readYourWritesWindow = Duration.ofSeconds(10);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
\ No newline at end of file
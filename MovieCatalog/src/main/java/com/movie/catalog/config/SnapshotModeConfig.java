@@ -0,0 +1,59 @@
+package com.movie.catalog.config;
+
+import com.movie.catalog.web.SnapshotReadOnlyInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Конфигурация автономного режима чтения из снимка каталога.
+ *
+ * <p>Включается свойством {@code catalog.snapshot.offline=true} (профиль {@code snapshot}). Источник данных
+ * оборачивается в {@link LazyConnectionDataSourceProxy} с заданными заранее настройками соединения:
+ * транзакции сервисов открываются и завершаются, не получая соединения из пула, и пока страница
+ * читается из снимка, приложение не обращается к PostgreSQL. Остальные страницы закрыты
+ * {@link SnapshotReadOnlyInterceptor}.</p>
+ *
+ * <p>Запуск без БД:
+ * <pre>
+ * java -jar movie-catalog.jar --spring.profiles.active=snapshot --catalog.snapshot.path=data/catalog.snapshot
+ * </pre>
+ * </p>
+ *
+ * @see com.movie.catalog.snapshot.CatalogSnapshot
+ * @see SnapshotProperties
+ */
+
+@Configuration
+@ConditionalOnProperty(prefix = "catalog.snapshot", name = "offline", havingValue = "true")
+public class SnapshotModeConfig implements WebMvcConfigurer {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+
+        // без заданных настроек прокси получил бы соединение при первом обращении, чтобы их узнать
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(pool);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SnapshotReadOnlyInterceptor())
+                .excludePathPatterns("/css/**", "/js/**", "/error");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Настройки снимка каталога.
+ *
+ * <p>Свойства с префиксом {@code catalog.snapshot}:
+ * <ul>
+ *   <li>{@code path} - файл снимка: сюда он выгружается и отсюда читается в автономном режиме</li>
+ *   <li>{@code offline} - автономный режим: страницы каталога читаются из снимка, БД не используется</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Автономный режим удобнее включать профилем {@code snapshot} - он задает все нужные свойства.</p>
+ *
+ * @see com.movie.catalog.snapshot.CatalogSnapshot
+ * @see com.movie.catalog.snapshot.CatalogSnapshotWriter
+ * @see SnapshotModeConfig
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.snapshot")
+public class SnapshotProperties {
+
+    private Path path = Path.of("data/catalog.snapshot");
+
+    private boolean offline = false;
+}
\ No newline at end of file
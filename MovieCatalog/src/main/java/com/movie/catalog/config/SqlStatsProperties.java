@@ -0,0 +1,43 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки статистики SQL-запросов.
+ *
+ * <p>Свойства с префиксом {@code catalog.sql-stats}:
+ * <ul>
+ *   <li>{@code enabled} - включает замер времени запросов через обертку основного DataSource</li>
+ *   <li>{@code slow-threshold} - запросы дольше этого времени пишутся в журнал медленных запросов</li>
+ *   <li>{@code slow-sample-rate} - доля медленных запросов, попадающих в журнал (от 0 до 1)</li>
+ *   <li>{@code max-fingerprints} - максимальное число различных запросов в статистике</li>
+ *   <li>{@code max-logged-sql-length} - длина текста запроса в журнале, остаток обрезается</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Журнал медленных запросов пишется в логгер {@code catalog.sql.slow} через асинхронный
+ * appender из {@code logback-spring.xml}, поэтому запись не задерживает поток запроса.</p>
+ *
+ * @see com.movie.catalog.sqlstats.QueryStats
+ * @see com.movie.catalog.sqlstats.QueryStatsListener
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.sql-stats")
+public class SqlStatsProperties {
+
+    private boolean enabled = true;
+
+    private Duration slowThreshold = Duration.ofMillis(200);
+
+    private double slowSampleRate = 1.0;
+
+    private int maxFingerprints = 2000;
+
+    private int maxLoggedSqlLength = 2000;
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки определения пользователя каталога.
+ *
+ * <p>Свойства с префиксом {@code catalog.users}:
+ * <ul>
+ *   <li>{@code header} - заголовок запроса с ID пользователя, его выставляет прокси перед приложением</li>
+ *   <li>{@code default-id} - ID пользователя для запросов без заголовка и фоновых задач</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Собственной аутентификации в приложении нет: заголовку доверяется, поэтому снаружи
+ * приложение должно быть доступно только через прокси, который его выставляет.</p>
+ *
+ * @see com.movie.catalog.service.CurrentUser
+ * @see com.movie.catalog.web.CurrentUserFilter
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.users")
+public class UserProperties {
+
+    private String header = "X-Catalog-User";
+
+    private long defaultId = 1;
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.movie.catalog.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Настройки отложенной записи изменений статуса просмотра.
+ *
+ * <p>Свойства с префиксом {@code catalog.watch-history.write-behind}:
+ * <ul>
+ *   <li>{@code enabled} - включает отложенную запись (по умолчанию выключена)</li>
+ *   <li>{@code capacity} - максимальное число фильмов с неподтвержденными в БД изменениями</li>
+ *   <li>{@code batch-size} - размер пакета, при достижении которого запись запускается досрочно</li>
+ *   <li>{@code flush-interval} - период плановой записи в БД</li>
+ *   <li>{@code journal} - путь к журналу, из которого изменения восстанавливаются после сбоя</li>
+ * </ul>
+ * </p>
+ *
+ * @see com.movie.catalog.service.WatchStatusWriteBehind
+ */
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "catalog.watch-history.write-behind")
+public class WatchStatusWriteBehindProperties {
+
+    private boolean enabled = false;
+
+    private int capacity = 10_000;
+
+    private int batchSize = 500;
+
+    private Duration flushInterval = Duration.ofSeconds(2);
+
+    private Path journal = Path.of("data", "watch-status.journal");
+}
\ No newline at end of file
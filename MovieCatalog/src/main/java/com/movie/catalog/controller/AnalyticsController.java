@@ -0,0 +1,80 @@
+package com.movie.catalog.controller;
+
+import com.movie.catalog.analytics.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Контроллер аналитики просмотров
+ *
+ * <p>Функциональность (ответы в JSON для построения графиков):
+ * <ul>
+ *   <li>{@code GET /analytics/series} - добавления и завершения по дням, неделям или месяцам ({@code granularity}),
+ *       для всех фильмов или одного жанра ({@code genre}) за период {@code from} - {@code to}</li>
+ *   <li>{@code GET /analytics/completion-time} - среднее число дней от добавления до завершения по жанрам</li>
+ *   <li>{@code POST /analytics/backfill} - построение сводок заново по всей истории просмотра</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Все ответы строятся по дневным сводкам, без чтения истории просмотра.</p>
+ *
+ * @see ViewingRollupService
+ */
+
+@Controller
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    // ограничение длины ряда - около 10 лет по дням
+    private static final long MAX_SERIES_DAYS = 3660;
+
+    private final ViewingRollupService viewingRollupService;
+
+    @Autowired // автоматическое внедрение зависимости с сервисом
+    public AnalyticsController(ViewingRollupService viewingRollupService) {
+        this.viewingRollupService = viewingRollupService;
+    }
+
+    @GetMapping("/series")
+    @ResponseBody
+    public List<TimeSeriesPoint> series(@RequestParam(defaultValue = "day") String granularity,
+                                        @RequestParam(required = false) String genre,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        Granularity step;
+        try {
+            step = Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неизвестный шаг ряда: " + granularity);
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : step.defaultFrom(end);
+
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) > MAX_SERIES_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный период ряда");
+        }
+
+        return viewingRollupService.getSeries(step, genre, start, end);
+    }
+
+    @GetMapping("/completion-time")
+    @ResponseBody
+    public List<GenreCompletionTime> completionTime() {
+        return viewingRollupService.getCompletionTimeByGenre();
+    }
+
+    @PostMapping("/backfill")
+    @ResponseBody
+    public Map<String, Integer> backfill() {
+        return Map.of("records", viewingRollupService.backfill());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.movie.catalog.controller;
+
+import com.movie.catalog.archive.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Контроллер для переноса старых строк в архив
+ *
+ * <p>Функциональность:
+ * <ul>
+ *   <li>{@code POST /archive/run} - перенос старых рецензий и завершенных просмотров всех пользователей в архив, не дожидаясь расписания</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Архивные строки показываются на страницах {@code /reviews/archive} и {@code /watch-history/archive}.</p>
+ *
+ * @see CatalogArchiver
+ * @see ArchiveStore
+ */
+
+@Controller
+@RequestMapping("/archive")
+public class ArchiveController {
+
+    private final CatalogArchiver archiver;
+
+    @Autowired // автоматическое внедрение зависимости
+    public ArchiveController(CatalogArchiver archiver) {
+        this.archiver = archiver;
+    }
+
+    @PostMapping("/run")
+    @ResponseBody
+    public ArchiveSummary run() {
+        return archiver.archive();
+    }
+}
\ No newline at end of file
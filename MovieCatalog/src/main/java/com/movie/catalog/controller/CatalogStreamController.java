@@ -0,0 +1,82 @@
+package com.movie.catalog.controller;
+
+import com.movie.catalog.dto.*;
+import com.movie.catalog.reactive.*;
+import com.movie.catalog.service.CurrentUser;
+import com.movie.catalog.service.WatchStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+/**
+ * Контроллер потоковой выдачи списков в JSON
+ *
+ * <p>Функциональность:
+ * <ul>
+ *   <li>{@code GET /stream/movies} - карточки фильмов, с фильтром {@code title} или {@code genre}</li>
+ *   <li>{@code GET /stream/reviews} - рецензии текущего пользователя, с фильтром {@code movieId}</li>
+ *   <li>{@code GET /stream/watch-history} - история просмотра текущего пользователя, с фильтром {@code movieId}</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Ответ отдается в формате NDJSON (одна строка JSON на запись) по мере чтения из БД через R2DBC.
+ * Следующие строки запрашиваются из БД, только когда предыдущие записаны клиенту, поэтому медленный клиент
+ * не заставляет держать в памяти весь список, а поток запроса не ждет ответа БД.
+ * Доступен при {@code catalog.reactive.enabled=true}.</p>
+ *
+ * @see com.movie.catalog.config.ReactiveDataConfig
+ */
+
+@Controller
+@RequestMapping("/stream")
+@ConditionalOnProperty(prefix = "catalog.reactive", name = "enabled", havingValue = "true")
+public class CatalogStreamController {
+
+    private final ReactiveMovieRepository movieRepository;
+    private final ReactiveReviewRepository reviewRepository;
+    private final ReactiveWatchHistoryRepository watchHistoryRepository;
+    private final CurrentUser currentUser;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public CatalogStreamController(ReactiveMovieRepository movieRepository,
+                                   ReactiveReviewRepository reviewRepository,
+                                   ReactiveWatchHistoryRepository watchHistoryRepository,
+                                   CurrentUser currentUser) {
+        this.movieRepository = movieRepository;
+        this.reviewRepository = reviewRepository;
+        this.watchHistoryRepository = watchHistoryRepository;
+        this.currentUser = currentUser;
+    }
+
+    @GetMapping(path = "/movies", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public Flux<MovieCard> streamMovies(@RequestParam(required = false) String title,
+                                        @RequestParam(required = false) String genre) {
+        if (title != null && !title.isBlank()) {
+            return movieRepository.findCardsByTitle(title.trim());
+        }
+        if (genre != null && !genre.isBlank()) {
+            return movieRepository.findCardsByGenre(genre.trim());
+        }
+        return movieRepository.findAllCards();
+    }
+
+    @GetMapping(path = "/reviews", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public Flux<ReviewRow> streamReviews(@RequestParam(required = false) Long movieId) {
+        // пользователь читается в потоке запроса: строки приходят уже в других потоках
+        Long userId = currentUser.id();
+        return movieId != null ? reviewRepository.findRowsByMovieId(userId, movieId) : reviewRepository.findRowsByUserId(userId);
+    }
+
+    @GetMapping(path = "/watch-history", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseBody
+    public Flux<WatchRow> streamWatchHistory(@RequestParam(required = false) Long movieId) {
+        Long userId = currentUser.id();
+        Flux<WatchRow> rows = movieId != null ? watchHistoryRepository.findRowsByMovieId(userId, movieId) : watchHistoryRepository.findRowsByUserId(userId);
+        return rows.map(row -> row.withStatus(WatchStatus.find(row.status()).map(WatchStatus::getLabel).orElse(row.status())));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.movie.catalog.controller;
+
+import com.movie.catalog.enrichment.EnrichmentStatus;
+import com.movie.catalog.enrichment.MetadataEnricher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Контроллер заполнения метаданных фильмов
+ *
+ * <p>Функциональность:
+ * <ul>
+ *   <li>{@code POST /admin/enrichment/run} - запуск заполнения пустых полей фильмов в фоне</li>
+ *   <li>{@code GET /admin/enrichment/status} - ход заполнения</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Доступен при {@code catalog.enrichment.enabled=true}.</p>
+ *
+ * @see MetadataEnricher
+ */
+
+@Controller
+@RequestMapping("/admin/enrichment")
+@ConditionalOnProperty(prefix = "catalog.enrichment", name = "enabled", havingValue = "true")
+public class EnrichmentController {
+
+    private final MetadataEnricher enricher;
+
+    @Autowired // автоматическое внедрение зависимости
+    public EnrichmentController(MetadataEnricher enricher) {
+        this.enricher = enricher;
+    }
+
+    @PostMapping("/run")
+    @ResponseBody
+    public EnrichmentStatus run() {
+        return enricher.start();
+    }
+
+    @GetMapping("/status")
+    @ResponseBody
+    public EnrichmentStatus status() {
+        return enricher.status();
+    }
+}
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.movie.catalog.controller;
 
-import com.movie.catalog.entity.*;
+import com.movie.catalog.dto.MovieCard;
+import com.movie.catalog.profiling.HomePageEvent;
 import com.movie.catalog.service.*;
+import com.movie.catalog.web.FragmentCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -18,16 +22,28 @@ import java.util.*;
  *   <li>Поиск фильмов по названию</li>
  *   <li>Фильтрация фильмов по жанрам</li>
  *   <li>Отображение всех фильмов</li>
+ *   <li>Статус просмотра и оценка на карточках фильмов</li>
  *   <li>Сбор статистики просмотров</li>
  *   <li>Сбор статистики по жанрам</li>
  * </ul>
  * </p>
  *
- * <p>Метод {@link #home(String, String, Model)} обрабатывает get запросы и предоставляет функциональность фильтрации и поиска.</p>
+ * <p>Метод {@link #home(String, String, Model, HttpServletRequest, HttpServletResponse)} обрабатывает get запросы и предоставляет функциональность фильтрации и поиска.</p>
+ *
+ * <p>Панель жанров и карточки статистики отрисовываются через {@link FragmentCache}: пока данные каталога
+ * не менялись, список жанров и статистика просмотров не пересчитываются. Статистика у каждого пользователя своя,
+ * поэтому ключ карточек статистики включает ID пользователя. Ключ панели жанров включает выбранный жанр, только если
+ * он есть в каталоге: панель для любого другого значения одинакова, и произвольный параметр запроса
+ * не создает новых записей кэша.</p>
+ *
+ * <p>Статусы просмотра и оценки всех карточек страницы загружаются одним пакетным запросом.</p>
+ *
+ * <p>Во время записи JFR построение страницы записывается событием {@link HomePageEvent}.</p>
  *
  * @see MovieService
  * @see WatchHistoryService
- * @see Movie
+ * @see FragmentCache
+ * @see MovieCard
  */
 
 @Controller
@@ -35,46 +51,80 @@ public class HomeController {
 
     private final MovieService movieService;
     private final WatchHistoryService watchHistoryService;
+    private final FragmentCache fragmentCache;
+    private final CurrentUser currentUser;
 
     @Autowired // автоматическое внедрение зависимостей с сервисами
     public HomeController(MovieService movieService,
-                          WatchHistoryService watchHistoryService) {
+                          WatchHistoryService watchHistoryService,
+                          FragmentCache fragmentCache,
+                          CurrentUser currentUser) {
         this.movieService = movieService;
         this.watchHistoryService = watchHistoryService;
+        this.fragmentCache = fragmentCache;
+        this.currentUser = currentUser;
     }
 
     @GetMapping("/")
     public String home(@RequestParam(required = false) String query,
                        @RequestParam(required = false) String genre,
-                       Model model) {
+                       Model model,
+                       HttpServletRequest request,
+                       HttpServletResponse response) {
+
+        HomePageEvent event = new HomePageEvent();
+        event.begin();
 
-        List<Movie> movies;
+        List<MovieCard> movies;
+        String selectedGenre = null;
 
         if (query != null && !query.trim().isEmpty()) {
             movies = movieService.searchByTitle(query);
             model.addAttribute("searchQuery", query);
 
         } else if (genre != null && !genre.trim().isEmpty()) {
-            String decodedGenre = genre.replace("+", " ");
-            movies = movieService.searchByGenre(decodedGenre);
-            model.addAttribute("selectedGenre", decodedGenre);
+            selectedGenre = genre.replace("+", " ");
+            movies = movieService.searchByGenre(selectedGenre);
+            model.addAttribute("selectedGenre", selectedGenre);
 
         } else {
             movies = movieService.getAllMovies();
         }
 
-        Set<String> allGenres = new HashSet<>();
-        for (Movie movie : movieService.getAllMovies()) {
-            if (movie.getGenre() != null && !movie.getGenre().trim().isEmpty()) {
-                String[] genreArray = movie.getGenre().split(",");
+        String genreFilter = selectedGenre;
+        String genreKey = genreFilter == null ? "all"
+                : movieService.getAllGenres().contains(genreFilter) ? "genre:" + genreFilter : "unknown";
+        model.addAttribute("genreSidebarHtml", fragmentCache.render("fragments/home", "genre-sidebar",
+                genreKey, () -> genreSidebarVariables(genreFilter), request, response));
 
-                for (String g : genreArray) {String trimmedGenre = g.trim();
+        int movieCount = movies.size();
+        model.addAttribute("statsCardsHtml", fragmentCache.render("fragments/home", "stats-cards",
+                currentUser.id() + ":" + movieCount, () -> statsCardsVariables(movieCount), request, response));
 
-                    if (!trimmedGenre.isEmpty()) {allGenres.add(trimmedGenre);}
-                }
-            }
+        model.addAttribute("movies", movies);
+        model.addAttribute("badges", movieService.getMovieBadges(movies.stream().map(MovieCard::id).toList()));
+        model.addAttribute("movieCount", movieCount);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.query = query;
+            event.genre = selectedGenre;
+            event.userId = currentUser.id();
+            event.movies = movieCount;
+            event.commit();
         }
 
+        return "index";
+    }
+
+    private Map<String, Object> genreSidebarVariables(String selectedGenre) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("allGenres", movieService.getAllGenres());
+        variables.put("selectedGenre", selectedGenre);
+        return variables;
+    }
+
+    private Map<String, Object> statsCardsVariables(int movieCount) {
         List<Object[]> watchStats = watchHistoryService.getWatchStatusStatistics();
 
         long completedCount = 0;
@@ -99,14 +149,11 @@ public class HomeController {
             }
         }
 
-        model.addAttribute("movies", movies);
-        model.addAttribute("movieCount", movies.size());
-        model.addAttribute("allGenres", allGenres);
-
-        model.addAttribute("completedCount", completedCount);
-        model.addAttribute("watchingCount", watchingCount);
-        model.addAttribute("plannedCount", plannedCount);
-
-        return "index";
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("movieCount", movieCount);
+        variables.put("completedCount", completedCount);
+        variables.put("watchingCount", watchingCount);
+        variables.put("plannedCount", plannedCount);
+        return variables;
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.movie.catalog.controller;
+
+import com.movie.catalog.service.CurrentUser;
+import com.movie.catalog.web.CatalogEventBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Контроллер ленты изменений каталога
+ *
+ * <p>{@code GET /events} открывает поток server-sent events, в который после каждого изменения
+ * фильмов, рецензий или истории просмотра приходят события {@code catalog} и {@code stats}.
+ * Страницы подписываются на него из {@code js/live-updates.js}. Подписка оформляется от имени
+ * текущего пользователя: в поток приходят изменения фильмов и только его рецензий и истории просмотра.</p>
+ *
+ * @see CatalogEventBroadcaster
+ * @see com.movie.catalog.web.CatalogLiveFeed
+ */
+
+@Controller
+@ConditionalOnProperty(prefix = "catalog.live-updates", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LiveUpdatesController {
+
+    private final CatalogEventBroadcaster broadcaster;
+    private final CurrentUser currentUser;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public LiveUpdatesController(CatalogEventBroadcaster broadcaster,
+                                 CurrentUser currentUser) {
+        this.broadcaster = broadcaster;
+        this.currentUser = currentUser;
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter events() {
+        return broadcaster.subscribe(currentUser.id());
+    }
+}
\ No newline at end of file
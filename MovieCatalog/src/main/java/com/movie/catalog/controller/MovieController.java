@@ -1,5 +1,6 @@
 package com.movie.catalog.controller;
 
+import com.movie.catalog.dto.*;
 import com.movie.catalog.entity.*;
 import com.movie.catalog.service.*;
 import jakarta.validation.Valid;
@@ -8,8 +9,13 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 /**
  * Контроллер для управления фильмами - обработка CRUD запросов
  *
@@ -18,6 +24,8 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
  *   <li>Создание новых фильмов</li>
  *   <li>Редактирование существующих фильмов</li>
  *   <li>Просмотр детальной информации о фильме</li>
+ *   <li>Загрузка постеров</li>
+ *   <li>Поиск и объединение дубликатов</li>
  *   <li>Удаление фильмов</li>
  * </ul>
  * </p>
@@ -25,11 +33,15 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
  * <p><strong>Основные методы:</strong></p>
  * <ul>
  *   <li>{@link #showCreateForm(Model)} - отображение формы создания фильма</li>
- *   <li>{@link #createMovie(Movie, BindingResult, RedirectAttributes, Model)} - обработка создания фильма</li>
+ *   <li>{@link #createMovie(Movie, BindingResult, boolean, RedirectAttributes, Model)} - обработка создания фильма с проверкой на дубликаты</li>
  *   <li>{@link #showEditForm(Long, Model, RedirectAttributes)} - отображение формы редактирования</li>
  *   <li>{@link #updateMovie(Long, Movie, BindingResult, RedirectAttributes, Model)} - обработка обновления фильма</li>
- *   <li>{@link #viewMovie(Long, Model, RedirectAttributes)} - просмотр деталей фильма</li>
+ *   <li>{@link #viewMovie(Long, int, Model, RedirectAttributes)} - просмотр деталей фильма с последними рецензиями и записью истории просмотра</li>
+ *   <li>{@link #uploadPoster(Long, MultipartFile, RedirectAttributes)} - загрузка постера фильма</li>
  *   <li>{@link #deleteMovie(Long, RedirectAttributes)} - удаление фильма</li>
+ *   <li>{@link #deleteMatchingMovies(String, String, RedirectAttributes)} - удаление всех фильмов, подходящих под фильтр</li>
+ *   <li>{@link #showDuplicates(Model)} - отчет о вероятных дубликатах в каталоге</li>
+ *   <li>{@link #mergeDuplicates(Long, List, RedirectAttributes)} - объединение группы дубликатов</li>
  * </ul>
  *
  * @see MovieService
@@ -43,9 +55,15 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @RequestMapping("/movies")
 public class MovieController {
 
+    // число рецензий на одной странице фильма
+    private static final int REVIEWS_PAGE_SIZE = 5;
+
     @Autowired // автоматическое внедрение зависимости с сервисом
     private MovieService movieService;
 
+    @Autowired // автоматическое внедрение зависимости с сервисом
+    private ReviewService reviewService;
+
     @GetMapping("/new")
     public String showCreateForm(Model model) {
         model.addAttribute("movie", new Movie());
@@ -56,6 +74,7 @@ public class MovieController {
     @PostMapping
     public String createMovie(@Valid @ModelAttribute("movie") Movie movie,
                               BindingResult result,
+                              @RequestParam(defaultValue = "false") boolean confirmDuplicate,
                               RedirectAttributes redirectAttributes,
                               Model model) {
 
@@ -64,6 +83,17 @@ public class MovieController {
             return "movies/form";
         }
 
+        // похожий фильм уже есть - форма возвращается с предупреждением, пока пользователь не подтвердит добавление
+        if (!confirmDuplicate) {
+            List<DuplicateCandidate> duplicates = movieService.findPossibleDuplicates(movie.getTitle(), movie.getReleaseYear(), null);
+
+            if (!duplicates.isEmpty()) {
+                model.addAttribute("action", "create");
+                model.addAttribute("duplicates", duplicates);
+                return "movies/form";
+            }
+        }
+
         try {
             movieService.saveMovie(movie);
             redirectAttributes.addFlashAttribute("successMessage",
@@ -118,28 +148,64 @@ public class MovieController {
     }
 
     @GetMapping("/view/{id}")
-    public String viewMovie(@PathVariable Long id, Model model,
+    public String viewMovie(@PathVariable Long id,
+                            @RequestParam(defaultValue = "0") int page,
+                            Model model,
                             RedirectAttributes redirectAttributes) {
-        Movie movie = movieService.getMovieById(id).orElse(null);
+        MovieDetail movie = movieService.getMovieDetail(id).orElse(null);
 
         if (movie == null) {
             redirectAttributes.addFlashAttribute("errorMessage", "Фильм не найден");
             return "redirect:/";
         }
 
+        // число рецензий уже известно из данных фильма - отдельный запрос количества не нужен
+        int reviewPages = (int) ((movie.reviewCount() + REVIEWS_PAGE_SIZE - 1) / REVIEWS_PAGE_SIZE);
+        int reviewPage = Math.max(0, Math.min(page, reviewPages - 1));
+        List<ReviewRow> latestReviews = movie.reviewCount() > 0
+                ? reviewService.getLatestReviews(id, reviewPage, REVIEWS_PAGE_SIZE)
+                : List.of();
+
         model.addAttribute("movie", movie);
+        model.addAttribute("latestReviews", latestReviews);
+        model.addAttribute("reviewPage", reviewPage);
+        model.addAttribute("reviewPages", reviewPages);
         return "movies/view";
     }
 
+    @PostMapping("/poster/{id}")
+    public String uploadPoster(@PathVariable Long id,
+                               @RequestParam("poster") MultipartFile poster,
+                               RedirectAttributes redirectAttributes) {
+        if (poster.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Выберите файл постера");
+            return "redirect:/movies/view/" + id;
+        }
+
+        // файл читается потоком из временного файла загрузки, а не из памяти
+        try (InputStream content = poster.getInputStream()) {
+            movieService.updatePoster(id, content);
+            redirectAttributes.addFlashAttribute("successMessage", "Постер загружен");
+
+        } catch (IOException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Не удалось прочитать файл постера");
+
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+
+        return "redirect:/movies/view/" + id;
+    }
+
     @GetMapping("/delete/{id}")
     public String deleteMovie(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
-            Movie movie = movieService.getMovieById(id).orElse(null);
+            String title = movieService.getMovieTitle(id).orElse(null);
 
-            if (movie != null) {
+            if (title != null) {
                 movieService.deleteMovie(id);
                 redirectAttributes.addFlashAttribute("successMessage",
-                        "Фильм «" + movie.getTitle() + "» удален");
+                        "Фильм «" + title + "» удален");
 
             } else {
                 redirectAttributes.addFlashAttribute("errorMessage", "Фильм не найден");
@@ -151,4 +217,40 @@ public class MovieController {
 
         return "redirect:/";
     }
+
+    @GetMapping("/duplicates")
+    public String showDuplicates(Model model) {
+        model.addAttribute("groups", movieService.getDuplicateGroups());
+        return "movies/duplicates";
+    }
+
+    @PostMapping("/duplicates/merge")
+    public String mergeDuplicates(@RequestParam Long survivorId,
+                                  @RequestParam List<Long> movieIds,
+                                  RedirectAttributes redirectAttributes) {
+        try {
+            int merged = movieService.mergeMovies(survivorId, movieIds);
+            redirectAttributes.addFlashAttribute("successMessage", "Объединено дубликатов: " + merged);
+
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+
+        return "redirect:/movies/duplicates";
+    }
+
+    @PostMapping("/delete-matching")
+    public String deleteMatchingMovies(@RequestParam(required = false) String title,
+                                       @RequestParam(required = false) String genre,
+                                       RedirectAttributes redirectAttributes) {
+        try {
+            int deleted = movieService.deleteMoviesMatching(title, genre);
+            redirectAttributes.addFlashAttribute("successMessage", "Удалено фильмов: " + deleted);
+
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+
+        return "redirect:/";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.movie.catalog.controller;
+
+import com.movie.catalog.outbox.OutboxRelay;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Контроллер для управления доставкой журнала изменений
+ *
+ * <p>Функциональность:
+ * <ul>
+ *   <li>{@code GET /outbox/offsets} - текущие смещения всех получателей событий</li>
+ *   <li>{@code POST /outbox/replay} - повторная доставка получателю {@code sink} начиная со смещения {@code from}</li>
+ * </ul>
+ * </p>
+ *
+ * @see OutboxRelay
+ */
+
+@Controller
+@RequestMapping("/outbox")
+public class OutboxController {
+
+    private final OutboxRelay outboxRelay;
+
+    @Autowired // автоматическое внедрение зависимости
+    public OutboxController(OutboxRelay outboxRelay) {
+        this.outboxRelay = outboxRelay;
+    }
+
+    @GetMapping("/offsets")
+    @ResponseBody
+    public Map<String, Long> offsets() {
+        return outboxRelay.getOffsets();
+    }
+
+    @PostMapping("/replay")
+    @ResponseBody
+    public Map<String, Long> replay(@RequestParam String sink,
+                                    @RequestParam long from) {
+        outboxRelay.replay(sink, from);
+        return outboxRelay.getOffsets();
+    }
+}
\ No newline at end of file
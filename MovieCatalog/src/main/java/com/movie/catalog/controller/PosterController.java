@@ -0,0 +1,76 @@
+package com.movie.catalog.controller;
+
+import com.movie.catalog.poster.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Контроллер для выдачи постеров фильмов
+ *
+ * <p>Функциональность:
+ * <ul>
+ *   <li>{@code GET /posters/{key}} - исходный файл постера</li>
+ *   <li>{@code GET /posters/{key}?size=card} - уменьшенная копия ({@link PosterSize})</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Файл возвращается как {@link Resource}: Spring MVC передает его потоком с диска, отвечает
+ * на запросы диапазонов ({@code Range}) частями файла и сравнивает {@code If-None-Match} с ETag.
+ * Содержимое по ключу неизменно, поэтому ETag строгий, а ответ кэшируется без ограничения срока.
+ * Пока уменьшенная копия не готова, отдается исходный файл без долгого кэширования.</p>
+ *
+ * @see PosterStore
+ * @see PosterThumbnailer
+ */
+
+@Controller
+@RequestMapping("/posters")
+public class PosterController {
+
+    private final PosterStore posterStore;
+    private final PosterThumbnailer thumbnailer;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public PosterController(PosterStore posterStore,
+                            PosterThumbnailer thumbnailer) {
+        this.posterStore = posterStore;
+        this.thumbnailer = thumbnailer;
+    }
+
+    @GetMapping("/{key}")
+    public ResponseEntity<Resource> poster(@PathVariable String key,
+                                           @RequestParam(defaultValue = "original") String size) {
+        Path original = posterStore.find(key, PosterSize.ORIGINAL).orElse(null);
+
+        if (original == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        PosterSize requested = PosterSize.fromParam(size);
+        Path file = posterStore.find(key, requested).orElse(null);
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+        if (file == null) {
+            // копия еще не создана - временно отдается исходный файл
+            thumbnailer.generate(key);
+            file = original;
+            requested = PosterSize.ORIGINAL;
+            cacheControl = CacheControl.noCache();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(key + "-" + requested.name().toLowerCase())
+                .cacheControl(cacheControl)
+                .contentType(PosterStore.isPng(key) ? MediaType.IMAGE_PNG : MediaType.IMAGE_JPEG)
+                .body(new FileSystemResource(file));
+    }
+}
\ No newline at end of file
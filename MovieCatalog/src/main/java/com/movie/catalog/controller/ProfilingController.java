@@ -0,0 +1,68 @@
+package com.movie.catalog.controller;
+
+import com.movie.catalog.profiling.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Контроллер записи профиля JFR
+ *
+ * <p>Функциональность:
+ * <ul>
+ *   <li>{@code POST /admin/profiling/start?seconds=N} - начало записи профиля на N секунд</li>
+ *   <li>{@code GET /admin/profiling/status} - состояние записи</li>
+ *   <li>{@code POST /admin/profiling/stop} - остановка записи и выгрузка файла {@code .jfr}</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Файл открывается в JDK Mission Control или командой {@code jfr print}.
+ * Доступен при {@code catalog.profiling.enabled=true}.</p>
+ *
+ * @see ProfilingRecorder
+ */
+
+@Controller
+@RequestMapping("/admin/profiling")
+@ConditionalOnProperty(prefix = "catalog.profiling", name = "enabled", havingValue = "true")
+public class ProfilingController {
+
+    private final ProfilingRecorder recorder;
+
+    @Autowired // автоматическое внедрение зависимости
+    public ProfilingController(ProfilingRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @PostMapping("/start")
+    @ResponseBody
+    public ProfilingStatus start(@RequestParam(required = false) Long seconds) {
+        return recorder.start(seconds != null ? Duration.ofSeconds(seconds) : null);
+    }
+
+    @GetMapping("/status")
+    @ResponseBody
+    public ProfilingStatus status() {
+        return recorder.status();
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<Resource> stop() {
+        Path file = recorder.stop();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.movie.catalog.controller;
 
+import com.movie.catalog.dto.*;
 import com.movie.catalog.entity.*;
 import com.movie.catalog.service.*;
 import jakarta.validation.Valid;
@@ -21,19 +22,22 @@ import java.util.List;
  *   <li>Редактирование рецензий</li>
  *   <li>Просмотр списка рецензий</li>
  *   <li>Просмотр рецензий для фильма</li>
+ *   <li>Просмотр архива рецензий</li>
  *   <li>Удаление рецензий</li>
  * </ul>
  * </p>
  *
  * <p><strong>Основные методы:</strong></p>
  * <ul>
- *   <li>{@link #listReviews(Model)} - отображение списка всех рецензий</li>
+ *   <li>{@link #listReviews(ReviewSort, String, Model)} - отображение страницы списка рецензий в выбранном порядке</li>
+ *   <li>{@link #listArchivedReviews(String, Model)} - отображение страницы рецензий, перенесенных в архив</li>
  *   <li>{@link #showCreateForm(Long, Model)} - отображение формы для создания новой рецензии</li>
  *   <li>{@link #createReview(Review, BindingResult, RedirectAttributes, Model)} - обработка формы для создания новой рецензии</li>
  *   <li>{@link #showEditForm(Long, Model, RedirectAttributes)} - отображение формы для редактирования существующей рецензии</li>
  *   <li>{@link #updateReview(Long, Review, BindingResult, RedirectAttributes, Model)} - обработка обновлений данных рецензии</li>
  *   <li>{@link #listReviewsForMovie(Long, Model, RedirectAttributes)} - отображение рецензии для фильма</li>
  *   <li>{@link #deleteReview(Long, RedirectAttributes)} - удаление рецензии</li>
+ *   <li>{@link #deleteReviews(List, RedirectAttributes)} - удаление набора рецензий одним запросом</li>
  * </ul>
  *
  * @see ReviewService
@@ -45,6 +49,9 @@ import java.util.List;
 @RequestMapping("/reviews")
 public class ReviewController {
 
+    // число рецензий на одной странице списка
+    private static final int PAGE_SIZE = 20;
+
     private final ReviewService reviewService;
     private final MovieService movieService;
 
@@ -56,13 +63,30 @@ public class ReviewController {
     }
 
     @GetMapping
-    public String listReviews(Model model) {
-        List<Review> reviews = reviewService.getAllReviews();
-        model.addAttribute("reviews", reviews);
-        model.addAttribute("reviewCount", reviews.size());
+    public String listReviews(@RequestParam(defaultValue = "WATCH_DATE") ReviewSort sort,
+                              @RequestParam(required = false) String after,
+                              Model model) {
+        KeysetPage<ReviewRow> page = reviewService.getReviewPage(sort, after, PAGE_SIZE);
+        model.addAttribute("reviews", page.rows());
+        model.addAttribute("reviewCount", page.total());
+        model.addAttribute("page", page);
+        model.addAttribute("sort", sort);
+        model.addAttribute("sortOptions", ReviewSort.values());
+        model.addAttribute("firstPage", after == null || after.isBlank());
         return "reviews/list";
     }
 
+    @GetMapping("/archive")
+    public String listArchivedReviews(@RequestParam(required = false) String after,
+                                      Model model) {
+        KeysetPage<ReviewRow> page = reviewService.getArchivedReviewPage(after, PAGE_SIZE);
+        model.addAttribute("reviews", page.rows());
+        model.addAttribute("reviewCount", page.total());
+        model.addAttribute("page", page);
+        model.addAttribute("firstPage", after == null || after.isBlank());
+        return "reviews/archive";
+    }
+
     @GetMapping("/new")
     public String showCreateForm(@RequestParam(required = false) Long movieId, Model model) {
         Review review = new Review();
@@ -154,12 +178,12 @@ public class ReviewController {
                                RedirectAttributes redirectAttributes) {
 
         try {
-            Review review = reviewService.getReviewById(id).orElse(null);
+            ReviewRow review = reviewService.getReviewRow(id).orElse(null);
 
             if (review != null) {
                 reviewService.deleteReview(id);
                 redirectAttributes.addFlashAttribute("successMessage",
-                        "Рецензия для фильма «" + review.getMovie().getTitle() + "» удалена");
+                        "Рецензия для фильма «" + review.movieTitle() + "» удалена");
 
             } else {
                 redirectAttributes.addFlashAttribute("errorMessage", "Рецензия не найдена");
@@ -173,21 +197,41 @@ public class ReviewController {
         return "redirect:/reviews";
     }
 
+    @PostMapping("/batch-delete")
+    public String deleteReviews(@RequestParam(value = "ids", required = false) List<Long> ids,
+                                RedirectAttributes redirectAttributes) {
+        if (ids == null || ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Не выбрано ни одной рецензии");
+            return "redirect:/reviews";
+        }
+
+        try {
+            int deleted = reviewService.deleteReviews(ids);
+            redirectAttributes.addFlashAttribute("successMessage", "Удалено рецензий: " + deleted);
+
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "Ошибка при удалении рецензий: " + e.getMessage());
+        }
+
+        return "redirect:/reviews";
+    }
+
     @GetMapping("/movie/{movieId}")
     public String listReviewsForMovie(@PathVariable("movieId") Long movieId,
                                       Model model,
                                       RedirectAttributes redirectAttributes) {
-        Movie movie = movieService.getMovieById(movieId).orElse(null);
+        String movieTitle = movieService.getMovieTitle(movieId).orElse(null);
 
-        if (movie == null) {
+        if (movieTitle == null) {
             redirectAttributes.addFlashAttribute("errorMessage", "Фильм не найден");
             return "redirect:/movies";
         }
 
-        List<Review> reviews = reviewService.getReviewsByMovieId(movieId);
+        List<ReviewRow> reviews = reviewService.getReviewsByMovieId(movieId);
         model.addAttribute("reviews", reviews);
         model.addAttribute("reviewCount", reviews.size());
-        model.addAttribute("movie", movie);
+        model.addAttribute("movieTitle", movieTitle);
         return "reviews/list";
     }
 }
\ No newline at end of file
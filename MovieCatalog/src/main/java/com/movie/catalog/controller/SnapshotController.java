@@ -0,0 +1,39 @@
+package com.movie.catalog.controller;
+
+import com.movie.catalog.snapshot.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Контроллер для выгрузки снимка каталога
+ *
+ * <p>Функциональность:
+ * <ul>
+ *   <li>{@code POST /snapshot/export} - выгрузка фильмов, рецензий и истории просмотра в файл {@code catalog.snapshot.path}</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Выгруженный снимок открывается приложением, запущенным с профилем {@code snapshot}, без БД.</p>
+ *
+ * @see CatalogSnapshotWriter
+ * @see CatalogSnapshot
+ */
+
+@Controller
+@RequestMapping("/snapshot")
+public class SnapshotController {
+
+    private final CatalogSnapshotWriter snapshotWriter;
+
+    @Autowired // автоматическое внедрение зависимости
+    public SnapshotController(CatalogSnapshotWriter snapshotWriter) {
+        this.snapshotWriter = snapshotWriter;
+    }
+
+    @PostMapping("/export")
+    @ResponseBody
+    public SnapshotSummary export() {
+        return snapshotWriter.export();
+    }
+}
\ No newline at end of file
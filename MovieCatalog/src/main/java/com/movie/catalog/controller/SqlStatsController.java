@@ -0,0 +1,64 @@
+package com.movie.catalog.controller;
+
+import com.movie.catalog.sqlstats.QueryStats;
+import com.movie.catalog.sqlstats.QueryStatsReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Контроллер статистики SQL-запросов
+ *
+ * <p>Функциональность:
+ * <ul>
+ *   <li>{@code GET /admin/sql-stats?order=slowest|total|frequent&limit=N} - первые N запросов по среднему времени,
+ *       суммарному времени или числу вызовов</li>
+ *   <li>{@code POST /admin/sql-stats/reset} - сброс статистики</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Доступен при {@code catalog.sql-stats.enabled=true}.</p>
+ *
+ * @see QueryStats
+ */
+
+@Controller
+@RequestMapping("/admin/sql-stats")
+@ConditionalOnProperty(prefix = "catalog.sql-stats", name = "enabled", havingValue = "true")
+public class SqlStatsController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final QueryStats stats;
+
+    @Autowired // автоматическое внедрение зависимости
+    public SqlStatsController(QueryStats stats) {
+        this.stats = stats;
+    }
+
+    @GetMapping
+    @ResponseBody
+    public List<QueryStatsReport> top(@RequestParam(defaultValue = "slowest") String order,
+                                     @RequestParam(defaultValue = "20") int limit) {
+        QueryStats.Order sortOrder;
+        try {
+            sortOrder = QueryStats.Order.valueOf(order.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неизвестный порядок отчета: " + order);
+        }
+
+        return stats.top(sortOrder, Math.min(limit, MAX_LIMIT));
+    }
+
+    @PostMapping("/reset")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void reset() {
+        stats.reset();
+    }
+}
\ No newline at end of file
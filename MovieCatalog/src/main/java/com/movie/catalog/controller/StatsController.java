@@ -0,0 +1,33 @@
+package com.movie.catalog.controller;
+
+import com.movie.catalog.analytics.ViewingStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * Контроллер страницы личной статистики просмотров
+ *
+ * <p>Показывает время просмотра, любимые жанры, распределение оценок в рецензиях,
+ * расхождение своих оценок с рейтингом каталога и долю завершенных просмотров.</p>
+ *
+ * @see ViewingStatsService
+ */
+
+@Controller
+public class StatsController {
+
+    private final ViewingStatsService viewingStatsService;
+
+    @Autowired // автоматическое внедрение зависимости с сервисом
+    public StatsController(ViewingStatsService viewingStatsService) {
+        this.viewingStatsService = viewingStatsService;
+    }
+
+    @GetMapping("/stats")
+    public String stats(Model model) {
+        model.addAttribute("stats", viewingStatsService.getStats());
+        return "stats/dashboard";
+    }
+}
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.movie.catalog.controller;
 
+import com.movie.catalog.dto.*;
 import com.movie.catalog.entity.*;
 import com.movie.catalog.service.*;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -22,12 +24,14 @@ import java.util.List;
  *   <li>Изменение статуса фильма</li>
  *   <li>Быстрое добавление фильма</li>
  *   <li>Просмотр истории фильма</li>
+ *   <li>Просмотр архива завершенных просмотров</li>
  * </ul>
  * </p>
  *
  * <p><strong>Основные методы:</strong></p>
  * <ul>
- *   <li>{@link #listWatchHistory(Model)} - отображение списка всей истории просмотра</li>
+ *   <li>{@link #listWatchHistory(WatchSort, String, Model)} - отображение страницы истории просмотра в выбранном порядке</li>
+ *   <li>{@link #listArchivedWatchHistory(String, Model)} - отображение страницы завершенных просмотров, перенесенных в архив</li>
  *   <li>{@link #showCreateForm(Long, Model)} - отображение формы для создания новой записи о просмотре</li>
  *   <li>{@link #createWatchHistory(WatchHistory, BindingResult, Long, RedirectAttributes, Model)} - обработка формы для создания новой записи о просмотре</li>
  *   <li>{@link #addToWatchHistory(Long, RedirectAttributes)} - добавление фильма по статусу запланировано</li>
@@ -35,6 +39,7 @@ import java.util.List;
  *   <li>{@link #updateWatchHistory(Long, WatchHistory, BindingResult, Long, RedirectAttributes, Model) - обработка обновлений данных записи о просмотре</li>
  *   <li>{@link #deleteWatchHistory(Long, RedirectAttributes)} - удаление записи о просмотре из БД</li>
  *   <li>{@link #changeStatus(Long, String, RedirectAttributes)} - изменение статуса просмотра фильма</li>
+ *   <li>{@link #batchAction(List, String, String, LocalDate, RedirectAttributes)} - смена статуса, завершение или удаление набора записей</li>
  * </ul>
  *
  * @see WatchHistoryService
@@ -46,6 +51,9 @@ import java.util.List;
 @RequestMapping("/watch-history")
 public class WatchHistoryController {
 
+    // число записей на одной странице списка
+    private static final int PAGE_SIZE = 20;
+
     private final WatchHistoryService watchHistoryService;
     private final MovieService movieService;
 
@@ -57,17 +65,35 @@ public class WatchHistoryController {
     }
 
     @GetMapping
-    public String listWatchHistory(Model model) {
-        List<WatchHistory> watchHistory = watchHistoryService.getAllWatchHistory();
-        model.addAttribute("watchHistory", watchHistory);
-        model.addAttribute("watchHistoryCount", watchHistory.size());
+    public String listWatchHistory(@RequestParam(defaultValue = "ADDED_DATE") WatchSort sort,
+                                   @RequestParam(required = false) String after,
+                                   Model model) {
+        KeysetPage<WatchRow> page = watchHistoryService.getWatchHistoryPage(sort, after, PAGE_SIZE);
+        model.addAttribute("watchHistory", page.rows());
+        model.addAttribute("watchHistoryCount", page.total());
+        model.addAttribute("page", page);
+        model.addAttribute("sort", sort);
+        model.addAttribute("sortOptions", WatchSort.values());
+        model.addAttribute("firstPage", after == null || after.isBlank());
 
         List<Object[]> stats = watchHistoryService.getWatchStatusStatistics();
         model.addAttribute("watchStats", stats);
+        model.addAttribute("statusOptions", List.of("Запланировано", "Смотрю", "Просмотрено", "Брошено"));
 
         return "watch-history/list";
     }
 
+    @GetMapping("/archive")
+    public String listArchivedWatchHistory(@RequestParam(required = false) String after,
+                                           Model model) {
+        KeysetPage<WatchRow> page = watchHistoryService.getArchivedWatchHistoryPage(after, PAGE_SIZE);
+        model.addAttribute("watchHistory", page.rows());
+        model.addAttribute("watchHistoryCount", page.total());
+        model.addAttribute("page", page);
+        model.addAttribute("firstPage", after == null || after.isBlank());
+        return "watch-history/archive";
+    }
+
     @GetMapping("/new")
     public String showCreateForm(@RequestParam(required = false) Long movieId,
                                  Model model) {
@@ -191,10 +217,10 @@ public class WatchHistoryController {
     public String deleteWatchHistory(@PathVariable("id") Long id,
                                      RedirectAttributes redirectAttributes) {
         try {
-            WatchHistory watchHistory = watchHistoryService.getWatchHistoryById(id).orElse(null);
+            WatchRow watchHistory = watchHistoryService.getWatchRow(id).orElse(null);
 
             if (watchHistory != null) {
-                String movieTitle = watchHistory.getMovie() != null ? watchHistory.getMovie().getTitle() : "Неизвестный фильм";
+                String movieTitle = watchHistory.movieTitle() != null ? watchHistory.movieTitle() : "Неизвестный фильм";
                 watchHistoryService.deleteWatchHistory(id);
                 redirectAttributes.addFlashAttribute("successMessage",
                         "Запись истории просмотра для фильма «" + movieTitle + "» успешно удалена");
@@ -253,4 +279,35 @@ public class WatchHistoryController {
 
         return "redirect:/watch-history";
     }
+
+    @PostMapping("/batch")
+    public String batchAction(@RequestParam(value = "ids", required = false) List<Long> ids,
+                              @RequestParam("action") String action,
+                              @RequestParam(value = "status", required = false) String status,
+                              @RequestParam(value = "completedDate", required = false)
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate completedDate,
+                              RedirectAttributes redirectAttributes) {
+        if (ids == null || ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Не выбрано ни одной записи");
+            return "redirect:/watch-history";
+        }
+
+        try {
+            String message = switch (action) {
+                case "status" -> "Статус изменен на " + status + " у записей: "
+                        + watchHistoryService.changeStatusBatch(ids, status);
+                case "complete" -> "Отмечено просмотренными записей: "
+                        + watchHistoryService.markCompletedBatch(ids, completedDate);
+                case "delete" -> "Удалено записей истории просмотра: "
+                        + watchHistoryService.deleteWatchHistoryBatch(ids);
+                default -> throw new RuntimeException("Неизвестное действие: " + action);
+            };
+            redirectAttributes.addFlashAttribute("successMessage", message);
+
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
+
+        return "redirect:/watch-history";
+    }
 }
\ No newline at end of file
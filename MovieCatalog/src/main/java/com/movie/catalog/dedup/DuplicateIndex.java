@@ -0,0 +1,273 @@
+package com.movie.catalog.dedup;
+
+import com.movie.catalog.dto.*;
+import com.movie.catalog.event.CatalogChangedEvent;
+import com.movie.catalog.event.CatalogChangedEvent.ChangeType;
+import com.movie.catalog.event.CatalogChangedEvent.EntityType;
+import com.movie.catalog.repository.MovieRepository;
+import com.movie.catalog.snapshot.CatalogSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Индекс похожих фильмов на основе MinHash и LSH (locality-sensitive hashing).
+ *
+ * <p>Для каждого фильма хранится сигнатура {@link MinHash} его названия, а ID фильма лежит в корзинах
+ * всех {@link MinHash#BANDS} полос сигнатуры. Поиск дубликатов нового фильма просматривает только
+ * его корзины, а не весь каталог, поэтому время проверки не растет с размером каталога.
+ * Кандидаты из корзин проверяются: сходство сигнатур не ниже {@link #SIMILARITY_THRESHOLD}
+ * и годы выпуска отличаются не больше чем на год.</p>
+ *
+ * <p>Индекс строится в памяти после старта приложения и обновляется после коммита каждого изменения фильмов.
+ * В автономном режиме он строится по снимку каталога.</p>
+ *
+ * @see MinHash
+ * @see com.movie.catalog.service.MovieService#findPossibleDuplicates(String, Integer, Long)
+ */
+
+@Component
+public class DuplicateIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateIndex.class);
+
+    static final double SIMILARITY_THRESHOLD = 0.6;
+
+    private static final int MAX_CANDIDATES = 5;
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final MovieRepository movieRepository;
+    private final CatalogSnapshot snapshot;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    @Autowired // автоматическое внедрение зависимостей
+    public DuplicateIndex(MovieRepository movieRepository,
+                          CatalogSnapshot snapshot) {
+        this.movieRepository = movieRepository;
+        this.snapshot = snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread thread = new Thread(this::rebuild, "duplicate-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+
+        List<MovieTitle> movies = snapshot.isActive()
+                ? snapshot.findMovieCards(null, null).stream().map(card -> new MovieTitle(card.id(), card.title(), card.releaseYear())).toList()
+                : movieRepository.findAllTitles();
+
+        // сигнатуры считаются параллельно вне блокировки, в индекс добавляются под ней
+        List<Entry> computed = movies.parallelStream()
+                .map(movie -> new Entry(movie, MinHash.signature(movie.title())))
+                .toList();
+
+        synchronized (writeLock) {
+            entries.clear();
+            buckets.clear();
+            computed.forEach(this::add);
+        }
+
+        log.info("Индекс дубликатов построен по {} фильмам за {} мс", computed.size(), System.currentTimeMillis() - startTime);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.entityType() != EntityType.MOVIE || event.ids().isEmpty()) {
+            return;
+        }
+
+        if (event.changeType() == ChangeType.DELETED) {
+            synchronized (writeLock) {
+                event.ids().forEach(this::remove);
+            }
+            return;
+        }
+
+        List<Long> ids = List.copyOf(event.ids());
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK_SIZE) {
+            List<MovieTitle> movies = movieRepository.findTitlesByIdIn(ids.subList(from, Math.min(ids.size(), from + LOAD_CHUNK_SIZE)));
+
+            synchronized (writeLock) {
+                for (MovieTitle movie : movies) {
+                    remove(movie.id());
+                    add(new Entry(movie, MinHash.signature(movie.title())));
+                }
+            }
+        }
+    }
+
+    /**
+     * Фильмы каталога, похожие на фильм с заданным названием и годом, в порядке убывания сходства.
+     *
+     * @param excludeId ID проверяемого фильма, если он уже в каталоге
+     */
+    public List<DuplicateCandidate> findCandidates(String title, Integer releaseYear, Long excludeId) {
+        if (title == null || MinHash.normalize(title).isEmpty()) {
+            return List.of();
+        }
+
+        int[] signature = MinHash.signature(title);
+        Set<Long> checked = new HashSet<>();
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            for (Long id : buckets.getOrDefault(MinHash.bandKey(signature, band), Set.of())) {
+                Entry entry = entries.get(id);
+
+                if (id.equals(excludeId) || !checked.add(id) || entry == null || !yearsClose(releaseYear, entry.movie().releaseYear())) {
+                    continue;
+                }
+
+                double similarity = MinHash.similarity(signature, entry.signature());
+                if (similarity >= SIMILARITY_THRESHOLD) {
+                    candidates.add(new DuplicateCandidate(entry.movie(), similarity));
+                }
+            }
+        }
+
+        candidates.sort(Comparator.comparingDouble(DuplicateCandidate::similarity).reversed());
+        return candidates.size() > MAX_CANDIDATES ? List.copyOf(candidates.subList(0, MAX_CANDIDATES)) : candidates;
+    }
+
+    /**
+     * Группы вероятных дубликатов по всему каталогу.
+     *
+     * <p>Корзины проверяются параллельно: сравниваются только фильмы, попавшие в одну корзину.
+     * Найденные пары объединяются в группы (система непересекающихся множеств), так что
+     * «The Matrix», «Matrix, The (1999)» и «Matrix» окажутся в одной группе.</p>
+     */
+    public List<DuplicateGroup> findDuplicateGroups() {
+        List<Match> matches = buckets.values().parallelStream()
+                .filter(bucket -> bucket.size() > 1)
+                .flatMap(this::matchesInBucket)
+                .distinct()
+                .toList();
+
+        Map<Long, Long> parents = new HashMap<>();
+        for (Match match : matches) {
+            Long first = root(parents, match.first());
+            Long second = root(parents, match.second());
+            if (!first.equals(second)) {
+                parents.put(Math.max(first, second), Math.min(first, second));
+            }
+        }
+
+        Map<Long, List<MovieTitle>> groups = new TreeMap<>();
+        Map<Long, Double> similarities = new HashMap<>();
+
+        for (Match match : matches) {
+            similarities.merge(root(parents, match.first()), match.similarity(), Math::min);
+        }
+        for (Long id : List.copyOf(parents.keySet())) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                groups.computeIfAbsent(root(parents, id), root -> new ArrayList<>()).add(entry.movie());
+            }
+        }
+
+        List<DuplicateGroup> result = new ArrayList<>();
+        groups.forEach((root, movies) -> {
+            if (movies.size() > 1) {
+                movies.sort(Comparator.comparing(MovieTitle::id));
+                result.add(new DuplicateGroup(List.copyOf(movies), similarities.getOrDefault(root, 1.0)));
+            }
+        });
+        return result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Stream<Match> matchesInBucket(Set<Long> bucket) {
+        List<Entry> members = bucket.stream()
+                .map(entries::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(entry -> entry.movie().id()))
+                .toList();
+
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < members.size(); i++) {
+            for (int j = i + 1; j < members.size(); j++) {
+                Entry first = members.get(i);
+                Entry second = members.get(j);
+
+                if (!yearsClose(first.movie().releaseYear(), second.movie().releaseYear())) {
+                    continue;
+                }
+
+                double similarity = MinHash.similarity(first.signature(), second.signature());
+                if (similarity >= SIMILARITY_THRESHOLD) {
+                    matches.add(new Match(first.movie().id(), second.movie().id(), similarity));
+                }
+            }
+        }
+        return matches.stream();
+    }
+
+    private void add(Entry entry) {
+        Long id = entry.movie().id();
+        entries.put(id, entry);
+
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            buckets.computeIfAbsent(MinHash.bandKey(entry.signature(), band), key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+
+        if (entry == null) {
+            return;
+        }
+
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            long key = MinHash.bandKey(entry.signature(), band);
+            Set<Long> bucket = buckets.get(key);
+
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    private static Long root(Map<Long, Long> parents, Long id) {
+        Long parent = parents.putIfAbsent(id, id);
+        if (parent == null || parent.equals(id)) {
+            return id;
+        }
+
+        Long root = root(parents, parent);
+        parents.put(id, root);
+        return root;
+    }
+
+    private static boolean yearsClose(Integer first, Integer second) {
+        return first == null || second == null || Math.abs(first - second) <= 1;
+    }
+
+    private record Entry(MovieTitle movie, int[] signature) {
+    }
+
+    private record Match(long first, long second, double similarity) {
+    }
+}
\ No newline at end of file
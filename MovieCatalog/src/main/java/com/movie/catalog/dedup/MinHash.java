@@ -0,0 +1,111 @@
+package com.movie.catalog.dedup;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Сигнатуры MinHash для названий фильмов.
+ *
+ * <p>Название нормализуется: приводится к нижнему регистру, из него убираются диакритика, год в скобках,
+ * знаки препинания и артикль (в начале или после запятой в конце, как в «Matrix, The»).
+ * Нормализованное название разбивается на перекрывающиеся триграммы символов, и сигнатура -
+ * это минимумы {@link #SIGNATURE_SIZE} независимых хэш-функций по множеству триграмм.
+ * Доля совпадающих позиций двух сигнатур оценивает коэффициент Жаккара множеств триграмм.</p>
+ *
+ * <p>Сигнатура делится на {@link #BANDS} полос по {@link #ROWS} значения: названия, у которых совпала
+ * хотя бы одна полоса, становятся кандидатами в дубликаты. При таких параметрах пара со сходством 0,7
+ * становится кандидатом с вероятностью около 99%, а пара со сходством 0,3 - около 12%.</p>
+ *
+ * @see DuplicateIndex
+ */
+
+final class MinHash {
+
+    static final int BANDS = 16;
+    static final int ROWS = 4;
+    static final int SIGNATURE_SIZE = BANDS * ROWS;
+
+    private static final int SHINGLE_LENGTH = 3;
+
+    private static final Pattern YEAR_IN_BRACKETS = Pattern.compile("[(\\[]\\s*\\d{4}\\s*[)\\]]");
+    private static final Pattern TRAILING_ARTICLE = Pattern.compile(",\\s*(the|a|an)\\s*$");
+    private static final Pattern LEADING_ARTICLE = Pattern.compile("^(the|a|an)\\s+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NOT_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // затравки хэш-функций фиксированы, чтобы сигнатуры не зависели от запуска
+    private static final long[] SEEDS = new SplittableRandom(0x4D494E48L).longs(SIGNATURE_SIZE).toArray();
+
+    private MinHash() {
+    }
+
+    static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+
+        String text = Normalizer.normalize(title.toLowerCase(Locale.ROOT), Normalizer.Form.NFKD);
+        text = DIACRITICS.matcher(text).replaceAll("");
+        text = YEAR_IN_BRACKETS.matcher(text).replaceAll(" ").trim();
+        text = TRAILING_ARTICLE.matcher(text).replaceAll("");
+        text = NOT_WORD.matcher(text).replaceAll(" ").trim();
+        return LEADING_ARTICLE.matcher(text).replaceFirst("");
+    }
+
+    static int[] signature(String title) {
+        String normalized = " " + normalize(title) + " ";
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        int shingles = Math.max(1, normalized.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingleHash = hash(normalized, start, Math.min(normalized.length(), start + SHINGLE_LENGTH));
+
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int value = (int) mix(shingleHash ^ SEEDS[i]);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Ключ полосы {@code band} сигнатуры: одинаков у сигнатур, совпадающих во всех значениях полосы.
+     */
+    static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            key = key * 0x100000001B3L + signature[i];
+        }
+        return mix(key);
+    }
+
+    static double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    // FNV-1a по символам триграммы
+    private static long hash(String text, int from, int to) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = from; i < to; i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // финальное перемешивание SplitMix64
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
\ No newline at end of file
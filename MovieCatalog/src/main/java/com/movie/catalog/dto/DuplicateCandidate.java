@@ -0,0 +1,13 @@
+package com.movie.catalog.dto;
+
+/**
+ * Фильм каталога, похожий на проверяемый.
+ *
+ * @param movie      найденный фильм
+ * @param similarity оценка сходства названий по сигнатурам MinHash, от 0 до 1
+ * @see com.movie.catalog.dedup.DuplicateIndex
+ */
+
+public record DuplicateCandidate(MovieTitle movie,
+                                 double similarity) {
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.movie.catalog.dto;
+
+import java.util.List;
+
+/**
+ * Группа фильмов каталога, которые, вероятно, являются одним фильмом.
+ *
+ * @param movies     фильмы группы в порядке ID
+ * @param similarity наименьшее сходство среди пар, объединивших группу
+ * @see com.movie.catalog.dedup.DuplicateIndex#findDuplicateGroups()
+ */
+
+public record DuplicateGroup(List<MovieTitle> movies,
+                             double similarity) {
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.movie.catalog.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Курсор постраничного списка: значение поля сортировки и ID последней строки страницы.
+ *
+ * <p>ID делает порядок однозначным при совпадающих значениях поля сортировки. В ссылках курсор передается
+ * строкой в кодировке Base64 URL.</p>
+ *
+ * @see KeysetPage
+ */
+
+public record KeysetCursor(String value, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        byte[] raw = (value + SEPARATOR + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Разбирает курсор из ссылки. Пустой или поврежденный курсор означает первую страницу.
+     */
+    public static Optional<KeysetCursor> decode(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            return Optional.empty();
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+
+            if (separator < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new KeysetCursor(raw.substring(0, separator), Long.valueOf(raw.substring(separator + 1))));
+
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.movie.catalog.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница списка, загруженная по ключу последней строки предыдущей страницы.
+ *
+ * <p>Следующая страница запрашивается по {@link #nextCursor()} - БД продолжает обход индекса с этой строки,
+ * не пропуская строки всех предыдущих страниц, как при {@code OFFSET}.</p>
+ *
+ * @param rows       строки страницы
+ * @param nextCursor курсор следующей страницы или {@code null}, если страница последняя
+ * @param total      общее число строк в списке
+ * @see KeysetCursor
+ */
+
+public record KeysetPage<T>(List<T> rows,
+                            String nextCursor,
+                            long total) {
+
+    /**
+     * Собирает страницу из строк, запрошенных с запасом в одну строку: лишняя строка означает,
+     * что следующая страница есть, и в страницу не входит.
+     */
+    public static <T> KeysetPage<T> of(List<T> fetched, int size, Function<T, KeysetCursor> cursorOf, long total) {
+        if (fetched.size() <= size) {
+            return new KeysetPage<>(fetched, null, total);
+        }
+
+        List<T> rows = List.copyOf(fetched.subList(0, size));
+        return new KeysetPage<>(rows, cursorOf.apply(rows.get(size - 1)).encode(), total);
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(rows.stream().map(mapper).toList(), nextCursor, total);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.movie.catalog.dto;
+
+/**
+ * Статус просмотра и собственная оценка фильма для карточки на главной странице.
+ *
+ * <p>Загружается одним запросом сразу для всех карточек страницы.</p>
+ *
+ * @param movieId     ID фильма
+ * @param watchStatus статус записи истории просмотра или {@code null}, если фильма нет в истории
+ * @param myRating    средняя оценка в рецензиях на фильм или {@code null}, если рецензий нет
+ * @see com.movie.catalog.repository.MovieRepository
+ */
+
+public record MovieBadge(Long movieId,
+                         String watchStatus,
+                         Double myRating) {
+
+    public MovieBadge withWatchStatus(String watchStatus) {
+        return new MovieBadge(movieId, watchStatus, myRating);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.movie.catalog.dto;
+
+/**
+ * Карточка фильма для списков: главная страница, результаты поиска, выбор фильма в формах.
+ *
+ * <p>Загружается одним запросом-проекцией без создания сущностей {@link com.movie.catalog.entity.Movie}.</p>
+ *
+ * @see com.movie.catalog.repository.MovieRepository
+ */
+
+public record MovieCard(Long id,
+                        String title,
+                        Integer releaseYear,
+                        Float rating,
+                        Integer durationMinutes,
+                        String genre,
+                        String description,
+                        String posterKey) {
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.movie.catalog.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Данные страницы фильма ({@code movies/view}).
+ *
+ * <p>Вместе с полями фильма содержит число рецензий, среднюю оценку в них и запись истории просмотра фильма.
+ * Загружается одним запросом-проекцией: агрегаты рецензий считаются подзапросами, запись истории
+ * присоединяется внешним соединением. Последние рецензии загружаются вторым запросом постранично.</p>
+ *
+ * @see com.movie.catalog.repository.MovieRepository#findDetailById(Long, Long)
+ */
+
+public record MovieDetail(Long id,
+                          String title,
+                          Integer releaseYear,
+                          String description,
+                          Float rating,
+                          Integer durationMinutes,
+                          String genre,
+                          String posterKey,
+                          Long reviewCount,
+                          Double averageReviewRating,
+                          Long watchHistoryId,
+                          String watchStatus,
+                          LocalDate watchAddedDate,
+                          LocalDate watchCompletedDate) {
+
+    public boolean inWatchHistory() {
+        return watchHistoryId != null;
+    }
+
+    public MovieDetail withWatchStatus(String watchStatus) {
+        return new MovieDetail(id, title, releaseYear, description, rating, durationMinutes, genre, posterKey,
+                reviewCount, averageReviewRating, watchHistoryId, watchStatus, watchAddedDate, watchCompletedDate);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.movie.catalog.dto;
+
+/**
+ * Название и год выпуска фильма - данные, по которым ищутся дубликаты.
+ *
+ * @see com.movie.catalog.dedup.DuplicateIndex
+ */
+
+public record MovieTitle(Long id,
+                         String title,
+                         Integer releaseYear) {
+}
\ No newline at end of file
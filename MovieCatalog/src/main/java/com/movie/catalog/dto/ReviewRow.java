@@ -0,0 +1,20 @@
+package com.movie.catalog.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Строка списка рецензий вместе с названием фильма.
+ *
+ * <p>Загружается одним запросом с соединением рецензии и фильма, поэтому при отрисовке
+ * не требуется отложенная загрузка {@link com.movie.catalog.entity.Review#getMovie()}.</p>
+ *
+ * @see com.movie.catalog.repository.ReviewRepository
+ */
+
+public record ReviewRow(Long id,
+                        Long movieId,
+                        String movieTitle,
+                        Float rating,
+                        String comment,
+                        LocalDate watchDate) {
+}
\ No newline at end of file
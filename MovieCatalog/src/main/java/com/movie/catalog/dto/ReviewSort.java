@@ -0,0 +1,22 @@
+package com.movie.catalog.dto;
+
+/**
+ * Порядок сортировки списка рецензий.
+ *
+ * <p>Каждому порядку соответствует составной индекс {@code (поле, id)} таблицы {@code reviews}.</p>
+ */
+
+public enum ReviewSort {
+    WATCH_DATE("По дате просмотра"),
+    RATING("По оценке");
+
+    private final String label;
+
+    ReviewSort(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.movie.catalog.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Строка списка истории просмотра вместе с названием фильма.
+ *
+ * <p>Загружается одним запросом с соединением записи и фильма, поэтому при отрисовке
+ * не требуется отложенная загрузка {@link com.movie.catalog.entity.WatchHistory#getMovie()}.</p>
+ *
+ * @see com.movie.catalog.repository.WatchHistoryRepository
+ */
+
+public record WatchRow(Long id,
+                       Long movieId,
+                       String movieTitle,
+                       String status,
+                       LocalDate addedDate,
+                       LocalDate completedDate) {
+
+    public WatchRow withStatus(String status) {
+        return new WatchRow(id, movieId, movieTitle, status, addedDate, completedDate);
+    }
+}
\ No newline at end of file
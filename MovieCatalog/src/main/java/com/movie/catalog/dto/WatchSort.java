@@ -0,0 +1,22 @@
+package com.movie.catalog.dto;
+
+/**
+ * Порядок сортировки списка истории просмотра.
+ *
+ * <p>Каждому порядку соответствует составной индекс {@code (поле, id)} таблицы {@code watch_history}.</p>
+ */
+
+public enum WatchSort {
+    ADDED_DATE("По дате добавления"),
+    STATUS("По статусу");
+
+    private final String label;
+
+    WatchSort(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.movie.catalog.enrichment;
+
+import java.time.Instant;
+
+/**
+ * Состояние заполнения метаданных фильмов.
+ *
+ * @param running    идет ли заполнение
+ * @param startedAt  время начала последнего запуска
+ * @param finishedAt время окончания последнего запуска или {@code null}, если он еще идет
+ * @param scanned    число просмотренных фильмов с пустыми полями
+ * @param enriched   число фильмов, у которых заполнено хотя бы одно поле
+ * @param notFound   число фильмов, которых нет в источнике
+ * @param failed     число фильмов, для которых источник был недоступен
+ * @param requests   число запросов к источнику
+ * @param cacheHits  число ответов из дискового кэша
+ * @param coalesced  число поисков, присоединившихся к уже идущему запросу того же фильма
+ */
+
+public record EnrichmentStatus(boolean running,
+                               Instant startedAt,
+                               Instant finishedAt,
+                               long scanned,
+                               long enriched,
+                               long notFound,
+                               long failed,
+                               long requests,
+                               long cacheHits,
+                               long coalesced) {
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.movie.catalog.enrichment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Источник метаданных из локального файла NDJSON ({@code catalog.enrichment.provider=file}).
+ *
+ * <p>Каждая строка файла - JSON с полями {@code title}, {@code releaseYear}, {@code description},
+ * {@code durationMinutes}, {@code genre} и {@code rating}. Строка без {@code releaseYear} подходит к фильму
+ * с таким названием любого года. Файл читается целиком при запуске; если файла нет, источник ничего не находит.
+ * Подходит для заполнения из выгрузки другого каталога и для проверки без внешнего сервиса.</p>
+ *
+ * @see MetadataProvider
+ */
+
+public class FileMetadataProvider implements MetadataProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(FileMetadataProvider.class);
+
+    private final Map<TitleKey, MovieMetadata> entries = new HashMap<>();
+
+    public FileMetadataProvider(Path file, ObjectMapper objectMapper) {
+        if (!Files.isRegularFile(file)) {
+            log.warn("Файл метаданных {} не найден, метаданные не будут найдены", file.toAbsolutePath());
+            return;
+        }
+
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    Entry entry = objectMapper.readValue(line, Entry.class);
+                    entries.put(TitleKey.of(entry.title(), entry.releaseYear()),
+                            new MovieMetadata(entry.description(), entry.durationMinutes(), entry.genre(), entry.rating()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать файл метаданных " + file, e);
+        }
+
+        log.info("Загружены метаданные {} фильмов из {}", entries.size(), file.toAbsolutePath());
+    }
+
+    @Override
+    public Optional<MovieMetadata> lookup(String title, Integer releaseYear) {
+        TitleKey key = TitleKey.of(title, releaseYear);
+        MovieMetadata metadata = entries.get(key);
+        return Optional.ofNullable(metadata != null ? metadata : entries.get(key.withoutYear()));
+    }
+
+    private record Entry(String title,
+                         Integer releaseYear,
+                         String description,
+                         Integer durationMinutes,
+                         String genre,
+                         Float rating) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.movie.catalog.enrichment;
+
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Источник метаданных - HTTP-сервис ({@code catalog.enrichment.provider=http}).
+ *
+ * <p>Запрос {@code GET <url>?title=<название>&year=<год>}; ответ 200 - JSON с полями {@link MovieMetadata},
+ * ответ 404 - фильм не найден. Остальные ответы и ошибки соединения считаются недоступностью источника.
+ * Подходит и для внешнего каталога через адаптер, и для локальной заглушки при проверке.</p>
+ *
+ * @see MetadataProvider
+ */
+
+public class HttpMetadataProvider implements MetadataProvider {
+
+    private final String url;
+    private final Duration requestTimeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+
+    public HttpMetadataProvider(String url, Duration requestTimeout, ObjectMapper objectMapper) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("Не задан адрес источника метаданных catalog.enrichment.url");
+        }
+
+        this.url = url;
+        this.requestTimeout = requestTimeout;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    @Override
+    public Optional<MovieMetadata> lookup(String title, Integer releaseYear) {
+        StringBuilder query = new StringBuilder(url)
+                .append(url.contains("?") ? '&' : '?')
+                .append("title=").append(URLEncoder.encode(title, StandardCharsets.UTF_8));
+        if (releaseYear != null) {
+            query.append("&year=").append(releaseYear);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(query.toString()))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+
+            if (response.statusCode() == 404) {
+                return Optional.empty();
+            }
+            if (response.statusCode() != 200) {
+                throw new RuntimeException("Источник метаданных ответил кодом " + response.statusCode() + " на запрос " + title);
+            }
+
+            return Optional.of(objectMapper.readValue(response.body(), MovieMetadata.class));
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Источник метаданных недоступен: " + e.getMessage(), e);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Запрос метаданных прерван", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.movie.catalog.enrichment;
+
+import com.movie.catalog.config.EnrichmentProperties;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Дисковый кэш ответов источника метаданных.
+ *
+ * <p>Ответ на каждый {@link TitleKey} хранится отдельным файлом JSON {@code <каталог>/<2 символа>/<SHA-256 ключа>.json};
+ * подкаталоги по первым символам хэша не дают одному каталогу разрастись до сотен тысяч файлов.
+ * Ответ "фильм не найден" тоже кэшируется, но на меньший срок {@code catalog.enrichment.negative-cache-ttl}.
+ * Файл пишется во временный файл и переносится на свое место, поэтому читатель не видит наполовину
+ * записанных файлов. Устаревшие записи не удаляются, а перезаписываются при следующем запросе.</p>
+ *
+ * @see MetadataEnricher
+ * @see EnrichmentProperties
+ */
+
+public class MetadataCache {
+
+    private final EnrichmentProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public MetadataCache(EnrichmentProperties properties,
+                         ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Ответ из кэша, если он не устарел. Внутренний {@code Optional} пуст, если источник не нашел фильм.
+     */
+    public Optional<Optional<MovieMetadata>> get(TitleKey key) {
+        Path file = file(key);
+
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        Entry entry;
+        try {
+            entry = objectMapper.readValue(Files.readString(file, StandardCharsets.UTF_8), Entry.class);
+        } catch (IOException | RuntimeException e) {
+            // поврежденная запись считается отсутствующей и будет перезаписана
+            return Optional.empty();
+        }
+
+        long ttl = (entry.metadata() != null ? properties.getCacheTtl() : properties.getNegativeCacheTtl()).toMillis();
+        if (System.currentTimeMillis() - entry.fetchedAt() > ttl) {
+            return Optional.empty();
+        }
+
+        return Optional.of(Optional.ofNullable(entry.metadata()));
+    }
+
+    public void put(TitleKey key, Optional<MovieMetadata> metadata) {
+        Path file = file(key);
+        Path temp = null;
+
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), "metadata", ".tmp");
+            Files.writeString(temp, objectMapper.writeValueAsString(new Entry(key.title(), key.releaseYear(),
+                    System.currentTimeMillis(), metadata.orElse(null))), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать кэш метаданных для " + key, e);
+
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // временный файл будет перезаписан при следующей записи
+                }
+            }
+        }
+    }
+
+    private Path file(TitleKey key) {
+        String hash = sha256(key.title() + "\n" + key.releaseYear());
+        return properties.getCacheDirectory().toAbsolutePath().resolve(hash.substring(0, 2)).resolve(hash + ".json");
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Запись кэша; название и год хранятся для просмотра кэша вручную.
+     */
+    private record Entry(String title,
+                         Integer releaseYear,
+                         long fetchedAt,
+                         MovieMetadata metadata) {
+    }
+}
\ No newline at end of file
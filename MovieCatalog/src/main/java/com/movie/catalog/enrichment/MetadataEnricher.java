@@ -0,0 +1,240 @@
+package com.movie.catalog.enrichment;
+
+import com.movie.catalog.config.EnrichmentProperties;
+import com.movie.catalog.dto.MovieTitle;
+import com.movie.catalog.repository.MovieRepository;
+import com.movie.catalog.service.MovieService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Заполнение пустых описания, длительности, жанра и рейтинга фильмов из источника {@link MetadataProvider}.
+ *
+ * <p>Фильмы с пустыми полями читаются пачками по {@code catalog.enrichment.batch-size} по возрастанию ID.
+ * Поиск метаданных для пачки идет в пуле из {@code catalog.enrichment.concurrency} потоков, а частоту запросов
+ * к источнику ограничивает {@link TokenBucket}. Пока найденные метаданные пачки записываются одной транзакцией
+ * через {@link MovieService#applyMetadata(Map)}, уже идет поиск для следующей пачки.</p>
+ *
+ * <p>Ответы источника кэшируются на диске ({@link MetadataCache}), а одновременные поиски одного фильма
+ * ({@link TitleKey}) объединяются в один запрос: дубликаты в импортированном каталоге не тратят лимит запросов.
+ * Недоступность источника не прерывает заполнение; такие фильмы остаются с пустыми полями
+ * и будут найдены при следующем запуске.</p>
+ *
+ * @see EnrichmentProperties
+ * @see MovieMetadata
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "catalog.enrichment", name = "enabled", havingValue = "true")
+public class MetadataEnricher {
+
+    private static final Logger log = LoggerFactory.getLogger(MetadataEnricher.class);
+
+    private final MovieRepository movieRepository;
+    private final MovieService movieService;
+    private final MetadataProvider provider;
+    private final MetadataCache cache;
+    private final EnrichmentProperties properties;
+    private final TokenBucket rateLimiter;
+
+    private final ExecutorService runner;
+    private final ExecutorService lookupExecutor;
+
+    // идущие запросы к источнику по ключу фильма
+    private final Map<TitleKey, CompletableFuture<Optional<MovieMetadata>>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress = new Progress(null);
+
+    @Autowired // автоматическое внедрение зависимостей
+    public MetadataEnricher(MovieRepository movieRepository,
+                            MovieService movieService,
+                            MetadataProvider provider,
+                            MetadataCache cache,
+                            EnrichmentProperties properties) {
+        this.movieRepository = movieRepository;
+        this.movieService = movieService;
+        this.provider = provider;
+        this.cache = cache;
+        this.properties = properties;
+        this.rateLimiter = new TokenBucket(properties.getPermitsPerSecond(), properties.getBurst());
+
+        this.runner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metadata-enrichment");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.lookupExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getConcurrency()), runnable -> {
+            Thread thread = new Thread(runnable, "metadata-lookup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Запускает заполнение в фоне. Если заполнение уже идет, второй запуск не начинается.
+     */
+    public EnrichmentStatus start() {
+        if (running.compareAndSet(false, true)) {
+            progress = new Progress(Instant.now());
+            runner.execute(this::run);
+        }
+        return status();
+    }
+
+    public EnrichmentStatus status() {
+        return progress.status(running.get());
+    }
+
+    private void run() {
+        Progress current = progress;
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long afterId = 0;
+
+        try {
+            Map<Long, CompletableFuture<Optional<MovieMetadata>>> previous = Map.of();
+
+            while (true) {
+                List<MovieTitle> movies = movieRepository.findEnrichmentCandidates(afterId, Limit.of(batchSize));
+                if (movies.isEmpty()) {
+                    break;
+                }
+                afterId = movies.get(movies.size() - 1).id();
+                current.scanned.add(movies.size());
+
+                // поиск следующей пачки начинается до записи предыдущей
+                Map<Long, CompletableFuture<Optional<MovieMetadata>>> lookups = new LinkedHashMap<>();
+                for (MovieTitle movie : movies) {
+                    lookups.put(movie.id(), lookup(TitleKey.of(movie.title(), movie.releaseYear()), movie, current));
+                }
+
+                apply(previous, current);
+                previous = lookups;
+            }
+
+            apply(previous, current);
+
+            current.finishedAt = Instant.now();
+            log.info("Заполнение метаданных завершено: просмотрено {}, заполнено {}, не найдено {}, ошибок {}, запросов к источнику {}",
+                    current.scanned.sum(), current.enriched.sum(), current.notFound.sum(), current.failed.sum(), current.requests.sum());
+
+        } catch (RuntimeException e) {
+            current.finishedAt = Instant.now();
+            log.error("Заполнение метаданных прервано", e);
+
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void apply(Map<Long, CompletableFuture<Optional<MovieMetadata>>> lookups, Progress current) {
+        Map<Long, MovieMetadata> found = new HashMap<>();
+
+        for (Map.Entry<Long, CompletableFuture<Optional<MovieMetadata>>> lookup : lookups.entrySet()) {
+            try {
+                Optional<MovieMetadata> metadata = lookup.getValue().join();
+                if (metadata.isPresent()) {
+                    found.put(lookup.getKey(), metadata.get());
+                } else {
+                    current.notFound.increment();
+                }
+
+            } catch (CompletionException | CancellationException e) {
+                current.failed.increment();
+                log.debug("Не удалось получить метаданные фильма {}", lookup.getKey(), e);
+            }
+        }
+
+        current.enriched.add(movieService.applyMetadata(found));
+    }
+
+    private CompletableFuture<Optional<MovieMetadata>> lookup(TitleKey key, MovieTitle movie, Progress current) {
+        CompletableFuture<Optional<MovieMetadata>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<MovieMetadata>> existing = inFlight.putIfAbsent(key, created);
+
+        if (existing != null) {
+            current.coalesced.increment();
+            return existing;
+        }
+
+        lookupExecutor.execute(() -> {
+            try {
+                created.complete(fetch(key, movie, current));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, created);
+            }
+        });
+        return created;
+    }
+
+    private Optional<MovieMetadata> fetch(TitleKey key, MovieTitle movie, Progress current) {
+        Optional<Optional<MovieMetadata>> cached = cache.get(key);
+        if (cached.isPresent()) {
+            current.cacheHits.increment();
+            return cached.get();
+        }
+
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Поиск метаданных прерван", e);
+        }
+
+        current.requests.increment();
+        Optional<MovieMetadata> metadata = provider.lookup(movie.title(), movie.releaseYear());
+        try {
+            cache.put(key, metadata);
+        } catch (RuntimeException e) {
+            // без записи в кэш ответ все равно используется, при следующем запуске фильм запросится снова
+            log.warn("Не удалось закэшировать метаданные {}", key, e);
+        }
+        return metadata;
+    }
+
+    @PreDestroy
+    void stop() {
+        runner.shutdownNow();
+        lookupExecutor.shutdownNow();
+    }
+
+    private static final class Progress {
+
+        private final Instant startedAt;
+        private volatile Instant finishedAt;
+
+        private final LongAdder scanned = new LongAdder();
+        private final LongAdder enriched = new LongAdder();
+        private final LongAdder notFound = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+
+        private Progress(Instant startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        private EnrichmentStatus status(boolean running) {
+            return new EnrichmentStatus(running, startedAt, finishedAt,
+                    scanned.sum(), enriched.sum(), notFound.sum(), failed.sum(),
+                    requests.sum(), cacheHits.sum(), coalesced.sum());
+        }
+    }
+}
\ No newline at end of file
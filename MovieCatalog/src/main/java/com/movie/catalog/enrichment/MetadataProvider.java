@@ -0,0 +1,24 @@
+package com.movie.catalog.enrichment;
+
+import java.util.Optional;
+
+/**
+ * Источник метаданных фильмов.
+ *
+ * <p>Реализация выбирается свойством {@code catalog.enrichment.provider}. Метод вызывается одновременно
+ * из нескольких потоков; частоту вызовов ограничивает {@link MetadataEnricher}, кэширование тоже на его стороне.</p>
+ *
+ * @see FileMetadataProvider
+ * @see HttpMetadataProvider
+ */
+
+public interface MetadataProvider {
+
+    /**
+     * Ищет метаданные фильма по названию и году выпуска.
+     *
+     * @return пустой результат, если источник не знает такого фильма
+     * @throws RuntimeException если источник недоступен; такой ответ не кэшируется
+     */
+    Optional<MovieMetadata> lookup(String title, Integer releaseYear);
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.movie.catalog.enrichment;
+
+import com.movie.catalog.entity.Movie;
+
+/**
+ * Метаданные фильма, полученные из источника {@link MetadataProvider}. Любое поле может отсутствовать.
+ *
+ * @param description     описание
+ * @param durationMinutes длительность в минутах
+ * @param genre           жанры через запятую
+ * @param rating          рейтинг от 1 до 10
+ */
+
+public record MovieMetadata(String description,
+                            Integer durationMinutes,
+                            String genre,
+                            Float rating) {
+
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+    private static final int MAX_GENRE_LENGTH = 100;
+
+    /**
+     * Заполняет пустые поля фильма. Значения, заполненные вручную, и значения, не проходящие
+     * проверки сущности {@link Movie}, не меняются.
+     *
+     * @return {@code true}, если фильм изменился
+     */
+    public boolean applyTo(Movie movie) {
+        boolean changed = false;
+
+        if (isBlank(movie.getDescription()) && !isBlank(description)) {
+            movie.setDescription(truncate(description.trim(), MAX_DESCRIPTION_LENGTH));
+            changed = true;
+        }
+        if (movie.getDurationMinutes() == null && durationMinutes != null && durationMinutes >= 1) {
+            movie.setDurationMinutes(durationMinutes);
+            changed = true;
+        }
+        if (isBlank(movie.getGenre()) && !isBlank(genre)) {
+            movie.setGenre(truncate(genre.trim(), MAX_GENRE_LENGTH));
+            changed = true;
+        }
+        if (movie.getRating() == null && rating != null && rating >= 1.0f && rating <= 10.0f) {
+            movie.setRating(rating);
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.movie.catalog.enrichment;
+
+import java.util.Locale;
+
+/**
+ * Ключ поиска метаданных: название без различия регистра и лишних пробелов и год выпуска.
+ * Фильмы с одинаковым ключом получают один ответ источника.
+ *
+ * @param title       нормализованное название
+ * @param releaseYear год выпуска или {@code null}, если год не известен
+ */
+
+public record TitleKey(String title,
+                       Integer releaseYear) {
+
+    public static TitleKey of(String title, Integer releaseYear) {
+        String normalized = title == null ? "" : title.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return new TitleKey(normalized, releaseYear);
+    }
+
+    public TitleKey withoutYear() {
+        return new TitleKey(title, null);
+    }
+
+    @Override
+    public String toString() {
+        return releaseYear != null ? title + " (" + releaseYear + ")" : title;
+    }
+}
\ No newline at end of file
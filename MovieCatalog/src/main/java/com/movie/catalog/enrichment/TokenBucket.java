@@ -0,0 +1,53 @@
+package com.movie.catalog.enrichment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение частоты запросов к источнику метаданных ("token bucket").
+ *
+ * <p>Маркеры добавляются с постоянной скоростью {@code permitsPerSecond}, в запасе может быть не больше {@code burst}
+ * маркеров. Каждый запрос забирает маркер; если маркеров нет, запрос резервирует будущий маркер
+ * и ждет его вне блокировки, поэтому ожидающие потоки получают маркеры по очереди с нужным интервалом.</p>
+ *
+ * @see MetadataEnricher
+ */
+
+public class TokenBucket {
+
+    private final double nanosPerPermit;
+    private final double capacity;
+
+    private double permits;
+    private long refilledAt;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Частота запросов должна быть больше нуля: " + permitsPerSecond);
+        }
+
+        this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.capacity = Math.max(1, burst);
+        this.permits = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Ждет разрешения на один запрос.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            permits = Math.min(capacity, permits + (now - refilledAt) / nanosPerPermit);
+            refilledAt = now;
+
+            permits -= 1;
+            waitNanos = permits >= 0 ? 0 : (long) (-permits * nanosPerPermit);
+        }
+
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
\ No newline at end of file
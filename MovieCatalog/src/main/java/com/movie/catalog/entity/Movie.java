@@ -15,6 +15,7 @@ import java.util.*;
  * <p>Основная сущность системы, содержащая информацию о фильме:
  * <ul>
  *   <li>Основные атрибуты фильма: название, год выпуска, описание, рейтинг, длительность, жанры</li>
+ *   <li>Ключ постера в хранилище {@link com.movie.catalog.poster.PosterStore} - сам файл в БД не хранится</li>
  *   <li>Связи с рецензиями и историей просмотров</li>
  * </ul>
  * </p>
@@ -62,6 +63,9 @@ public class Movie {
     @Column(name = "genre", length = 100)
     private String genre;
 
+    @Column(name = "poster_key", length = 80)
+    private String posterKey;
+
     @OneToMany(mappedBy = "movie", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Review> reviews = new ArrayList<>();
 
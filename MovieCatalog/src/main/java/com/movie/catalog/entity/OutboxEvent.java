@@ -0,0 +1,54 @@
+package com.movie.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Запись журнала изменений каталога (transactional outbox).
+ *
+ * <p>Сохраняется в той же транзакции, что и само изменение фильмов, рецензий или истории просмотра,
+ * поэтому попадает в журнал тогда и только тогда, когда изменение зафиксировано.
+ * ID записи служит смещением (offset) для получателей событий.</p>
+ *
+ * @see com.movie.catalog.outbox.OutboxWriter
+ * @see com.movie.catalog.outbox.OutboxRelay
+ */
+
+@Entity
+@Table(name = "catalog_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;
+
+    @Column(name = "change_type", nullable = false, length = 20)
+    private String changeType;
+
+    // ID измененных записей через запятую
+    @Column(name = "entity_ids", nullable = false, columnDefinition = "text")
+    private String entityIds;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    public OutboxEvent(String entityType,
+                       String changeType,
+                       String entityIds,
+                       Instant occurredAt) {
+        this.entityType = entityType;
+        this.changeType = changeType;
+        this.entityIds = entityIds;
+        this.occurredAt = occurredAt;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.movie.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Смещение получателя событий журнала изменений.
+ *
+ * <p>Хранит ID последнего события {@link OutboxEvent}, переданного получателю с именем {@code sinkName}.</p>
+ *
+ * @see com.movie.catalog.outbox.OutboxRelay
+ */
+
+@Entity
+@Table(name = "catalog_outbox_offsets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxOffset {
+
+    @Id
+    @Column(name = "sink_name", length = 50)
+    private String sinkName;
+
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
\ No newline at end of file
@@ -6,6 +6,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDate;
 
@@ -18,17 +21,27 @@ import java.time.LocalDate;
  * <ul>
  *    <li>Основные атрибуты фильма: оценка, отзыв, дата просмотра, ID фильма</li>
  *    <li>Связь с фильмами</li>
+ *    <li>ID пользователя, которому принадлежит рецензия</li>
  * </ul>
  * </p>
  *
  * <p>Позволяет пользователю оставлять рецензии на добавленные фильмы.</p>
  * <p>Аннотации валидации обеспечивают проверку данных при создании и обновлении рецензий. Сущность связана с {@link Movie} через отношение многие к одному.</p>
  *
+ * <p>В PostgreSQL таблица {@code reviews} секционирована по {@code user_id} (скрипты в {@code db/}), и ее первичный ключ
+ * составной {@code (id, user_id)}, так как ключ секционирования обязан в него входить. Сущность использует
+ * только {@code id}: он выдается столбцом IDENTITY и уникален сам по себе.</p>
+ *
  * @see Movie
  */
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_movie_id", columnList = "movie_id"),
+        @Index(name = "idx_reviews_user_movie_id", columnList = "user_id, movie_id"),
+        @Index(name = "idx_reviews_user_watch_date_id", columnList = "user_id, watch_date, id"),
+        @Index(name = "idx_reviews_user_rating_id", columnList = "user_id, rating, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -53,8 +66,14 @@ public class Review {
     @Column(name = "watch_date", nullable = false)
     private LocalDate watchDate;
 
+    // значение по умолчанию относит строки, созданные до разделения по пользователям, к пользователю 1
+    @Column(name = "user_id", nullable = false)
+    @ColumnDefault("1")
+    private Long userId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "movie_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Movie movie;
 
     public Review(Float rating,
@@ -74,6 +93,7 @@ public class Review {
                 ", rating=" + rating +
                 ", comment='" + (comment != null ? comment.substring(0, Math.min(comment.length(), 50)) : "") + '\'' +
                 ", watchDate=" + watchDate +
+                ", userId=" + userId +
                 ", movieId=" + (movie != null ? movie.getId() : null) +
                 '}';
     }
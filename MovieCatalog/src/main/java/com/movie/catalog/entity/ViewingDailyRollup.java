@@ -0,0 +1,51 @@
+package com.movie.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Дневная сводка истории просмотров по жанру.
+ *
+ * <p>Хранит за день:
+ * <ul>
+ *   <li>{@code additions} - число фильмов, добавленных в историю просмотра (по дате добавления)</li>
+ *   <li>{@code completions} - число завершенных просмотров (по дате завершения)</li>
+ *   <li>{@code daysToCompleteSum} - сумма дней от добавления до завершения по завершенным просмотрам</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Недельные и месячные ряды строятся суммированием дневных сводок, без обращения к {@code watch_history}.</p>
+ *
+ * @see ViewingRollupKey
+ * @see com.movie.catalog.analytics.ViewingRollupService
+ */
+
+@Entity
+@Table(name = "viewing_daily_rollup", indexes = @Index(name = "idx_viewing_daily_rollup_genre_day", columnList = "genre, rollup_day"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ViewingDailyRollup {
+
+    @EmbeddedId
+    private ViewingRollupKey id;
+
+    @Column(name = "additions", nullable = false)
+    private long additions;
+
+    @Column(name = "completions", nullable = false)
+    private long completions;
+
+    @Column(name = "days_to_complete_sum", nullable = false)
+    private long daysToCompleteSum;
+
+    public ViewingDailyRollup(ViewingRollupKey id) {
+        this.id = id;
+    }
+
+    public boolean isEmpty() {
+        return additions == 0 && completions == 0 && daysToCompleteSum == 0;
+    }
+}
\ No newline at end of file
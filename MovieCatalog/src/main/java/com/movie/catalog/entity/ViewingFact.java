@@ -0,0 +1,52 @@
+package com.movie.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDate;
+
+/**
+ * Учтенное в сводках состояние записи истории просмотра.
+ *
+ * <p>Копия полей {@link WatchHistory}, которые влияют на {@link ViewingDailyRollup}. При изменении записи
+ * ее вклад по сохраненному состоянию вычитается из сводок, а вклад по новому - добавляется,
+ * поэтому повторная обработка одного и того же изменения не искажает сводки.</p>
+ *
+ * <p>Когда запись истории переносится в архив, ее состояние остается помеченным {@code archived}:
+ * вклад архивных просмотров в сводках сохраняется, а изменения фильма их больше не пересчитывают.</p>
+ *
+ * @see com.movie.catalog.analytics.ViewingRollupService
+ */
+
+@Entity
+@Table(name = "viewing_rollup_facts", indexes = @Index(name = "idx_viewing_rollup_facts_movie_id", columnList = "movie_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewingFact {
+
+    @Id
+    @Column(name = "watch_history_id")
+    private Long watchHistoryId;
+
+    @Column(name = "movie_id", nullable = false)
+    private Long movieId;
+
+    @Column(name = "added_date")
+    private LocalDate addedDate;
+
+    @Column(name = "completed_date")
+    private LocalDate completedDate;
+
+    @Column(name = "genre", length = 100)
+    private String genre;
+
+    @Column(name = "archived", nullable = false)
+    @ColumnDefault("false")
+    private boolean archived;
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.movie.catalog.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Ключ дневной сводки просмотров: день и жанр.
+ *
+ * <p>Пустой жанр ({@link #ALL_GENRES}) обозначает сводку по всем фильмам: фильм с несколькими жанрами
+ * учитывается в каждом из них, но в общей сводке - один раз.</p>
+ *
+ * @see ViewingDailyRollup
+ */
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ViewingRollupKey implements Serializable {
+
+    public static final String ALL_GENRES = "";
+
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "genre", nullable = false, length = 100)
+    private String genre;
+}
\ No newline at end of file
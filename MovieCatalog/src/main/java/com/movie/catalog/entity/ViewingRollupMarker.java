@@ -0,0 +1,36 @@
+package com.movie.catalog.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Отметка о завершенном построении сводок просмотров.
+ *
+ * <p>Запись {@link #BACKFILL} удаляется в начале полного построения сводок и сохраняется в одной транзакции
+ * с итоговыми сводками. Если ее нет, сводки построены не до конца (или не строились) и при старте строятся заново.</p>
+ *
+ * @see com.movie.catalog.analytics.ViewingRollupService
+ */
+
+@Entity
+@Table(name = "viewing_rollup_markers")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewingRollupMarker {
+
+    public static final String BACKFILL = "backfill";
+
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+}
\ No newline at end of file
@@ -7,6 +7,9 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDate;
 
@@ -17,17 +20,27 @@ import java.time.LocalDate;
  * <ul>
  *   <li>Основные атрибуты фильма: статус, дата добавления, дата завершения просмотра, ID фильма</li>
  *   <li>Связь с фильмами</li>
+ *   <li>ID пользователя, которому принадлежит запись</li>
  * </ul>
  * </p>
  *
  * <p>Позволяет пользователю отслеживать прогресс просмотра фильмов и собирать статистику по просмотрам.</p>
  * <p>Аннотации валидации обеспечивают проверку данных при создании и обновлении статуса просмотра фильма. Сущность связана с {@link Movie} через отношение многие к одному.</p>
  *
+ * <p>В PostgreSQL таблица {@code watch_history} секционирована по {@code user_id} (скрипты в {@code db/}), и ее первичный ключ
+ * составной {@code (id, user_id)}, так как ключ секционирования обязан в него входить. Сущность использует
+ * только {@code id}: он выдается столбцом IDENTITY и уникален сам по себе.</p>
+ *
  * @see Movie
  */
 
 @Entity
-@Table(name = "watch_history")
+@Table(name = "watch_history", indexes = {
+        @Index(name = "idx_watch_history_movie_id", columnList = "movie_id"),
+        @Index(name = "idx_watch_history_user_movie_id", columnList = "user_id, movie_id"),
+        @Index(name = "idx_watch_history_user_added_date_id", columnList = "user_id, added_date, id"),
+        @Index(name = "idx_watch_history_user_status_id", columnList = "user_id, status, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -49,8 +62,14 @@ public class WatchHistory {
     @Column(name = "completed_date")
     private LocalDate completedDate;
 
+    // значение по умолчанию относит строки, созданные до разделения по пользователям, к пользователю 1
+    @Column(name = "user_id", nullable = false)
+    @ColumnDefault("1")
+    private Long userId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "movie_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Movie movie;
 
     public WatchHistory(String status,
@@ -68,6 +87,7 @@ public class WatchHistory {
                 ", status='" + status + '\'' +
                 ", addedDate=" + addedDate +
                 ", completedDate=" + completedDate +
+                ", userId=" + userId +
                 ", movieId=" + (movie != null ? movie.getId() : null) +
                 '}';
     }
@@ -0,0 +1,43 @@
+package com.movie.catalog.event;
+
+import java.util.*;
+
+/**
+ * Событие об изменении данных каталога.
+ *
+ * <p>Публикуется сервисами внутри транзакции после каждой записи. Слушатели, которым важен
+ * только результат, подписываются через {@code @TransactionalEventListener} и получают событие после коммита.</p>
+ *
+ * @param entityType тип измененной сущности
+ * @param changeType вид изменения
+ * @param ids        ID измененных записей (для пакетных операций - все затронутые записи)
+ *
+ * @see com.movie.catalog.service.CatalogDataVersion
+ */
+
+public record CatalogChangedEvent(EntityType entityType,
+                                  ChangeType changeType,
+                                  Collection<Long> ids) {
+
+    public enum EntityType {
+        MOVIE,
+        REVIEW,
+        WATCH_HISTORY
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        // строки перенесены из БД в архив (com.movie.catalog.archive.ArchiveStore) и больше не видны в списках
+        ARCHIVED
+    }
+
+    public CatalogChangedEvent {
+        ids = ids != null ? List.copyOf(ids) : List.of();
+    }
+
+    public static CatalogChangedEvent of(EntityType entityType, ChangeType changeType, Long id) {
+        return new CatalogChangedEvent(entityType, changeType, id != null ? List.of(id) : List.of());
+    }
+}
\ No newline at end of file
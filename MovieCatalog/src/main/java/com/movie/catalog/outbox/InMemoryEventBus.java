@@ -0,0 +1,52 @@
+package com.movie.catalog.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Получатель журнала изменений, раздающий события подписчикам внутри процесса.
+ *
+ * <p>Подходит для потребителей, живущих в самом приложении (построение индексов, рекомендаций).
+ * Ошибка подписчика записывается в лог и не мешает остальным подписчикам и доставке.</p>
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "catalog.outbox.memory-bus", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InMemoryEventBus implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryEventBus.class);
+
+    private final List<Consumer<OutboxMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String name() {
+        return "memory-bus";
+    }
+
+    public void subscribe(Consumer<OutboxMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void unsubscribe(Consumer<OutboxMessage> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            for (Consumer<OutboxMessage> subscriber : subscribers) {
+                try {
+                    subscriber.accept(message);
+                } catch (RuntimeException e) {
+                    log.warn("Подписчик не обработал событие {}: {}", message.offset(), e.getMessage());
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.movie.catalog.outbox;
+
+import com.movie.catalog.config.OutboxProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Локальная замена брокера сообщений для журнала изменений.
+ *
+ * <p>Хранит последние {@code catalog.outbox.broker.capacity} событий как топик: потребители сами
+ * запрашивают события после своего смещения через {@link #poll(long, int)}, как при работе с Kafka.
+ * Позволяет разрабатывать потребителей без внешнего брокера.</p>
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "catalog.outbox.broker", name = "enabled", havingValue = "true")
+public class LocalBrokerSink implements OutboxSink {
+
+    private final int capacity;
+    private final Deque<OutboxMessage> topic = new ArrayDeque<>();
+
+    @Autowired // автоматическое внедрение зависимостей
+    public LocalBrokerSink(OutboxProperties properties) {
+        this.capacity = Math.max(1, properties.getBroker().getCapacity());
+    }
+
+    @Override
+    public String name() {
+        return "local-broker";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            // при повторной доставке события, которые уже есть в топике, пропускаются
+            if (!topic.isEmpty() && message.offset() <= topic.peekLast().offset()) {
+                continue;
+            }
+            if (topic.size() >= capacity) {
+                topic.pollFirst();
+            }
+            topic.addLast(message);
+        }
+    }
+
+    /**
+     * События со смещением больше {@code afterOffset}, не более {@code maxMessages}.
+     */
+    public synchronized List<OutboxMessage> poll(long afterOffset, int maxMessages) {
+        List<OutboxMessage> messages = new ArrayList<>();
+        for (OutboxMessage message : topic) {
+            if (messages.size() >= maxMessages) {
+                break;
+            }
+            if (message.offset() > afterOffset) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+}
\ No newline at end of file
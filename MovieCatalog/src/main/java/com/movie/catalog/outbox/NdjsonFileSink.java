@@ -0,0 +1,78 @@
+package com.movie.catalog.outbox;
+
+import com.movie.catalog.config.OutboxProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Получатель журнала изменений, дописывающий события в файл NDJSON (одно событие JSON на строку).
+ *
+ * <p>Пачка записывается одним вызовом и сбрасывается на диск до сохранения смещения.
+ * После сбоя последние строки файла могут повториться - читатель отбрасывает их по полю {@code offset}.</p>
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "catalog.outbox.ndjson", name = "enabled", havingValue = "true")
+public class NdjsonFileSink implements OutboxSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private FileChannel channel;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public NdjsonFileSink(OutboxProperties properties,
+                          ObjectMapper objectMapper) {
+        this.path = properties.getNdjson().getPath();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return "ndjson-log";
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxMessage message : batch) {
+            lines.append(objectMapper.writeValueAsString(message)).append('\n');
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        FileChannel target = channel();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        target.force(false);
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.movie.catalog.outbox;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Событие журнала изменений в том виде, в котором оно передается получателям.
+ *
+ * @param offset     смещение события (ID записи журнала), строго возрастает
+ * @param entity     тип измененной сущности: {@code MOVIE}, {@code REVIEW}, {@code WATCH_HISTORY}
+ * @param change     вид изменения: {@code CREATED}, {@code UPDATED}, {@code DELETED}
+ * @param ids        ID измененных записей
+ * @param occurredAt время записи события
+ */
+
+public record OutboxMessage(long offset,
+                            String entity,
+                            String change,
+                            List<Long> ids,
+                            Instant occurredAt) {
+}
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.movie.catalog.outbox;
+
+import com.movie.catalog.config.OutboxProperties;
+import com.movie.catalog.entity.OutboxEvent;
+import com.movie.catalog.entity.OutboxOffset;
+import com.movie.catalog.repository.OutboxEventRepository;
+import com.movie.catalog.repository.OutboxOffsetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Доставка событий журнала изменений получателям.
+ *
+ * <p>По расписанию читает журнал пачками после сохраненного смещения каждого получателя
+ * ({@link OutboxSink}), передает пачку и сдвигает смещение. Получатели независимы:
+ * ошибка одного не останавливает доставку остальным, он продолжит со своего смещения.</p>
+ *
+ * <p>ID событий выдаются при вставке, поэтому транзакция, вставившая событие раньше, может зафиксироваться позже
+ * соседней, и в журнале временно виден пропуск ID. Получатель продвигается только по непрерывной последовательности ID:
+ * на пропуске доставка останавливается до тех пор, пока событие не появится, или пока пропуск не просуществует
+ * {@code catalog.outbox.gap-timeout} - тогда транзакция считается откаченной и пропуск пропускается.
+ * {@link OutboxWriter} вставляет событие непосредственно перед коммитом, так что обычно пропуск закрывается
+ * к следующему опросу.</p>
+ *
+ * <p>{@link #replay(String, long)} переводит смещение получателя назад, и события доставляются повторно,
+ * пока они не удалены из журнала по сроку хранения.</p>
+ *
+ * @see OutboxWriter
+ * @see OutboxProperties
+ */
+
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxOffsetRepository outboxOffsetRepository;
+    private final OutboxProperties properties;
+    private final Map<String, OutboxSink> sinks = new LinkedHashMap<>();
+    private final Map<String, Gap> gaps = new HashMap<>();
+
+    @Autowired // автоматическое внедрение зависимостей
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxOffsetRepository outboxOffsetRepository,
+                       OutboxProperties properties,
+                       ObjectProvider<OutboxSink> sinks) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.properties = properties;
+        sinks.orderedStream().forEach(sink -> this.sinks.put(sink.name(), sink));
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.outbox.relay-interval:1s}")
+    public synchronized void relay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        sinks.values().forEach(this::relayTo);
+    }
+
+    public synchronized Map<String, Long> getOffsets() {
+        Map<String, Long> offsets = new LinkedHashMap<>();
+        sinks.keySet().forEach(name -> offsets.put(name, offsetOf(name)));
+        return offsets;
+    }
+
+    /**
+     * Повторная доставка получателю всех событий начиная со смещения {@code fromOffset} включительно.
+     */
+    public synchronized void replay(String sinkName, long fromOffset) {
+        if (!sinks.containsKey(sinkName)) {
+            throw new RuntimeException("Получатель событий не найден: " + sinkName);
+        }
+
+        saveOffset(sinkName, Math.max(0, fromOffset - 1));
+        gaps.remove(sinkName);
+        log.info("Повторная доставка событий получателю {} начиная со смещения {}", sinkName, fromOffset);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.outbox.cleanup-interval:1h}")
+    @Transactional
+    public void purgeRelayed() {
+        if (!properties.isEnabled() || sinks.isEmpty()) {
+            return;
+        }
+
+        long relayedByAll = getOffsets().values().stream().mapToLong(Long::longValue).min().orElse(0);
+        int deleted = outboxEventRepository.deleteRelayed(relayedByAll, Instant.now().minus(properties.getRetention()));
+
+        if (deleted > 0) {
+            log.debug("Удалено {} событий журнала изменений", deleted);
+        }
+    }
+
+    private void relayTo(OutboxSink sink) {
+        long offset = offsetOf(sink.name());
+
+        while (true) {
+            List<OutboxEvent> events = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(
+                    offset, Limit.of(properties.getBatchSize()));
+            List<OutboxEvent> ready = contiguous(sink.name(), offset, events);
+
+            if (ready.isEmpty()) {
+                return;
+            }
+
+            List<OutboxMessage> batch = ready.stream().map(this::toMessage).toList();
+
+            try {
+                sink.publish(batch);
+            } catch (Exception e) {
+                log.warn("Получатель {} не принял события после смещения {}, повтор при следующем опросе: {}",
+                        sink.name(), offset, e.getMessage());
+                return;
+            }
+
+            offset = batch.get(batch.size() - 1).offset();
+            saveOffset(sink.name(), offset);
+
+            if (ready.size() < events.size() || events.size() < properties.getBatchSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Начало пачки без пропусков ID после смещения. Пропуск, не закрывшийся за {@code gap-timeout},
+     * пропускается с предупреждением.
+     */
+    private List<OutboxEvent> contiguous(String sinkName, long offset, List<OutboxEvent> events) {
+        List<OutboxEvent> ready = new ArrayList<>();
+        long expected = offset + 1;
+
+        for (OutboxEvent event : events) {
+            if (event.getId() != expected && !gapExpired(sinkName, expected, event.getId())) {
+                break;
+            }
+
+            ready.add(event);
+            expected = event.getId() + 1;
+        }
+
+        return ready;
+    }
+
+    private boolean gapExpired(String sinkName, long missingFrom, long nextId) {
+        Instant now = Instant.now();
+        Gap gap = gaps.get(sinkName);
+
+        if (gap == null || gap.missingFrom() != missingFrom) {
+            gaps.put(sinkName, new Gap(missingFrom, now));
+            return false;
+        }
+        if (Duration.between(gap.openedAt(), now).compareTo(properties.getGapTimeout()) < 0) {
+            return false;
+        }
+
+        gaps.remove(sinkName);
+        log.warn("События {}..{} не появились в журнале за {}, получатель {} продолжает без них",
+                missingFrom, nextId - 1, properties.getGapTimeout(), sinkName);
+        return true;
+    }
+
+    private long offsetOf(String sinkName) {
+        return outboxOffsetRepository.findById(sinkName).map(OutboxOffset::getLastEventId).orElse(0L);
+    }
+
+    private void saveOffset(String sinkName, long offset) {
+        outboxOffsetRepository.save(new OutboxOffset(sinkName, offset, Instant.now()));
+    }
+
+    private OutboxMessage toMessage(OutboxEvent event) {
+        List<Long> ids = event.getEntityIds().isEmpty()
+                ? List.of()
+                : Arrays.stream(event.getEntityIds().split(",")).map(Long::valueOf).toList();
+
+        return new OutboxMessage(event.getId(), event.getEntityType(), event.getChangeType(), ids, event.getOccurredAt());
+    }
+
+    /**
+     * Пропуск ID, на котором остановлена доставка получателю.
+     *
+     * @param missingFrom первый отсутствующий ID
+     * @param openedAt    когда пропуск замечен впервые
+     */
+    private record Gap(long missingFrom,
+                       Instant openedAt) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.movie.catalog.outbox;
+
+import java.util.List;
+
+/**
+ * Получатель событий журнала изменений.
+ *
+ * <p>Доставка выполняется не менее одного раза: если {@link #publish(List)} завершился ошибкой или приложение
+ * остановилось до сохранения смещения, та же пачка будет передана повторно. Получатель должен быть
+ * готов к повторам, ориентируясь на {@link OutboxMessage#offset()}.</p>
+ *
+ * @see OutboxRelay
+ */
+
+public interface OutboxSink {
+
+    /**
+     * Уникальное имя получателя, под которым хранится его смещение.
+     */
+    String name();
+
+    /**
+     * Передает пачку событий, упорядоченную по смещению.
+     */
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.movie.catalog.outbox;
+
+import com.movie.catalog.config.OutboxProperties;
+import com.movie.catalog.entity.OutboxEvent;
+import com.movie.catalog.event.CatalogChangedEvent;
+import com.movie.catalog.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.stream.Collectors;
+
+/**
+ * Запись изменений каталога в журнал {@link OutboxEvent}.
+ *
+ * <p>Слушатель вызывается перед коммитом транзакции, опубликовавшей событие, и пишет в той же транзакции:
+ * запись журнала фиксируется или откатывается вместе с изменением. ID события выдается перед самым коммитом,
+ * поэтому пропуски ID, которые видит {@link OutboxRelay}, живут недолго. Событие, опубликованное вне транзакции,
+ * записывается сразу.</p>
+ *
+ * @see OutboxRelay
+ */
+
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxProperties properties;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public OutboxWriter(OutboxEventRepository outboxEventRepository,
+                        OutboxProperties properties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.properties = properties;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        String ids = event.ids().stream().map(String::valueOf).collect(Collectors.joining(","));
+        outboxEventRepository.save(new OutboxEvent(event.entityType().name(), event.changeType().name(), ids, Instant.now()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.movie.catalog.poster;
+
+import lombok.Getter;
+
+/**
+ * Размеры постера: исходный файл и уменьшенные копии для страниц каталога.
+ *
+ * <p>Уменьшенная копия сохраняет пропорции исходного изображения и имеет ширину {@link #getWidth()}.
+ * Изображение, которое уже не шире нужного размера, не увеличивается.</p>
+ *
+ * @see PosterThumbnailer
+ */
+
+@Getter
+public enum PosterSize {
+    ORIGINAL(0),
+    THUMBNAIL(120),
+    CARD(240),
+    DETAIL(480);
+
+    private final int width;
+
+    PosterSize(int width) {
+        this.width = width;
+    }
+
+    public boolean isThumbnail() {
+        return this != ORIGINAL;
+    }
+
+    /**
+     * Размер по значению параметра запроса ({@code card}, {@code detail}...); неизвестное значение - исходный файл.
+     */
+    public static PosterSize fromParam(String value) {
+        for (PosterSize size : values()) {
+            if (size.name().equalsIgnoreCase(value)) {
+                return size;
+            }
+        }
+        return ORIGINAL;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.movie.catalog.poster;
+
+import com.movie.catalog.config.PosterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Локальное хранилище постеров с адресацией по содержимому.
+ *
+ * <p>Ключ постера - SHA-256 содержимого файла и расширение формата, например {@code 3f9a...c1.jpg}.
+ * Файл хранится в {@code <root>/<первые два символа ключа>/<ключ>}, уменьшенные копии - рядом с ним
+ * с суффиксом размера ({@code 3f9a...c1-card.jpg}). Одинаковые постеры хранятся один раз,
+ * а файл по ключу никогда не меняется, поэтому его можно кэшировать в браузере без ограничения срока.</p>
+ *
+ * <p>Загружаемый поток копируется во временный файл с подсчетом хэша на лету и затем переносится
+ * на свое место: изображение целиком в памяти не держится. Формат определяется по сигнатуре файла,
+ * а не по типу, заявленному браузером.</p>
+ *
+ * @see PosterThumbnailer
+ * @see PosterProperties
+ */
+
+@Component
+public class PosterStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PosterStore.class);
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}\\.(jpg|png)");
+
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final PosterProperties properties;
+
+    @Autowired // автоматическое внедрение зависимости
+    public PosterStore(PosterProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Сохраняет постер из потока и возвращает его ключ.
+     *
+     * @throws RuntimeException если файл не является изображением JPEG или PNG
+     */
+    public String store(InputStream content) {
+        Path root = properties.getRoot().toAbsolutePath();
+        Path temp = null;
+
+        try {
+            Files.createDirectories(root);
+            temp = Files.createTempFile(root, "upload", ".tmp");
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            String extension = detectExtension(temp)
+                    .orElseThrow(() -> new RuntimeException("Постер должен быть изображением JPEG или PNG"));
+            String key = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            Path target = file(key, PosterSize.ORIGINAL);
+
+            if (Files.exists(target)) {
+                log.debug("Постер {} уже есть в хранилище", key);
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Сохранен постер {} ({} байт)", key, Files.size(target));
+            }
+            return key;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить постер", e);
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Существующий файл постера нужного размера.
+     * Для некорректного ключа возвращается пустой результат, поэтому ключ из запроса не выходит за пределы хранилища.
+     */
+    public Optional<Path> find(String key, PosterSize size) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            return Optional.empty();
+        }
+
+        Path path = file(key, size);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Путь файла постера нужного размера, независимо от того, существует ли файл.
+     */
+    Path file(String key, PosterSize size) {
+        String name = size.isThumbnail()
+                ? key.replace(".", "-" + size.name().toLowerCase() + ".")
+                : key;
+        return properties.getRoot().toAbsolutePath().resolve(key.substring(0, 2)).resolve(name);
+    }
+
+    public static boolean isPng(String key) {
+        return key.endsWith(".png");
+    }
+
+    private static Optional<String> detectExtension(Path file) throws IOException {
+        byte[] header = new byte[PNG_SIGNATURE.length];
+        int read;
+
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+
+        if (startsWith(header, read, JPEG_SIGNATURE)) {
+            return Optional.of("jpg");
+        }
+        if (startsWith(header, read, PNG_SIGNATURE)) {
+            return Optional.of("png");
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] header, int length, byte[] signature) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (header[i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временный файл {}", path, e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.movie.catalog.poster;
+
+import com.movie.catalog.config.PosterProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Фоновое создание уменьшенных копий постеров.
+ *
+ * <p>Копии всех размеров {@link PosterSize} создаются небольшим пулом потоков с ограниченной очередью,
+ * поэтому загрузка постера не ждет обработки изображения, а поток загрузок не может занять всю память.
+ * Задание, не поместившееся в очередь, отбрасывается: пока копии нет, страницы получают исходный файл,
+ * а запрос копии снова ставит постер в очередь.</p>
+ *
+ * <p>Исходное изображение декодируется с прореживанием пикселей ({@link ImageReadParam#setSourceSubsampling}),
+ * так что в памяти оказывается растр не больше двойного размера копии, а не весь постер.
+ * Готовая копия записывается во временный файл и переносится на свое место, поэтому
+ * наполовину записанный файл никогда не отдается.</p>
+ *
+ * @see PosterStore
+ * @see PosterProperties
+ */
+
+@Component
+public class PosterThumbnailer {
+
+    private static final Logger log = LoggerFactory.getLogger(PosterThumbnailer.class);
+
+    private final PosterStore store;
+    private final ThreadPoolExecutor executor;
+
+    // постеры, копии которых уже в очереди или создаются
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired // автоматическое внедрение зависимостей
+    public PosterThumbnailer(PosterStore store,
+                             PosterProperties properties) {
+        this.store = store;
+
+        int threads = Math.max(1, properties.getThumbnailThreads());
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getThumbnailQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "poster-thumbnails-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Ставит в очередь создание недостающих копий постера. Повторный вызов, пока постер в очереди, ничего не делает.
+     */
+    public void generate(String key) {
+        if (!pending.add(key)) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    createThumbnails(key);
+                } finally {
+                    pending.remove(key);
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            log.warn("Очередь уменьшения постеров заполнена, постер {} будет обработан при следующем запросе", key);
+        }
+    }
+
+    private void createThumbnails(String key) {
+        Path source = store.find(key, PosterSize.ORIGINAL).orElse(null);
+
+        if (source == null) {
+            return;
+        }
+
+        for (PosterSize size : PosterSize.values()) {
+            if (!size.isThumbnail() || store.find(key, size).isPresent()) {
+                continue;
+            }
+
+            try {
+                long startTime = System.currentTimeMillis();
+                resize(source, store.file(key, size), size.getWidth(), PosterStore.isPng(key));
+                log.debug("Создана копия постера {} размера {} за {} мс", key, size, System.currentTimeMillis() - startTime);
+
+            } catch (IOException | RuntimeException e) {
+                log.warn("Не удалось создать копию постера {} размера {}", key, size, e);
+                return;
+            }
+        }
+    }
+
+    private static void resize(Path source, Path target, int width, boolean png) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Формат изображения не поддерживается: " + source);
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                int targetWidth = Math.min(width, sourceWidth);
+                int targetHeight = Math.max(1, (int) Math.round((double) sourceHeight * targetWidth / sourceWidth));
+
+                // декодируется каждый n-й пиксель - ровно столько, сколько нужно для качественного уменьшения
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, sourceWidth / (targetWidth * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                BufferedImage scaled = new BufferedImage(targetWidth, targetHeight,
+                        png ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+                Graphics2D graphics = scaled.createGraphics();
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(decoded, 0, 0, targetWidth, targetHeight, null);
+                graphics.dispose();
+
+                Path temp = Files.createTempFile(target.getParent(), "thumbnail", ".tmp");
+                try {
+                    if (!ImageIO.write(scaled, png ? "png" : "jpg", temp.toFile())) {
+                        throw new IOException("Нет записи изображений в формате " + (png ? "png" : "jpg"));
+                    }
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.movie.catalog.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: построение главной страницы каталога.
+ *
+ * <p>Длительность события - работа {@link com.movie.catalog.controller.HomeController#home} до отрисовки шаблона;
+ * вызовы репозиториев и отрисовка записываются отдельными событиями в том же потоке.</p>
+ *
+ * @see ProfilingRecorder
+ */
+
+@Name("com.movie.catalog.HomePage")
+@Label("Home Page")
+@Category({"Movie Catalog", "Web"})
+@Description("Построение главной страницы: фильтр и число фильмов")
+@StackTrace(false)
+public class HomePageEvent extends Event {
+
+    @Label("Query")
+    public String query;
+
+    @Label("Genre")
+    public String genre;
+
+    @Label("User")
+    public long userId;
+
+    @Label("Movies")
+    public int movies;
+}
\ No newline at end of file
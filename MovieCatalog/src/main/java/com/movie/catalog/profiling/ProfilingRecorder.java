@@ -0,0 +1,135 @@
+package com.movie.catalog.profiling;
+
+import com.movie.catalog.config.ProfilingProperties;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Запись профиля JDK Flight Recorder по запросу, без подключения внешних инструментов.
+ *
+ * <p>Одновременно идет не больше одной записи. Длительность ограничена {@code catalog.profiling.max-duration},
+ * объем - {@code catalog.profiling.max-size}; по истечении длительности запись останавливается сама
+ * и выгружается в файл. В запись входят события каталога ({@link HomePageEvent}, {@link SearchEvent},
+ * {@link RepositoryCallEvent}, {@link TemplateRenderEvent}) и события JVM по выбранному набору настроек.</p>
+ *
+ * <p>События с переменными окружения, системными свойствами и аргументами запуска JVM отключены:
+ * в них могут быть пароли к БД.</p>
+ *
+ * @see ProfilingProperties
+ * @see com.movie.catalog.controller.ProfilingController
+ */
+
+@Component
+public class ProfilingRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilingRecorder.class);
+
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty",
+            "jdk.JVMInformation");
+
+    private final ProfilingProperties properties;
+
+    private Recording recording;
+    private Path file;
+
+    @Autowired // автоматическое внедрение зависимости
+    public ProfilingRecorder(ProfilingProperties properties) {
+        this.properties = properties;
+    }
+
+    public synchronized ProfilingStatus start(Duration duration) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new RuntimeException("Запись профиля уже идет");
+        }
+
+        Duration requested = duration != null ? duration : properties.getDefaultDuration();
+        if (requested.isZero() || requested.isNegative()) {
+            throw new RuntimeException("Длительность записи профиля должна быть положительной");
+        }
+        Duration bounded = requested.compareTo(properties.getMaxDuration()) > 0 ? properties.getMaxDuration() : requested;
+
+        discard();
+
+        try {
+            Path directory = properties.getDirectory().toAbsolutePath();
+            Files.createDirectories(directory);
+            file = directory.resolve("catalog-" + System.currentTimeMillis() + ".jfr");
+
+            recording = new Recording(Configuration.getConfiguration(properties.getSettings()));
+            recording.setName("movie-catalog");
+            SENSITIVE_EVENTS.forEach(recording::disable);
+            recording.setToDisk(true);
+            recording.setMaxSize(properties.getMaxSize().toBytes());
+            recording.setDuration(bounded);
+            recording.setDestination(file);
+            recording.start();
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось начать запись профиля", e);
+        } catch (ParseException e) {
+            throw new RuntimeException("Некорректный набор настроек JFR: " + properties.getSettings(), e);
+        }
+
+        log.info("Начата запись профиля JFR на {} в {}", bounded, file);
+        return status();
+    }
+
+    /**
+     * Останавливает запись, если она еще идет, и возвращает файл записи.
+     */
+    public synchronized Path stop() {
+        if (recording == null) {
+            throw new RuntimeException("Запись профиля не запущена");
+        }
+
+        // запись, остановленная по длительности, уже выгружена в файл
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        recording.close();
+        recording = null;
+
+        log.info("Запись профиля JFR выгружена в {}", file);
+        return file;
+    }
+
+    public synchronized ProfilingStatus status() {
+        if (recording == null) {
+            return new ProfilingStatus("NONE", null, null, null);
+        }
+        return new ProfilingStatus(recording.getState().name(), recording.getStartTime(), recording.getDuration(), file.toString());
+    }
+
+    @PreDestroy
+    synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Не удалось удалить файл записи профиля {}", file, e);
+            }
+            file = null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.movie.catalog.profiling;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Состояние записи профиля JFR.
+ *
+ * @param state     состояние записи JFR ({@code RUNNING}, {@code STOPPED}) или {@code NONE}, если записи нет
+ * @param startedAt время запуска записи
+ * @param duration  длительность, после которой запись остановится сама
+ * @param file      файл, в который запись будет выгружена
+ */
+
+public record ProfilingStatus(String state,
+                              Instant startedAt,
+                              Duration duration,
+                              String file) {
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.movie.catalog.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: вызов метода репозитория Spring Data.
+ *
+ * <p>{@code rows} - число строк результата: размер списка или страницы, 0 или 1 для одной записи,
+ * число измененных строк для запросов {@code @Modifying}; -1, если результат не набор строк
+ * (число, поток) или вызов завершился исключением.</p>
+ *
+ * @see RepositoryEventsPostProcessor
+ */
+
+@Name("com.movie.catalog.RepositoryCall")
+@Label("Repository Call")
+@Category({"Movie Catalog", "Data"})
+@Description("Вызов метода репозитория и число строк результата")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    public String repository;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Rows")
+    public int rows;
+}
\ No newline at end of file
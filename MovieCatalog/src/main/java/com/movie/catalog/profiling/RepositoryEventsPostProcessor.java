@@ -0,0 +1,88 @@
+package com.movie.catalog.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+/**
+ * Запись событий {@link RepositoryCallEvent} для каждого вызова репозиториев Spring Data.
+ *
+ * <p>Перехватчик добавляется в прокси каждого репозитория при его создании. Пока не идет запись JFR,
+ * событие выключено и вызов проходит без замеров.</p>
+ *
+ * @see ProfilingRecorder
+ */
+
+@Component
+public class RepositoryEventsPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, information) ->
+                    proxyFactory.addAdvice(new EventInterceptor(information.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    private record EventInterceptor(String repository) implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RepositoryCallEvent event = new RepositoryCallEvent();
+            if (!event.isEnabled()) {
+                return invocation.proceed();
+            }
+
+            event.begin();
+            int rows = -1;
+            try {
+                Object result = invocation.proceed();
+                rows = rows(invocation.getMethod(), result);
+                return result;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.repository = repository;
+                    event.method = invocation.getMethod().getName();
+                    event.rows = rows;
+                    event.commit();
+                }
+            }
+        }
+
+        private static int rows(Method method, Object result) {
+            if (result instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (result instanceof Slice<?> slice) {
+                return slice.getNumberOfElements();
+            }
+            if (result instanceof Optional<?> optional) {
+                return optional.isPresent() ? 1 : 0;
+            }
+            if (result instanceof Number number && method.isAnnotationPresent(Modifying.class)) {
+                return number.intValue();
+            }
+            if (result == null) {
+                return method.getReturnType() == void.class ? -1 : 0;
+            }
+            // потоки и реактивные результаты читаются после возврата из метода
+            if (result instanceof Number || result instanceof Boolean || result instanceof Iterable<?>
+                    || result instanceof BaseStream<?, ?> || result instanceof Publisher<?>) {
+                return -1;
+            }
+            return 1;
+        }
+    }
+}
\ No newline at end of file
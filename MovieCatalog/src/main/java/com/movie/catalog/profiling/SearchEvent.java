@@ -0,0 +1,27 @@
+package com.movie.catalog.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: поиск фильмов по названию или жанру.
+ *
+ * @see com.movie.catalog.service.MovieService#searchByTitle(String)
+ * @see com.movie.catalog.service.MovieService#searchByGenre(String)
+ */
+
+@Name("com.movie.catalog.Search")
+@Label("Movie Search")
+@Category({"Movie Catalog", "Service"})
+@Description("Поиск фильмов: вид поиска, строка поиска и число найденных фильмов")
+@StackTrace(false)
+public class SearchEvent extends Event {
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Term")
+    public String term;
+
+    @Label("Results")
+    public int results;
+}
\ No newline at end of file
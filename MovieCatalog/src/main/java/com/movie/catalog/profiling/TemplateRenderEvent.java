@@ -0,0 +1,26 @@
+package com.movie.catalog.profiling;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: отрисовка шаблона страницы после работы контроллера.
+ *
+ * @see TemplateRenderInterceptor
+ */
+
+@Name("com.movie.catalog.TemplateRender")
+@Label("Template Render")
+@Category({"Movie Catalog", "Web"})
+@Description("Отрисовка шаблона Thymeleaf и запись ответа")
+@StackTrace(false)
+public class TemplateRenderEvent extends Event {
+
+    @Label("View")
+    public String view;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+}
\ No newline at end of file
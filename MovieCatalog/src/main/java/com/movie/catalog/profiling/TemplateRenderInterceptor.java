@@ -0,0 +1,52 @@
+package com.movie.catalog.profiling;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Запись событий {@link TemplateRenderEvent}: время от конца работы контроллера до окончания отрисовки шаблона.
+ *
+ * <p>Событие начинается в {@link #postHandle}, до отрисовки представления, и завершается в {@link #afterCompletion}.
+ * Ответы без шаблона (перенаправления, JSON) не записываются.</p>
+ *
+ * @see com.movie.catalog.config.ProfilingWebConfig
+ */
+
+public class TemplateRenderInterceptor implements HandlerInterceptor {
+
+    private static final String EVENT_ATTRIBUTE = TemplateRenderInterceptor.class.getName() + ".event";
+
+    @Override
+    public void postHandle(HttpServletRequest request,
+                           HttpServletResponse response,
+                           Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null || modelAndView.getViewName().startsWith("redirect:")) {
+            return;
+        }
+
+        TemplateRenderEvent event = new TemplateRenderEvent();
+        if (event.isEnabled()) {
+            event.view = modelAndView.getViewName();
+            event.begin();
+            request.setAttribute(EVENT_ATTRIBUTE, event);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+        if (request.getAttribute(EVENT_ATTRIBUTE) instanceof TemplateRenderEvent event) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = request.getRequestURI();
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.movie.catalog.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Строка таблицы фильмов для репозитория R2DBC.
+ *
+ * <p>Репозиторий читает только проекции ({@link com.movie.catalog.dto.MovieCard}), поэтому здесь
+ * описан лишь ключ таблицы. Изменяются фильмы через {@link com.movie.catalog.entity.Movie}.</p>
+ *
+ * @see ReactiveMovieRepository
+ */
+
+@Table("movies")
+public record MovieRecord(@Id Long id) {
+}
\ No newline at end of file
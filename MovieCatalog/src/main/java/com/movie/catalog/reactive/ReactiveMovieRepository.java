@@ -0,0 +1,37 @@
+package com.movie.catalog.reactive;
+
+import com.movie.catalog.dto.MovieCard;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Неблокирующее чтение карточек фильмов через R2DBC.
+ *
+ * <p>Повторяет методы чтения {@link com.movie.catalog.repository.MovieRepository}: строки приходят
+ * по мере запроса подписчиком, а не списком целиком. Имена колонок совпадают с полями
+ * {@link MovieCard} в snake_case.</p>
+ *
+ * <p>Основные методы:
+ * <ul>
+ *   <li>{@link #findAllCards()} - карточки всех фильмов</li>
+ *   <li>{@link #findCardsByTitle(String)} - поиск карточек по названию</li>
+ *   <li>{@link #findCardsByGenre(String)} - поиск карточек по жанру</li>
+ * </ul>
+ * </p>
+ *
+ * @see com.movie.catalog.config.ReactiveDataConfig
+ */
+
+public interface ReactiveMovieRepository extends R2dbcRepository<MovieRecord, Long> {
+    @Query("SELECT id, title, release_year, rating, duration_minutes, genre, description, poster_key FROM movies ORDER BY id")
+    Flux<MovieCard> findAllCards();
+
+    @Query("SELECT id, title, release_year, rating, duration_minutes, genre, description, poster_key FROM movies " +
+            "WHERE LOWER(title) LIKE LOWER(CONCAT('%', :title, '%')) ORDER BY id")
+    Flux<MovieCard> findCardsByTitle(String title);
+
+    @Query("SELECT id, title, release_year, rating, duration_minutes, genre, description, poster_key FROM movies " +
+            "WHERE LOWER(genre) LIKE LOWER(CONCAT('%', :genre, '%')) ORDER BY id")
+    Flux<MovieCard> findCardsByGenre(String genre);
+}
\ No newline at end of file
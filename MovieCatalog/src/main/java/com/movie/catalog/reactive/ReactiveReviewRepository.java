@@ -0,0 +1,32 @@
+package com.movie.catalog.reactive;
+
+import com.movie.catalog.dto.ReviewRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Неблокирующее чтение рецензий через R2DBC.
+ *
+ * <p>Повторяет методы чтения {@link com.movie.catalog.repository.ReviewRepository}: строки с названием фильма
+ * приходят по мере запроса подписчиком. Как и в JPA-репозитории, методы принимают ID пользователя.</p>
+ *
+ * <p>Основные методы:
+ * <ul>
+ *   <li>{@link #findRowsByUserId(Long)} - все рецензии пользователя по дате просмотра, от новых к старым</li>
+ *   <li>{@link #findRowsByMovieId(Long, Long)} - рецензии пользователя на фильм</li>
+ * </ul>
+ * </p>
+ *
+ * @see com.movie.catalog.config.ReactiveDataConfig
+ */
+
+public interface ReactiveReviewRepository extends R2dbcRepository<ReviewRecord, Long> {
+    @Query("SELECT r.id, m.id AS movie_id, m.title AS movie_title, r.rating, r.comment, r.watch_date " +
+            "FROM reviews r JOIN movies m ON m.id = r.movie_id WHERE r.user_id = :userId ORDER BY r.watch_date DESC, r.id DESC")
+    Flux<ReviewRow> findRowsByUserId(Long userId);
+
+    @Query("SELECT r.id, m.id AS movie_id, m.title AS movie_title, r.rating, r.comment, r.watch_date " +
+            "FROM reviews r JOIN movies m ON m.id = r.movie_id WHERE r.user_id = :userId AND m.id = :movieId ORDER BY r.id")
+    Flux<ReviewRow> findRowsByMovieId(Long userId, Long movieId);
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.movie.catalog.reactive;
+
+import com.movie.catalog.dto.WatchRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Неблокирующее чтение истории просмотра через R2DBC.
+ *
+ * <p>Повторяет методы чтения {@link com.movie.catalog.repository.WatchHistoryRepository}: строки с названием фильма
+ * приходят по мере запроса подписчиком. Статус возвращается в том виде, в котором хранится в БД.</p>
+ *
+ * <p>Основные методы:
+ * <ul>
+ *   <li>{@link #findRowsByUserId(Long)} - вся история пользователя по дате добавления, от новых к старым</li>
+ *   <li>{@link #findRowsByMovieId(Long, Long)} - записи пользователя о фильме</li>
+ * </ul>
+ * </p>
+ *
+ * @see com.movie.catalog.config.ReactiveDataConfig
+ */
+
+public interface ReactiveWatchHistoryRepository extends R2dbcRepository<WatchRecord, Long> {
+    @Query("SELECT wh.id, m.id AS movie_id, m.title AS movie_title, wh.status, wh.added_date, wh.completed_date " +
+            "FROM watch_history wh JOIN movies m ON m.id = wh.movie_id WHERE wh.user_id = :userId ORDER BY wh.added_date DESC, wh.id DESC")
+    Flux<WatchRow> findRowsByUserId(Long userId);
+
+    @Query("SELECT wh.id, m.id AS movie_id, m.title AS movie_title, wh.status, wh.added_date, wh.completed_date " +
+            "FROM watch_history wh JOIN movies m ON m.id = wh.movie_id WHERE wh.user_id = :userId AND m.id = :movieId ORDER BY wh.id")
+    Flux<WatchRow> findRowsByMovieId(Long userId, Long movieId);
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.movie.catalog.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Строка таблицы рецензий для репозитория R2DBC.
+ *
+ * <p>Репозиторий читает только проекции ({@link com.movie.catalog.dto.ReviewRow}), поэтому здесь
+ * описан лишь ключ таблицы. Изменяются рецензии через {@link com.movie.catalog.entity.Review}.</p>
+ *
+ * @see ReactiveReviewRepository
+ */
+
+@Table("reviews")
+public record ReviewRecord(@Id Long id) {
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.movie.catalog.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Строка таблицы истории просмотра для репозитория R2DBC.
+ *
+ * <p>Репозиторий читает только проекции ({@link com.movie.catalog.dto.WatchRow}), поэтому здесь
+ * описан лишь ключ таблицы. Изменяется история через {@link com.movie.catalog.entity.WatchHistory}.</p>
+ *
+ * @see ReactiveWatchHistoryRepository
+ */
+
+@Table("watch_history")
+public record WatchRecord(@Id Long id) {
+}
\ No newline at end of file
@@ -1,10 +1,17 @@
 package com.movie.catalog.repository;
 
+import com.movie.catalog.dto.MovieBadge;
+import com.movie.catalog.dto.MovieCard;
+import com.movie.catalog.dto.MovieDetail;
+import com.movie.catalog.dto.MovieTitle;
 import com.movie.catalog.entity.Movie;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.util.*;
 
 /**
  * Репозиторий для работы с сущностью {@link Movie} в базе данных.
@@ -13,18 +20,88 @@ import java.util.List;
  *
  * <p>Основные методы:
  * <ul>
- *   <li>{@link #findByTitleContainingIgnoreCase(String)} - поиск по названию</li>
- *   <li>{@link #findByGenreContainingIgnoreCase(String)} - поиск по жанру</li>
+ *   <li>{@link #findAllCards()} - карточки всех фильмов</li>
+ *   <li>{@link #findCardsByTitle(String)} - поиск карточек по названию</li>
+ *   <li>{@link #findCardsByGenre(String)} - поиск карточек по жанру</li>
+ *   <li>{@link #findIdsByTitle(String)}, {@link #findIdsByGenre(String)} - ID тех же фильмов, что находит поиск карточек</li>
+ *   <li>{@link #findDetailById(Long, Long)} - данные страницы фильма с агрегатами рецензий и записью истории просмотра пользователя</li>
+ *   <li>{@link #findBadgesByIdIn(Collection, Long)} - статусы просмотра и оценки пользователя сразу для набора карточек фильмов</li>
+ *   <li>{@link #findDistinctGenres()} - различные значения жанра фильмов</li>
+ *   <li>{@link #findTitleById(Long)} - получение только названия фильма</li>
+ *   <li>{@link #findAllTitles()}, {@link #findTitlesByIdIn(Collection)} - названия и годы фильмов для поиска дубликатов</li>
+ *   <li>{@link #findEnrichmentCandidates(Long, Limit)} - названия и годы фильмов с пустым описанием, длительностью, жанром или рейтингом, по возрастанию ID</li>
+ *   <li>{@link #deleteByIdIn(Collection)} - удаление набора фильмов одним запросом без загрузки связанных записей</li>
  * </ul>
  * </p>
  *
+ * <p>Поиск по подстроке принимает шаблон из {@link #containsPattern(String)}: символы {@code %} и {@code _}
+ * в строке поиска ищутся как обычные символы.</p>
+ *
  * @see Movie
  * @see org.springframework.data.jpa.repository.JpaRepository
  */
 
 @Repository
 public interface MovieRepository extends JpaRepository<Movie, Long> {
-    List<Movie> findByTitleContainingIgnoreCase(String title);
+    @Query("SELECT new com.movie.catalog.dto.MovieCard(m.id, m.title, m.releaseYear, m.rating, m.durationMinutes, m.genre, m.description, m.posterKey) " +
+            "FROM Movie m ORDER BY m.id")
+    List<MovieCard> findAllCards();
+
+    @Query("SELECT new com.movie.catalog.dto.MovieCard(m.id, m.title, m.releaseYear, m.rating, m.durationMinutes, m.genre, m.description, m.posterKey) " +
+            "FROM Movie m WHERE LOWER(m.title) LIKE LOWER(:title) ESCAPE '\\' ORDER BY m.id")
+    List<MovieCard> findCardsByTitle(String title);
+
+    @Query("SELECT new com.movie.catalog.dto.MovieCard(m.id, m.title, m.releaseYear, m.rating, m.durationMinutes, m.genre, m.description, m.posterKey) " +
+            "FROM Movie m WHERE LOWER(m.genre) LIKE LOWER(:genre) ESCAPE '\\' ORDER BY m.id")
+    List<MovieCard> findCardsByGenre(String genre);
+
+    @Query("SELECT m.id FROM Movie m WHERE LOWER(m.title) LIKE LOWER(:title) ESCAPE '\\'")
+    List<Long> findIdsByTitle(String title);
+
+    @Query("SELECT m.id FROM Movie m WHERE LOWER(m.genre) LIKE LOWER(:genre) ESCAPE '\\'")
+    List<Long> findIdsByGenre(String genre);
+
+    @Query("SELECT new com.movie.catalog.dto.MovieDetail(m.id, m.title, m.releaseYear, m.description, m.rating, m.durationMinutes, m.genre, m.posterKey, " +
+            "(SELECT COUNT(r) FROM Review r WHERE r.movie = m AND r.userId = :userId), " +
+            "(SELECT AVG(r.rating) FROM Review r WHERE r.movie = m AND r.userId = :userId), " +
+            "wh.id, wh.status, wh.addedDate, wh.completedDate) " +
+            "FROM Movie m LEFT JOIN WatchHistory wh ON wh.movie = m AND wh.userId = :userId " +
+            "AND wh.id = (SELECT MAX(w.id) FROM WatchHistory w WHERE w.movie = m AND w.userId = :userId) " +
+            "WHERE m.id = :id")
+    Optional<MovieDetail> findDetailById(Long id, Long userId);
+
+    @Query("SELECT new com.movie.catalog.dto.MovieBadge(m.id, wh.status, " +
+            "(SELECT AVG(r.rating) FROM Review r WHERE r.movie = m AND r.userId = :userId)) " +
+            "FROM Movie m LEFT JOIN WatchHistory wh ON wh.movie = m AND wh.userId = :userId " +
+            "AND wh.id = (SELECT MAX(w.id) FROM WatchHistory w WHERE w.movie = m AND w.userId = :userId) " +
+            "WHERE m.id IN :ids")
+    List<MovieBadge> findBadgesByIdIn(Collection<Long> ids, Long userId);
+
+    @Query("SELECT DISTINCT m.genre FROM Movie m WHERE m.genre IS NOT NULL")
+    List<String> findDistinctGenres();
+
+    @Query("SELECT m.title FROM Movie m WHERE m.id = :id")
+    Optional<String> findTitleById(Long id);
+
+    @Query("SELECT new com.movie.catalog.dto.MovieTitle(m.id, m.title, m.releaseYear) FROM Movie m")
+    List<MovieTitle> findAllTitles();
+
+    @Query("SELECT new com.movie.catalog.dto.MovieTitle(m.id, m.title, m.releaseYear) FROM Movie m WHERE m.id IN :ids")
+    List<MovieTitle> findTitlesByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new com.movie.catalog.dto.MovieTitle(m.id, m.title, m.releaseYear) FROM Movie m " +
+            "WHERE m.id > :afterId AND (m.description IS NULL OR m.description = '' OR m.durationMinutes IS NULL " +
+            "OR m.genre IS NULL OR m.genre = '' OR m.rating IS NULL) ORDER BY m.id")
+    List<MovieTitle> findEnrichmentCandidates(Long afterId, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Movie m WHERE m.id IN :ids")
+    int deleteByIdIn(Collection<Long> ids);
 
-    List<Movie> findByGenreContainingIgnoreCase(String genre);
+    /**
+     * Шаблон {@code LIKE} для поиска подстроки: {@code \}, {@code %} и {@code _} экранируются.
+     */
+    static String containsPattern(String term) {
+        return "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
 }
\ No newline at end of file
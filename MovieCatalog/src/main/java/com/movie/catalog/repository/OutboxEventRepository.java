@@ -0,0 +1,33 @@
+package com.movie.catalog.repository;
+
+import com.movie.catalog.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Репозиторий для работы с журналом изменений {@link OutboxEvent}.
+ *
+ * <p>Основные методы:
+ * <ul>
+ *   <li>{@link #findByIdGreaterThanOrderByIdAsc(Long, Limit)} - следующая пачка событий после смещения</li>
+ *   <li>{@link #deleteRelayed(Long, Instant)} - удаление событий, уже переданных всем получателям</li>
+ * </ul>
+ * </p>
+ *
+ * @see OutboxEvent
+ */
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :id AND e.occurredAt < :occurredBefore")
+    int deleteRelayed(Long id, Instant occurredBefore);
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.movie.catalog.repository;
+
+import com.movie.catalog.entity.OutboxOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторий для работы со смещениями получателей журнала изменений {@link OutboxOffset}.
+ *
+ * @see OutboxOffset
+ */
+
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+}
\ No newline at end of file
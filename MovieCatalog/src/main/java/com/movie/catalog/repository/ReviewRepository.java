@@ -1,19 +1,45 @@
 package com.movie.catalog.repository;
 
+import com.movie.catalog.dto.ReviewRow;
+import com.movie.catalog.entity.Movie;
 import com.movie.catalog.entity.Review;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.*;
 
 /**
  * Репозиторий для работы с сущностью {@link Review} в базе данных.
  *
  * <p>Расширяет {@link JpaRepository}, предоставляя CRUD операции, а также метод поиск рецензий по ID фильма для доступа к рецензиям.</p>
  *
- * <p>Основной метод:
+ * <p>Рецензии у каждого пользователя свои: методы чтения и изменения принимают ID пользователя.
+ * Удаление и перенос рецензий фильмов работают по всем пользователям.</p>
+ *
+ * <p>Основные методы:
  * <ul>
- *   <li>{@link #findByMovieId(Long)} - получение всех рецензий для указанного фильма</li>
+ *   <li>{@link #findByIdAndUserId(Long, Long)} - рецензия пользователя по ID</li>
+ *   <li>{@link #countByUserId(Long)} - число рецензий пользователя</li>
+ *   <li>{@link #findWithMovieById(Long, Long)} - рецензия вместе с фильмом для формы редактирования</li>
+ *   <li>{@link #findRowsByMovieId(Long, Long)}, {@link #findRowById(Long, Long)} - строки списка рецензий с названием фильма</li>
+ *   <li>{@link #findFirstRowsByWatchDate(Long, Limit)}, {@link #findRowsByWatchDateAfter(Long, LocalDate, Long, Limit)} - страницы списка рецензий по дате просмотра, от новых к старым</li>
+ *   <li>{@link #findFirstRowsByRating(Long, Limit)}, {@link #findRowsByRatingAfter(Long, Float, Long, Limit)} - страницы списка рецензий по оценке, от высокой к низкой</li>
+ *   <li>{@link #findLatestRowsByMovieId(Long, Long, Pageable)} - страница последних рецензий фильма, без запроса общего числа</li>
+ *   <li>{@link #deleteByIdIn(Long, Collection)} - удаление набора рецензий одним запросом</li>
+ *   <li>{@link #deleteByMovieIdIn(Collection)} - удаление всех рецензий набора фильмов одним запросом</li>
+ *   <li>{@link #moveToMovieByMovieIdIn(Collection, Movie)} - перенос всех рецензий набора фильмов на другой фильм одним запросом</li>
+ *   <li>{@link #findArchiveCandidates(LocalDate, Long, Limit)} - ID и пользователи рецензий старше даты, по возрастанию ID</li>
+ *   <li>{@link #lockArchivable(Long, Collection, LocalDate)} - блокировка рецензий пользователя перед переносом в архив</li>
+ *   <li>{@link #getRatingDistribution(Long)} - число рецензий по целой части оценки</li>
+ *   <li>{@link #getRatingGapSummary(Long)} - средняя разница между своей оценкой и рейтингом фильма в каталоге</li>
+ *   <li>{@link #findLargestRatingGaps(Long, Limit)} - рецензии с наибольшим расхождением оценки и рейтинга фильма</li>
  * </ul>
  * </p>
  *
@@ -23,5 +49,76 @@ import java.util.List;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
-    List<Review> findByMovieId(Long movieId);
+    Optional<Review> findByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.movie WHERE r.userId = :userId AND r.id = :id")
+    Optional<Review> findWithMovieById(Long userId, Long id);
+
+    // страницы списка читаются по составным индексам (поле сортировки, id): следующая страница начинается
+    // сразу после последней строки предыдущей, без OFFSET
+    @Query("SELECT new com.movie.catalog.dto.ReviewRow(r.id, m.id, m.title, r.rating, r.comment, r.watchDate) " +
+            "FROM Review r JOIN r.movie m WHERE r.userId = :userId ORDER BY r.watchDate DESC, r.id DESC")
+    List<ReviewRow> findFirstRowsByWatchDate(Long userId, Limit limit);
+
+    @Query("SELECT new com.movie.catalog.dto.ReviewRow(r.id, m.id, m.title, r.rating, r.comment, r.watchDate) " +
+            "FROM Review r JOIN r.movie m " +
+            "WHERE r.userId = :userId AND (r.watchDate < :watchDate OR (r.watchDate = :watchDate AND r.id < :id)) " +
+            "ORDER BY r.watchDate DESC, r.id DESC")
+    List<ReviewRow> findRowsByWatchDateAfter(Long userId, LocalDate watchDate, Long id, Limit limit);
+
+    @Query("SELECT new com.movie.catalog.dto.ReviewRow(r.id, m.id, m.title, r.rating, r.comment, r.watchDate) " +
+            "FROM Review r JOIN r.movie m WHERE r.userId = :userId ORDER BY r.rating DESC, r.id DESC")
+    List<ReviewRow> findFirstRowsByRating(Long userId, Limit limit);
+
+    @Query("SELECT new com.movie.catalog.dto.ReviewRow(r.id, m.id, m.title, r.rating, r.comment, r.watchDate) " +
+            "FROM Review r JOIN r.movie m " +
+            "WHERE r.userId = :userId AND (r.rating < :rating OR (r.rating = :rating AND r.id < :id)) " +
+            "ORDER BY r.rating DESC, r.id DESC")
+    List<ReviewRow> findRowsByRatingAfter(Long userId, Float rating, Long id, Limit limit);
+
+    @Query("SELECT new com.movie.catalog.dto.ReviewRow(r.id, m.id, m.title, r.rating, r.comment, r.watchDate) " +
+            "FROM Review r JOIN r.movie m WHERE r.userId = :userId AND m.id = :movieId ORDER BY r.id")
+    List<ReviewRow> findRowsByMovieId(Long userId, Long movieId);
+
+    @Query("SELECT new com.movie.catalog.dto.ReviewRow(r.id, m.id, m.title, r.rating, r.comment, r.watchDate) " +
+            "FROM Review r JOIN r.movie m WHERE r.userId = :userId AND r.id = :id")
+    Optional<ReviewRow> findRowById(Long userId, Long id);
+
+    @Query("SELECT new com.movie.catalog.dto.ReviewRow(r.id, m.id, m.title, r.rating, r.comment, r.watchDate) " +
+            "FROM Review r JOIN r.movie m WHERE r.userId = :userId AND m.id = :movieId ORDER BY r.watchDate DESC, r.id DESC")
+    List<ReviewRow> findLatestRowsByMovieId(Long userId, Long movieId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Review r WHERE r.userId = :userId AND r.id IN :ids")
+    int deleteByIdIn(Long userId, Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Review r WHERE r.movie.id IN :movieIds")
+    int deleteByMovieIdIn(Collection<Long> movieIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Review r SET r.movie = :movie WHERE r.movie.id IN :movieIds")
+    int moveToMovieByMovieIdIn(Collection<Long> movieIds, Movie movie);
+
+    @Query("SELECT r.id, r.userId FROM Review r WHERE r.watchDate < :before AND r.id > :afterId ORDER BY r.id")
+    List<Object[]> findArchiveCandidates(LocalDate before, Long afterId, Limit limit);
+
+    // строки блокируются до удаления, чтобы в архив не попало состояние, измененное во время переноса
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Review r WHERE r.userId = :userId AND r.id IN :ids AND r.watchDate < :before")
+    List<Review> lockArchivable(Long userId, Collection<Long> ids, LocalDate before);
+
+    @Query("SELECT FLOOR(r.rating), COUNT(r) FROM Review r WHERE r.userId = :userId AND r.rating IS NOT NULL " +
+            "GROUP BY FLOOR(r.rating) ORDER BY FLOOR(r.rating)")
+    List<Object[]> getRatingDistribution(Long userId);
+
+    @Query("SELECT COUNT(r), AVG(r.rating - m.rating), AVG(ABS(r.rating - m.rating)) FROM Review r JOIN r.movie m " +
+            "WHERE r.userId = :userId AND r.rating IS NOT NULL AND m.rating IS NOT NULL")
+    List<Object[]> getRatingGapSummary(Long userId);
+
+    @Query("SELECT m.id, m.title, m.rating, r.rating FROM Review r JOIN r.movie m " +
+            "WHERE r.userId = :userId AND r.rating IS NOT NULL AND m.rating IS NOT NULL ORDER BY ABS(r.rating - m.rating) DESC, r.id")
+    List<Object[]> findLargestRatingGaps(Long userId, Limit limit);
 }
\ No newline at end of file
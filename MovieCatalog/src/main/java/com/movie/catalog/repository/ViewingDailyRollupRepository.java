@@ -0,0 +1,34 @@
+package com.movie.catalog.repository;
+
+import com.movie.catalog.entity.ViewingDailyRollup;
+import com.movie.catalog.entity.ViewingRollupKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Репозиторий для работы с дневными сводками просмотров {@link ViewingDailyRollup}.
+ *
+ * <p>Основные методы:
+ * <ul>
+ *   <li>{@link #findSeries(String, LocalDate, LocalDate)} - дневные сводки жанра за период</li>
+ *   <li>{@link #getCompletionTimeByGenre()} - число завершенных просмотров и сумма дней до завершения по жанрам</li>
+ * </ul>
+ * </p>
+ *
+ * @see ViewingDailyRollup
+ */
+
+@Repository
+public interface ViewingDailyRollupRepository extends JpaRepository<ViewingDailyRollup, ViewingRollupKey> {
+
+    @Query("SELECT r FROM ViewingDailyRollup r WHERE r.id.genre = :genre AND r.id.day BETWEEN :from AND :to ORDER BY r.id.day")
+    List<ViewingDailyRollup> findSeries(String genre, LocalDate from, LocalDate to);
+
+    @Query("SELECT r.id.genre, SUM(r.completions), SUM(r.daysToCompleteSum) FROM ViewingDailyRollup r " +
+            "WHERE r.id.genre <> '' GROUP BY r.id.genre HAVING SUM(r.completions) > 0 ORDER BY r.id.genre")
+    List<Object[]> getCompletionTimeByGenre();
+}
\ No newline at end of file
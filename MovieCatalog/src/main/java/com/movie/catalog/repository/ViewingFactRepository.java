@@ -0,0 +1,28 @@
+package com.movie.catalog.repository;
+
+import com.movie.catalog.entity.ViewingFact;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * Репозиторий для работы с учтенными в сводках записями истории просмотра {@link ViewingFact}.
+ *
+ * <p>Пересчет по фильмам читает только записи, которые еще не перенесены в архив.</p>
+ *
+ * @see ViewingFact
+ */
+
+@Repository
+public interface ViewingFactRepository extends JpaRepository<ViewingFact, Long> {
+    List<ViewingFact> findByWatchHistoryIdIn(Collection<Long> watchHistoryIds);
+
+    List<ViewingFact> findByMovieIdInAndArchivedFalse(Collection<Long> movieIds);
+
+    @Modifying
+    @Query("UPDATE ViewingFact f SET f.archived = true WHERE f.watchHistoryId IN :watchHistoryIds")
+    int markArchivedByWatchHistoryIdIn(Collection<Long> watchHistoryIds);
+}
\ No newline at end of file
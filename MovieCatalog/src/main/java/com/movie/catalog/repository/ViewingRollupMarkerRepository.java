@@ -0,0 +1,15 @@
+package com.movie.catalog.repository;
+
+import com.movie.catalog.entity.ViewingRollupMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторий для работы с отметками о построении сводок просмотров {@link ViewingRollupMarker}.
+ *
+ * @see ViewingRollupMarker
+ */
+
+@Repository
+public interface ViewingRollupMarkerRepository extends JpaRepository<ViewingRollupMarker, String> {
+}
\ No newline at end of file
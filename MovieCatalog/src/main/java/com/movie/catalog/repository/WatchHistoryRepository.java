@@ -1,10 +1,17 @@
 package com.movie.catalog.repository;
 
+import com.movie.catalog.dto.WatchRow;
+import com.movie.catalog.entity.Movie;
 import com.movie.catalog.entity.WatchHistory;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.*;
 
 /**
@@ -12,11 +19,34 @@ import java.util.*;
  *
  * <p>Расширяет {@link JpaRepository}, предоставляя CRUD операции, а также методы для управления историей просмотров.</p>
  *
+ * <p>История просмотра у каждого пользователя своя: методы чтения и изменения принимают ID пользователя,
+ * и запрос затрагивает только его записи (в PostgreSQL - только его секцию таблицы).
+ * Удаление и перенос записей фильмов, а также выборки для сводок аналитики работают по всем пользователям.</p>
+ *
  * <p><strong>Основные методы:</strong></p>
  * <ul>
- *   <li>{@link #findByMovieId(Long)} - поиск записей по ID фильма</li>
- *   <li>{@link #findByMovieIdAndStatus(Long, String)} - поиск записей по ID фильма и статусу</li>
- *   <li>{@link #getWatchStatusStatistics()} - получение статистики по статусам просмотра</li>
+ *   <li>{@link #findByIdAndUserId(Long, Long)} - запись пользователя по ID</li>
+ *   <li>{@link #findByUserIdAndMovieId(Long, Long)} - поиск записей пользователя по ID фильма</li>
+ *   <li>{@link #findFirstByUserIdAndMovieIdOrderByIdDesc(Long, Long)} - последняя запись пользователя по ID фильма</li>
+ *   <li>{@link #findByUserIdAndMovieIdIn(Long, Collection)} - поиск записей пользователя для набора фильмов одним запросом</li>
+ *   <li>{@link #findByMovieId(Long)} - записи фильма всех пользователей</li>
+ *   <li>{@link #countByUserId(Long)} - число записей пользователя</li>
+ *   <li>{@link #findRowById(Long, Long)} - строка истории просмотра с названием фильма</li>
+ *   <li>{@link #findFirstRowsByAddedDate(Long, Limit)}, {@link #findRowsByAddedDateAfter(Long, LocalDate, Long, Limit)} - страницы истории просмотра по дате добавления, от новых к старым</li>
+ *   <li>{@link #findFirstRowsByStatus(Long, Limit)}, {@link #findRowsByStatusAfter(Long, String, Long, Limit)} - страницы истории просмотра по статусу</li>
+ *   <li>{@link #getWatchStatusStatistics(Long)} - получение статистики по статусам просмотра</li>
+ *   <li>{@link #transitionLatestStatus(Long, Long, Collection, String, LocalDate)} - смена статуса последней записи фильма, если ее текущий статус входит в набор</li>
+ *   <li>{@link #lockTransitionable(Long, Collection, Collection)} - блокировка записей пользователя, текущий статус которых входит в набор, перед сменой статуса</li>
+ *   <li>{@link #transitionStatusByIdIn(Long, Collection, Collection, String, LocalDate)} - смена статуса набора записей одним запросом, если их текущий статус входит в набор</li>
+ *   <li>{@link #deleteByIdIn(Long, Collection)} - удаление набора записей одним запросом</li>
+ *   <li>{@link #deleteByMovieIdIn(Collection)} - удаление всех записей набора фильмов одним запросом</li>
+ *   <li>{@link #moveToMovieByMovieIdIn(Collection, Movie)} - перенос всех записей набора фильмов на другой фильм одним запросом</li>
+ *   <li>{@link #findRollupRowsByIdIn(Collection)}, {@link #findRollupRowsByMovieIdIn(Collection)}, {@link #findRollupRowsByIdRange(Long, Long)} - даты и жанр записей для сводок аналитики</li>
+ *   <li>{@link #findIdRange()} - минимальный и максимальный ID записей</li>
+ *   <li>{@link #findArchiveCandidates(LocalDate, Long, Limit)} - ID и пользователи просмотров, завершенных раньше даты, по возрастанию ID</li>
+ *   <li>{@link #lockArchivable(Long, Collection, LocalDate)} - блокировка завершенных просмотров пользователя перед переносом в архив</li>
+ *   <li>{@link #getCompletionSummary(Long)} - число записей, завершенных и брошенных просмотров, минуты просмотренных фильмов</li>
+ *   <li>{@link #getCompletedCountByGenre(Long)} - число завершенных просмотров по значению жанра фильма</li>
  * </ul>
  *
  * @see WatchHistory
@@ -25,10 +55,107 @@ import java.util.*;
 
 @Repository
 public interface WatchHistoryRepository extends JpaRepository<WatchHistory, Long> {
+    Optional<WatchHistory> findByIdAndUserId(Long id, Long userId);
+
+    List<WatchHistory> findByUserIdAndMovieId(Long userId, Long movieId);
+
+    Optional<WatchHistory> findFirstByUserIdAndMovieIdOrderByIdDesc(Long userId, Long movieId);
+
+    List<WatchHistory> findByUserIdAndMovieIdIn(Long userId, Collection<Long> movieIds);
+
     List<WatchHistory> findByMovieId(Long movieId);
 
-    Optional<WatchHistory> findByMovieIdAndStatus(Long movieId, String status);
+    long countByUserId(Long userId);
+
+    // страницы списка читаются по составным индексам (поле сортировки, id): следующая страница начинается
+    // сразу после последней строки предыдущей, без OFFSET
+    @Query("SELECT new com.movie.catalog.dto.WatchRow(wh.id, m.id, m.title, wh.status, wh.addedDate, wh.completedDate) " +
+            "FROM WatchHistory wh JOIN wh.movie m WHERE wh.userId = :userId ORDER BY wh.addedDate DESC, wh.id DESC")
+    List<WatchRow> findFirstRowsByAddedDate(Long userId, Limit limit);
+
+    @Query("SELECT new com.movie.catalog.dto.WatchRow(wh.id, m.id, m.title, wh.status, wh.addedDate, wh.completedDate) " +
+            "FROM WatchHistory wh JOIN wh.movie m " +
+            "WHERE wh.userId = :userId AND (wh.addedDate < :addedDate OR (wh.addedDate = :addedDate AND wh.id < :id)) " +
+            "ORDER BY wh.addedDate DESC, wh.id DESC")
+    List<WatchRow> findRowsByAddedDateAfter(Long userId, LocalDate addedDate, Long id, Limit limit);
+
+    @Query("SELECT new com.movie.catalog.dto.WatchRow(wh.id, m.id, m.title, wh.status, wh.addedDate, wh.completedDate) " +
+            "FROM WatchHistory wh JOIN wh.movie m WHERE wh.userId = :userId ORDER BY wh.status, wh.id")
+    List<WatchRow> findFirstRowsByStatus(Long userId, Limit limit);
+
+    @Query("SELECT new com.movie.catalog.dto.WatchRow(wh.id, m.id, m.title, wh.status, wh.addedDate, wh.completedDate) " +
+            "FROM WatchHistory wh JOIN wh.movie m " +
+            "WHERE wh.userId = :userId AND (wh.status > :status OR (wh.status = :status AND wh.id > :id)) " +
+            "ORDER BY wh.status, wh.id")
+    List<WatchRow> findRowsByStatusAfter(Long userId, String status, Long id, Limit limit);
+
+    @Query("SELECT new com.movie.catalog.dto.WatchRow(wh.id, m.id, m.title, wh.status, wh.addedDate, wh.completedDate) " +
+            "FROM WatchHistory wh JOIN wh.movie m WHERE wh.userId = :userId AND wh.id = :id")
+    Optional<WatchRow> findRowById(Long userId, Long id);
+
+    @Query("SELECT wh.status, COUNT(wh) FROM WatchHistory wh WHERE wh.userId = :userId GROUP BY wh.status")
+    List<Object[]> getWatchStatusStatistics(Long userId);
+
+    // условие на текущий статус проверяется в том же UPDATE: из параллельных запросов перехода
+    // строку меняет только первый, остальные получают 0 измененных строк
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WatchHistory wh SET wh.status = :status, wh.completedDate = :completedDate " +
+            "WHERE wh.userId = :userId AND LOWER(wh.status) IN :fromStatuses AND wh.id = " +
+            "(SELECT MAX(latest.id) FROM WatchHistory latest WHERE latest.userId = :userId AND latest.movie.id = :movieId)")
+    int transitionLatestStatus(Long userId, Long movieId, Collection<String> fromStatuses, String status, LocalDate completedDate);
+
+    // строки блокируются до UPDATE, чтобы событие изменения получили ровно те записи, статус которых сменится
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT wh FROM WatchHistory wh WHERE wh.userId = :userId AND wh.id IN :ids AND LOWER(wh.status) IN :fromStatuses")
+    List<WatchHistory> lockTransitionable(Long userId, Collection<Long> ids, Collection<String> fromStatuses);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WatchHistory wh SET wh.status = :status, wh.completedDate = :completedDate " +
+            "WHERE wh.userId = :userId AND wh.id IN :ids AND LOWER(wh.status) IN :fromStatuses")
+    int transitionStatusByIdIn(Long userId, Collection<Long> ids, Collection<String> fromStatuses, String status, LocalDate completedDate);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM WatchHistory wh WHERE wh.userId = :userId AND wh.id IN :ids")
+    int deleteByIdIn(Long userId, Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM WatchHistory wh WHERE wh.movie.id IN :movieIds")
+    int deleteByMovieIdIn(Collection<Long> movieIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WatchHistory wh SET wh.movie = :movie WHERE wh.movie.id IN :movieIds")
+    int moveToMovieByMovieIdIn(Collection<Long> movieIds, Movie movie);
+
+    @Query("SELECT wh.id, wh.movie.id, wh.addedDate, wh.completedDate, wh.movie.genre FROM WatchHistory wh WHERE wh.id IN :ids")
+    List<Object[]> findRollupRowsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT wh.id, wh.movie.id, wh.addedDate, wh.completedDate, wh.movie.genre FROM WatchHistory wh WHERE wh.movie.id IN :movieIds")
+    List<Object[]> findRollupRowsByMovieIdIn(Collection<Long> movieIds);
+
+    @Query("SELECT wh.id, wh.movie.id, wh.addedDate, wh.completedDate, wh.movie.genre FROM WatchHistory wh WHERE wh.id >= :fromId AND wh.id < :toId")
+    List<Object[]> findRollupRowsByIdRange(Long fromId, Long toId);
+
+    @Query("SELECT MIN(wh.id), MAX(wh.id) FROM WatchHistory wh")
+    List<Object[]> findIdRange();
+
+    @Query("SELECT wh.id, wh.userId FROM WatchHistory wh " +
+            "WHERE LOWER(wh.status) IN ('completed', 'просмотрено') AND wh.completedDate < :before AND wh.id > :afterId ORDER BY wh.id")
+    List<Object[]> findArchiveCandidates(LocalDate before, Long afterId, Limit limit);
+
+    // строки блокируются до удаления, чтобы в архив не попало состояние, измененное во время переноса
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT wh FROM WatchHistory wh WHERE wh.userId = :userId AND wh.id IN :ids " +
+            "AND LOWER(wh.status) IN ('completed', 'просмотрено') AND wh.completedDate < :before")
+    List<WatchHistory> lockArchivable(Long userId, Collection<Long> ids, LocalDate before);
+
+    @Query("SELECT COUNT(wh), " +
+            "SUM(CASE WHEN LOWER(wh.status) IN ('completed', 'просмотрено') THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN LOWER(wh.status) IN ('dropped', 'брошено') THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN LOWER(wh.status) IN ('completed', 'просмотрено') THEN COALESCE(m.durationMinutes, 0) ELSE 0 END) " +
+            "FROM WatchHistory wh JOIN wh.movie m WHERE wh.userId = :userId")
+    List<Object[]> getCompletionSummary(Long userId);
 
-    @Query("SELECT wh.status, COUNT(wh) FROM WatchHistory wh GROUP BY wh.status")
-    List<Object[]> getWatchStatusStatistics();
+    @Query("SELECT m.genre, COUNT(wh) FROM WatchHistory wh JOIN wh.movie m " +
+            "WHERE wh.userId = :userId AND LOWER(wh.status) IN ('completed', 'просмотрено') AND m.genre IS NOT NULL GROUP BY m.genre")
+    List<Object[]> getCompletedCountByGenre(Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.movie.catalog.service;
+
+import com.movie.catalog.event.CatalogChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версия данных каталога.
+ *
+ * <p>Увеличивается после коммита каждой транзакции, изменившей фильмы, рецензии или историю просмотра.
+ * Кэши производных данных (фрагменты страниц, статистика) хранят версию, с которой были построены,
+ * и считаются устаревшими, как только текущая версия изменилась.</p>
+ *
+ * @see CatalogChangedEvent
+ */
+
+@Component
+public class CatalogDataVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
\ No newline at end of file
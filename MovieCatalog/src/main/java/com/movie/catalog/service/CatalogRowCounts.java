@@ -0,0 +1,81 @@
+package com.movie.catalog.service;
+
+import com.movie.catalog.config.PrimaryReads;
+import com.movie.catalog.repository.*;
+import com.movie.catalog.snapshot.CatalogSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Общее число строк в списках рецензий и истории просмотра текущего пользователя.
+ *
+ * <p>Число считается запросом {@code COUNT} по строкам пользователя и хранится вместе с версией данных каталога
+ * ({@link CatalogDataVersion}) отдельно для каждого пользователя: пока данные не изменились,
+ * постраничные списки получают его без обращения к БД. Запрос выполняется в основной БД ({@link PrimaryReads}):
+ * число с отстающей реплики закрепилось бы в кэше под новой версией.
+ * В автономном режиме число берется из заголовка снимка каталога.</p>
+ *
+ * @see CatalogDataVersion
+ */
+
+@Component
+public class CatalogRowCounts {
+
+    private final ReviewRepository reviewRepository;
+    private final WatchHistoryRepository watchHistoryRepository;
+    private final CatalogDataVersion dataVersion;
+    private final CatalogSnapshot snapshot;
+    private final CurrentUser currentUser;
+
+    private final Map<String, CachedCount> cached = new ConcurrentHashMap<>();
+
+    @Autowired // автоматическое внедрение зависимостей
+    public CatalogRowCounts(ReviewRepository reviewRepository,
+                            WatchHistoryRepository watchHistoryRepository,
+                            CatalogDataVersion dataVersion,
+                            CatalogSnapshot snapshot,
+                            CurrentUser currentUser) {
+        this.reviewRepository = reviewRepository;
+        this.watchHistoryRepository = watchHistoryRepository;
+        this.dataVersion = dataVersion;
+        this.snapshot = snapshot;
+        this.currentUser = currentUser;
+    }
+
+    public long reviews() {
+        if (snapshot.isActive()) {
+            return snapshot.countReviews(currentUser.id());
+        }
+        Long userId = currentUser.id();
+        return count("reviews:" + userId, () -> reviewRepository.countByUserId(userId));
+    }
+
+    public long watchHistory() {
+        if (snapshot.isActive()) {
+            return snapshot.countWatchHistory(currentUser.id());
+        }
+        Long userId = currentUser.id();
+        return count("watch_history:" + userId, () -> watchHistoryRepository.countByUserId(userId));
+    }
+
+    private long count(String key, LongSupplier query) {
+        // версия читается до запроса: изменение во время запроса сделает результат устаревшим
+        long version = dataVersion.current();
+        CachedCount current = cached.get(key);
+
+        if (current != null && current.version() == version) {
+            return current.count();
+        }
+
+        long count = PrimaryReads.call(query::getAsLong);
+        cached.put(key, new CachedCount(version, count));
+        return count;
+    }
+
+    private record CachedCount(long version, long count) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.movie.catalog.service;
+
+import com.movie.catalog.config.UserProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Пользователь, от имени которого выполняется текущая операция.
+ *
+ * <p>Рецензии и история просмотра у каждого пользователя свои, а каталог фильмов общий.
+ * ID пользователя запроса выставляет {@link com.movie.catalog.web.CurrentUserFilter};
+ * фоновые задачи выполняются от имени нужного пользователя через {@link #runAs(Long, Runnable)}.
+ * Если пользователь не выставлен, используется {@code catalog.users.default-id}.</p>
+ *
+ * @see UserProperties
+ */
+
+@Component
+public class CurrentUser {
+
+    private static final ThreadLocal<Long> USER_ID = new ThreadLocal<>();
+
+    private final UserProperties properties;
+
+    @Autowired // автоматическое внедрение зависимости
+    public CurrentUser(UserProperties properties) {
+        this.properties = properties;
+    }
+
+    public Long id() {
+        Long userId = USER_ID.get();
+        return userId != null ? userId : defaultId();
+    }
+
+    public Long defaultId() {
+        return properties.getDefaultId();
+    }
+
+    public void runAs(Long userId, Runnable action) {
+        callAs(userId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T callAs(Long userId, Supplier<T> action) {
+        Long previous = USER_ID.get();
+        USER_ID.set(userId);
+
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                USER_ID.set(previous);
+            } else {
+                USER_ID.remove();
+            }
+        }
+    }
+
+    public void set(Long userId) {
+        USER_ID.set(userId);
+    }
+
+    public void clear() {
+        USER_ID.remove();
+    }
+}
\ No newline at end of file
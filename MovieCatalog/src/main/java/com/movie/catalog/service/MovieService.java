@@ -1,12 +1,26 @@
 package com.movie.catalog.service;
 
+import com.movie.catalog.config.PrimaryReads;
+import com.movie.catalog.dedup.DuplicateIndex;
+import com.movie.catalog.dto.*;
+import com.movie.catalog.enrichment.MovieMetadata;
 import com.movie.catalog.entity.*;
+import com.movie.catalog.event.CatalogChangedEvent;
+import com.movie.catalog.event.CatalogChangedEvent.ChangeType;
+import com.movie.catalog.event.CatalogChangedEvent.EntityType;
+import com.movie.catalog.poster.PosterStore;
+import com.movie.catalog.poster.PosterThumbnailer;
+import com.movie.catalog.profiling.SearchEvent;
 import com.movie.catalog.repository.*;
+import com.movie.catalog.snapshot.CatalogSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Сервис для управления фильмами.
@@ -23,13 +37,35 @@ import java.util.*;
  * <ul>
  *   <li>{@link #updateMovie(Long, Movie)} - обновляет информацию о существующем фильме</li>
  *   <li>{@link #saveMovie(Movie)} - сохраняет новый фильм в БД</li>
- *   <li>{@link #getAllMovies()} - получает список всех фильмов из БД</li>
+ *   <li>{@link #updatePoster(Long, InputStream)} - сохраняет постер фильма в хранилище постеров</li>
+ *   <li>{@link #applyMetadata(Map)} - заполняет пустые поля набора фильмов метаданными из внешнего источника</li>
+ *   <li>{@link #getAllMovies()} - получает карточки всех фильмов из БД</li>
  *   <li>{@link #getMovieById(Long)} - получает фильм по его ID</li>
+ *   <li>{@link #getMovieDetail(Long)} - получает данные страницы фильма</li>
+ *   <li>{@link #getMovieBadges(Collection)} - получает статусы просмотра и оценки для набора карточек фильмов</li>
+ *   <li>{@link #getAllGenres()} - получает все жанры каталога (список хранится до следующего изменения данных {@link CatalogDataVersion})</li>
  *   <li>{@link #deleteMovie(Long)} - удаляет фильм по его Id</li>
+ *   <li>{@link #deleteMovies(Collection)} - удаляет набор фильмов вместе с рецензиями и историей просмотра пакетными запросами</li>
+ *   <li>{@link #deleteMoviesMatching(String, String)} - удаляет все фильмы, подходящие под фильтр по названию и жанру</li>
+ *   <li>{@link #findPossibleDuplicates(String, Integer, Long)} - находит фильмы каталога, похожие на заданный</li>
+ *   <li>{@link #getDuplicateGroups()} - находит группы вероятных дубликатов по всему каталогу</li>
+ *   <li>{@link #mergeMovies(Long, Collection)} - объединяет дубликаты с одним фильмом, перенося рецензии и историю просмотра</li>
+ *   <li>{@link #getMovieTitle(Long)} - получает только название фильма</li>
+ *   <li>{@link #countMovies()} - считает фильмы в каталоге</li>
  *   <li>{@link #searchByTitle(String)} - выполняет поиск фильмов по названию</li>
  *   <li>{@link #searchByGenre(String)} - выполнет поиск фильмов по жанру</li>
  * </ul>
  *
+ * <p>Методы для страниц возвращают проекции из пакета {@code dto}, загруженные одним запросом,
+ * а не сущности: отрисовка шаблона не обращается к БД.</p>
+ *
+ * <p>Каталог фильмов общий для всех пользователей, а статусы просмотра и оценки на страницах
+ * берутся из истории просмотра и рецензий текущего пользователя ({@link CurrentUser}).</p>
+ *
+ * <p>В автономном режиме ({@link CatalogSnapshot#isActive()}) эти методы читают данные из снимка каталога.</p>
+ *
+ * <p>Во время записи JFR поиск фильмов записывается событием {@link SearchEvent}.</p>
+ *
  * @see MovieRepository
  * @see Movie
  * @see org.springframework.transaction.annotation.Transactional
@@ -39,11 +75,47 @@ import java.util.*;
 @Transactional
 public class MovieService {
 
+    private static final int DELETE_CHUNK_SIZE = 1000;
+    private static final int BADGE_CHUNK_SIZE = 1000;
+
+    // при объединении дубликатов у пользователя остается запись с самым продвинутым статусом
+    private static final List<WatchStatus> MERGE_PRECEDENCE =
+            List.of(WatchStatus.PLANNED, WatchStatus.DROPPED, WatchStatus.WATCHING, WatchStatus.COMPLETED);
+
     private final MovieRepository movieRepository;
+    private final ReviewRepository reviewRepository;
+    private final WatchHistoryRepository watchHistoryRepository;
+    private final CatalogSnapshot snapshot;
+    private final PosterStore posterStore;
+    private final PosterThumbnailer posterThumbnailer;
+    private final DuplicateIndex duplicateIndex;
+    private final CurrentUser currentUser;
+    private final CatalogDataVersion dataVersion;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile CachedGenres cachedGenres;
 
     @Autowired // автоматическое внедрение зависимости с сервисом
-    public MovieService(MovieRepository movieRepository) {
+    public MovieService(MovieRepository movieRepository,
+                        ReviewRepository reviewRepository,
+                        WatchHistoryRepository watchHistoryRepository,
+                        CatalogSnapshot snapshot,
+                        PosterStore posterStore,
+                        PosterThumbnailer posterThumbnailer,
+                        DuplicateIndex duplicateIndex,
+                        CurrentUser currentUser,
+                        CatalogDataVersion dataVersion,
+                        ApplicationEventPublisher eventPublisher) {
         this.movieRepository = movieRepository;
+        this.reviewRepository = reviewRepository;
+        this.watchHistoryRepository = watchHistoryRepository;
+        this.snapshot = snapshot;
+        this.posterStore = posterStore;
+        this.posterThumbnailer = posterThumbnailer;
+        this.duplicateIndex = duplicateIndex;
+        this.currentUser = currentUser;
+        this.dataVersion = dataVersion;
+        this.eventPublisher = eventPublisher;
     }
 
     public Movie updateMovie(Long id, Movie movieDetails) {
@@ -56,30 +128,293 @@ public class MovieService {
         movie.setDurationMinutes(movieDetails.getDurationMinutes());
         movie.setGenre(movieDetails.getGenre());
 
-        return movieRepository.save(movie);
+        Movie saved = movieRepository.save(movie);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(EntityType.MOVIE, ChangeType.UPDATED, saved.getId()));
+        return saved;
     }
 
     public Movie saveMovie(Movie movie) {
-        return movieRepository.save(movie);
+        ChangeType changeType = movie.getId() == null ? ChangeType.CREATED : ChangeType.UPDATED;
+        Movie saved = movieRepository.save(movie);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(EntityType.MOVIE, changeType, saved.getId()));
+        return saved;
+    }
+
+    /**
+     * Сохраняет постер в хранилище постеров и запоминает его ключ у фильма.
+     * В БД хранится только ключ, уменьшенные копии создаются в фоне.
+     */
+    public String updatePoster(Long id, InputStream content) {
+        Movie movie = movieRepository.findById(id).orElseThrow(() -> new RuntimeException("Фильм не найден с ID: " + id));
+
+        String key = posterStore.store(content);
+        movie.setPosterKey(key);
+
+        Movie saved = movieRepository.save(movie);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(EntityType.MOVIE, ChangeType.UPDATED, saved.getId()));
+        posterThumbnailer.generate(key);
+        return key;
     }
 
-    public List<Movie> getAllMovies() {
-        return movieRepository.findAll();
+    /**
+     * Заполняет пустые описание, длительность, жанр и рейтинг фильмов метаданными, найденными по ID фильма.
+     * Фильмы загружаются одним запросом, изменения записываются пакетами JDBC при коммите,
+     * заполненные вручную значения не меняются.
+     *
+     * @return число измененных фильмов
+     */
+    public int applyMetadata(Map<Long, MovieMetadata> metadataById) {
+        if (metadataById.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> changed = new ArrayList<>();
+        for (Movie movie : movieRepository.findAllById(metadataById.keySet())) {
+            if (metadataById.get(movie.getId()).applyTo(movie)) {
+                changed.add(movie.getId());
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(EntityType.MOVIE, ChangeType.UPDATED, changed));
+        }
+        return changed.size();
     }
 
+    @Transactional(readOnly = true)
+    public List<MovieCard> getAllMovies() {
+        if (snapshot.isActive()) {
+            return snapshot.findMovieCards(null, null);
+        }
+        return movieRepository.findAllCards();
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Movie> getMovieById(Long id) {
         return movieRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<MovieDetail> getMovieDetail(Long id) {
+        Optional<MovieDetail> found = snapshot.isActive() ? snapshot.findMovieDetail(id, currentUser.id()) : movieRepository.findDetailById(id, currentUser.id());
+        return found
+                .map(detail -> detail.withWatchStatus(WatchHistoryService.translateStatusToRussian(detail.watchStatus())));
+    }
+
+    /**
+     * Статусы просмотра и оценки карточек страницы, по ID фильма.
+     * Загружаются одним запросом {@code IN (...)} на всю страницу, а не отдельным запросом на каждую карточку.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, MovieBadge> getMovieBadges(Collection<Long> movieIds) {
+        List<Long> ids = List.copyOf(movieIds);
+        Map<Long, MovieBadge> badges = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += BADGE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + BADGE_CHUNK_SIZE));
+            List<MovieBadge> found = snapshot.isActive() ? snapshot.findMovieBadges(chunk, currentUser.id()) : movieRepository.findBadgesByIdIn(chunk, currentUser.id());
+
+            for (MovieBadge badge : found) {
+                badges.put(badge.movieId(), badge.withWatchStatus(WatchHistoryService.translateStatusToRussian(badge.watchStatus())));
+            }
+        }
+        return badges;
+    }
+
+    @Transactional(readOnly = true)
+    public Set<String> getAllGenres() {
+        // версия читается до запроса: изменение во время запроса сделает результат устаревшим
+        long version = dataVersion.current();
+        CachedGenres cached = cachedGenres;
+
+        if (cached != null && cached.version() == version) {
+            return cached.genres();
+        }
+
+        // жанры фильма хранятся одной строкой через запятую; список кэшируется с версией, поэтому читается не с реплики
+        Set<String> genres = new TreeSet<>();
+        List<String> distinctGenres = snapshot.isActive() ? snapshot.findDistinctGenres() : PrimaryReads.call(movieRepository::findDistinctGenres);
+
+        for (String genre : distinctGenres) {
+            for (String g : genre.split(",")) {
+                String trimmedGenre = g.trim();
+                if (!trimmedGenre.isEmpty()) {
+                    genres.add(trimmedGenre);
+                }
+            }
+        }
+
+        Set<String> result = Collections.unmodifiableSet(genres);
+        cachedGenres = new CachedGenres(version, result);
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> getMovieTitle(Long id) {
+        if (snapshot.isActive()) {
+            return snapshot.findMovieTitle(id);
+        }
+        return movieRepository.findTitleById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public long countMovies() {
+        if (snapshot.isActive()) {
+            return snapshot.countMovies();
+        }
+        return movieRepository.count();
+    }
+
     public void deleteMovie(Long id) {
-        movieRepository.deleteById(id);
+        deleteMovies(List.of(id));
+    }
+
+    public int deleteMovies(Collection<Long> ids) {
+        // связанные записи удаляются пакетно, без загрузки коллекций фильма в память
+        reviewRepository.deleteByMovieIdIn(ids);
+        watchHistoryRepository.deleteByMovieIdIn(ids);
+        int deleted = movieRepository.deleteByIdIn(ids);
+
+        eventPublisher.publishEvent(new CatalogChangedEvent(EntityType.MOVIE, ChangeType.DELETED, ids));
+        return deleted;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DuplicateCandidate> findPossibleDuplicates(String title, Integer releaseYear, Long excludeId) {
+        return duplicateIndex.findCandidates(title, releaseYear, excludeId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DuplicateGroup> getDuplicateGroups() {
+        return duplicateIndex.findDuplicateGroups();
+    }
+
+    /**
+     * Объединяет фильмы-дубликаты с фильмом {@code survivorId}: рецензии и история просмотра дубликатов
+     * переносятся на него пакетными запросами, после чего дубликаты удаляются. Если у пользователя оказалось
+     * несколько записей истории фильма, они сводятся в одну ({@link #mergeWatchHistory(Long)}).
+     *
+     * @return число удаленных дубликатов
+     */
+    public int mergeMovies(Long survivorId, Collection<Long> duplicateIds) {
+        Movie survivor = movieRepository.findById(survivorId).orElseThrow(() -> new RuntimeException("Фильм не найден с ID: " + survivorId));
+
+        Set<Long> ids = new HashSet<>(duplicateIds);
+        ids.remove(survivorId);
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        reviewRepository.moveToMovieByMovieIdIn(ids, survivor);
+        watchHistoryRepository.moveToMovieByMovieIdIn(ids, survivor);
+        mergeWatchHistory(survivorId);
+        int deleted = movieRepository.deleteByIdIn(ids);
+
+        eventPublisher.publishEvent(CatalogChangedEvent.of(EntityType.MOVIE, ChangeType.UPDATED, survivorId));
+        eventPublisher.publishEvent(new CatalogChangedEvent(EntityType.MOVIE, ChangeType.DELETED, ids));
+        return deleted;
+    }
+
+    /**
+     * Оставляет у каждого пользователя одну запись истории фильма: запись с самым продвинутым статусом
+     * получает самую раннюю дату добавления и самую позднюю дату завершения, остальные записи удаляются.
+     */
+    private void mergeWatchHistory(Long movieId) {
+        Map<Long, List<WatchHistory>> rowsByUser = watchHistoryRepository.findByMovieId(movieId).stream()
+                .collect(Collectors.groupingBy(WatchHistory::getUserId));
+
+        List<WatchHistory> kept = new ArrayList<>();
+        List<Long> removedIds = new ArrayList<>();
+
+        for (List<WatchHistory> rows : rowsByUser.values()) {
+            if (rows.size() < 2) {
+                continue;
+            }
+
+            WatchHistory keeper = rows.stream()
+                    .max(Comparator.comparingInt((WatchHistory row) -> mergePrecedence(row.getStatus()))
+                            .thenComparing(WatchHistory::getId))
+                    .orElseThrow();
+
+            rows.stream().map(WatchHistory::getAddedDate).filter(Objects::nonNull).min(Comparator.naturalOrder())
+                    .ifPresent(keeper::setAddedDate);
+            keeper.setCompletedDate(rows.stream().map(WatchHistory::getCompletedDate).filter(Objects::nonNull)
+                    .max(Comparator.naturalOrder()).orElse(null));
+
+            kept.add(keeper);
+            rows.stream().filter(row -> row != keeper).map(WatchHistory::getId).forEach(removedIds::add);
+        }
+
+        if (removedIds.isEmpty()) {
+            return;
+        }
+
+        watchHistoryRepository.saveAll(kept);
+        watchHistoryRepository.deleteAllByIdInBatch(removedIds);
+
+        eventPublisher.publishEvent(new CatalogChangedEvent(EntityType.WATCH_HISTORY, ChangeType.UPDATED,
+                kept.stream().map(WatchHistory::getId).toList()));
+        eventPublisher.publishEvent(new CatalogChangedEvent(EntityType.WATCH_HISTORY, ChangeType.DELETED, removedIds));
+    }
+
+    private static int mergePrecedence(String status) {
+        return WatchStatus.find(status).map(MERGE_PRECEDENCE::indexOf).orElse(-1);
+    }
+
+    /**
+     * Удаляет фильмы, найденные поиском на главной странице: тот же запрос, то же экранирование
+     * и та же строка поиска без обрезки пробелов. Как и на главной, поиск по названию важнее жанра.
+     */
+    public int deleteMoviesMatching(String title, String genre) {
+        List<Long> ids;
+
+        if (title != null && !title.trim().isEmpty()) {
+            ids = movieRepository.findIdsByTitle(MovieRepository.containsPattern(title));
+        } else if (genre != null && !genre.trim().isEmpty()) {
+            ids = movieRepository.findIdsByGenre(MovieRepository.containsPattern(genre));
+        } else {
+            throw new RuntimeException("Для массового удаления нужно указать название или жанр");
+        }
+
+        int deleted = 0;
+
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            deleted += deleteMovies(ids.subList(from, Math.min(ids.size(), from + DELETE_CHUNK_SIZE)));
+        }
+
+        return deleted;
+    }
+
+    @Transactional(readOnly = true)
+    public List<MovieCard> searchByTitle(String title) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+
+        List<MovieCard> cards = snapshot.isActive() ? snapshot.findMovieCards(title, null) : movieRepository.findCardsByTitle(MovieRepository.containsPattern(title));
+        return commitSearch(event, "title", title, cards);
+    }
+
+    @Transactional(readOnly = true)
+    public List<MovieCard> searchByGenre(String genre) {
+        SearchEvent event = new SearchEvent();
+        event.begin();
+
+        List<MovieCard> cards = snapshot.isActive() ? snapshot.findMovieCards(null, genre) : movieRepository.findCardsByGenre(MovieRepository.containsPattern(genre));
+        return commitSearch(event, "genre", genre, cards);
     }
 
-    public List<Movie> searchByTitle(String title) {
-        return movieRepository.findByTitleContainingIgnoreCase(title);
+    private static List<MovieCard> commitSearch(SearchEvent event, String kind, String term, List<MovieCard> cards) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.term = term;
+            event.results = cards.size();
+            event.commit();
+        }
+        return cards;
     }
 
-    public List<Movie> searchByGenre(String genre) {
-        return movieRepository.findByGenreContainingIgnoreCase(genre);
+    private record CachedGenres(long version, Set<String> genres) {
     }
 }
\ No newline at end of file
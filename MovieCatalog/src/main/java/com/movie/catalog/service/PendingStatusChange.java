@@ -0,0 +1,35 @@
+package com.movie.catalog.service;
+
+import java.time.LocalDate;
+
+/**
+ * Изменение статуса просмотра фильма, ожидающее записи в БД.
+ *
+ * @param userId          ID пользователя, которому принадлежит запись истории
+ * @param movieId         ID фильма
+ * @param status          новый статус (на английском, как хранится в БД)
+ * @param createIfMissing создать запись истории, если для фильма ее еще нет
+ * @param date            дата изменения - используется как дата добавления или завершения
+ *
+ * @see WatchStatusWriteBehind
+ */
+
+record PendingStatusChange(Long userId,
+                           Long movieId,
+                           String status,
+                           boolean createIfMissing,
+                           LocalDate date) {
+
+    Key key() {
+        return new Key(userId, movieId);
+    }
+
+    PendingStatusChange mergeWith(PendingStatusChange newer) {
+        return new PendingStatusChange(userId, movieId, newer.status(),
+                createIfMissing || newer.createIfMissing(), newer.date());
+    }
+
+    /** Изменения с одинаковым ключом относятся к одной записи истории и объединяются в очереди. */
+    record Key(Long userId, Long movieId) {
+    }
+}
\ No newline at end of file
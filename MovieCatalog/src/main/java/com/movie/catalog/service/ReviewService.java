@@ -1,11 +1,23 @@
 package com.movie.catalog.service;
 
+import com.movie.catalog.archive.ArchiveStore;
+import com.movie.catalog.archive.ArchiveStore.Section;
+import com.movie.catalog.dto.*;
 import com.movie.catalog.entity.*;
+import com.movie.catalog.event.CatalogChangedEvent;
+import com.movie.catalog.event.CatalogChangedEvent.ChangeType;
+import com.movie.catalog.event.CatalogChangedEvent.EntityType;
 import com.movie.catalog.repository.*;
+import com.movie.catalog.snapshot.CatalogSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 /**
@@ -15,19 +27,28 @@ import java.util.*;
  * <ul>
  *   <li>Управление рецензиями через {@link #saveReview(Review)}, {@link #updateReview(Long, Review)}, {@link #deleteReview(Long)}</li>
  *   <li>Фильтрация рецензий по фильмам через {@link #getReviewsByMovieId(Long)}</li>
- *   <li>Получение данных через {@link #getAllReviews()} и {@link #getReviewById(Long)}</li>
+ *   <li>Получение данных через {@link #getReviewPage(ReviewSort, String, int)} и {@link #getReviewById(Long)}</li>
  * </ul>
  *
  * <p><strong>Основные методы:</strong></p>
  * <ul>
- *   <li>{@link #getAllReviews()} - получает список всех рецензий</li>
+ *   <li>{@link #getReviewPage(ReviewSort, String, int)} - получает страницу списка рецензий по курсору</li>
+ *   <li>{@link #getArchivedReviewPage(String, int)} - получает страницу рецензий, перенесенных в архив</li>
  *   <li>{@link #getReviewById(Long)} - получает рецензию по её ID</li>
+ *   <li>{@link #getReviewRow(Long)} - получает строку рецензии с названием фильма</li>
+ *   <li>{@link #getLatestReviews(Long, int, int)} - получает страницу последних рецензий фильма</li>
  *   <li>{@link #getReviewsByMovieId(Long)} - получает рецензии по ID фильма</li>
  *   <li>{@link #saveReview(Review)} - сохраняет рецензии в БД</li>
  *   <li>{@link #updateReview(Long, Review)} - обновляет информацию о существующей рецензии</li>
  *   <li>{@link #deleteReview(Long)} - удаляет рецензию по её ID</li>
+ *   <li>{@link #deleteReviews(Collection)} - удаляет набор рецензий одним запросом</li>
  * </ul>
  *
+ * <p>Все операции работают с рецензиями текущего пользователя ({@link CurrentUser}):
+ * чужие рецензии не видны и не изменяются, а новая рецензия записывается на текущего пользователя.</p>
+ *
+ * <p>В автономном режиме ({@link CatalogSnapshot#isActive()}) списки рецензий читаются из снимка каталога.</p>
+ *
  * @see ReviewRepository
  * @see Review
  * @see org.springframework.transaction.annotation.Transactional
@@ -37,40 +58,160 @@ import java.util.*;
 @Transactional
 public class ReviewService {
 
+    // архивные рецензии, от новых к старым
+    private static final Comparator<ReviewRow> ARCHIVE_ORDER =
+            Comparator.comparing(ReviewRow::watchDate).thenComparing(ReviewRow::id).reversed();
+
     private final ReviewRepository reviewRepository;
+    private final ArchiveStore archiveStore;
+    private final CatalogRowCounts rowCounts;
+    private final CatalogSnapshot snapshot;
+    private final CurrentUser currentUser;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired // автоматическое внедрение зависимости с сервисом
-    public ReviewService(ReviewRepository reviewRepository) {
+    public ReviewService(ReviewRepository reviewRepository,
+                         ArchiveStore archiveStore,
+                         CatalogRowCounts rowCounts,
+                         CatalogSnapshot snapshot,
+                         CurrentUser currentUser,
+                         ApplicationEventPublisher eventPublisher) {
         this.reviewRepository = reviewRepository;
+        this.archiveStore = archiveStore;
+        this.rowCounts = rowCounts;
+        this.snapshot = snapshot;
+        this.currentUser = currentUser;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<ReviewRow> getReviewPage(ReviewSort sort, String cursor, int size) {
+        // запрашивается на одну строку больше страницы, чтобы узнать, есть ли следующая
+        Limit limit = Limit.of(size + 1);
+        KeysetCursor after = KeysetCursor.decode(cursor).orElse(null);
+        List<ReviewRow> rows;
+
+        try {
+            rows = findRows(sort, after, limit);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            // курсор от другого порядка сортировки или поврежденный - список показывается с начала
+            rows = findRows(sort, null, limit);
+        }
+
+        return KeysetPage.of(rows, size, row -> switch (sort) {
+            case WATCH_DATE -> new KeysetCursor(row.watchDate().toString(), row.id());
+            case RATING -> new KeysetCursor(row.rating().toString(), row.id());
+        }, rowCounts.reviews());
     }
 
-    public List<Review> getAllReviews() {
-        return reviewRepository.findAll();
+    private List<ReviewRow> findRows(ReviewSort sort, KeysetCursor after, Limit limit) {
+        if (snapshot.isActive()) {
+            return snapshot.findReviewRows(currentUser.id(), sort, after, limit.max());
+        }
+
+        Long userId = currentUser.id();
+
+        if (after == null) {
+            return switch (sort) {
+                case WATCH_DATE -> reviewRepository.findFirstRowsByWatchDate(userId, limit);
+                case RATING -> reviewRepository.findFirstRowsByRating(userId, limit);
+            };
+        }
+
+        return switch (sort) {
+            case WATCH_DATE -> reviewRepository.findRowsByWatchDateAfter(userId, LocalDate.parse(after.value()), after.id(), limit);
+            case RATING -> reviewRepository.findRowsByRatingAfter(userId, Float.valueOf(after.value()), after.id(), limit);
+        };
     }
 
+    /**
+     * Страница архивных рецензий текущего пользователя. Архив читается из файлов целиком,
+     * поэтому страницы архива медленнее обычного списка.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ReviewRow> getArchivedReviewPage(String cursor, int size) {
+        List<ReviewRow> rows = new ArrayList<>(archiveStore.read(Section.REVIEWS, currentUser.id(), ReviewRow.class, ReviewRow::id));
+        rows.sort(ARCHIVE_ORDER);
+
+        KeysetCursor after = KeysetCursor.decode(cursor).orElse(null);
+        int from = 0;
+
+        if (after != null) {
+            try {
+                ReviewRow last = new ReviewRow(after.id(), null, null, null, null, LocalDate.parse(after.value()));
+                while (from < rows.size() && ARCHIVE_ORDER.compare(rows.get(from), last) <= 0) {
+                    from++;
+                }
+            } catch (DateTimeParseException e) {
+                // поврежденный курсор - архив показывается с начала
+                from = 0;
+            }
+        }
+
+        return KeysetPage.of(rows.subList(from, Math.min(rows.size(), from + size + 1)), size,
+                row -> new KeysetCursor(row.watchDate().toString(), row.id()), rows.size());
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Review> getReviewById(Long id) {
-        return reviewRepository.findById(id);
+        // фильм нужен форме редактирования, а после выхода из транзакции отложенная загрузка недоступна
+        return reviewRepository.findWithMovieById(currentUser.id(), id);
     }
 
-    public List<Review> getReviewsByMovieId(Long movieId) {
-        return reviewRepository.findByMovieId(movieId);
+    @Transactional(readOnly = true)
+    public List<ReviewRow> getReviewsByMovieId(Long movieId) {
+        if (snapshot.isActive()) {
+            return snapshot.findReviewRowsByMovieId(movieId, currentUser.id());
+        }
+        return reviewRepository.findRowsByMovieId(currentUser.id(), movieId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReviewRow> getLatestReviews(Long movieId, int page, int size) {
+        if (snapshot.isActive()) {
+            return snapshot.findLatestReviewRows(movieId, currentUser.id(), page, size);
+        }
+        return reviewRepository.findLatestRowsByMovieId(currentUser.id(), movieId, PageRequest.of(page, size));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ReviewRow> getReviewRow(Long id) {
+        return reviewRepository.findRowById(currentUser.id(), id);
     }
 
     public Review saveReview(Review review) {
-        return reviewRepository.save(review);
+        ChangeType changeType = review.getId() == null ? ChangeType.CREATED : ChangeType.UPDATED;
+
+        if (changeType == ChangeType.UPDATED && reviewRepository.findByIdAndUserId(review.getId(), currentUser.id()).isEmpty()) {
+            throw new RuntimeException("Рецензия не найден с ID: " + review.getId());
+        }
+
+        review.setUserId(currentUser.id());
+        Review saved = reviewRepository.save(review);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(EntityType.REVIEW, changeType, saved.getId()));
+        return saved;
     }
 
     public Review updateReview(Long id, Review reviewDetails) {
-        Review review = reviewRepository.findById(id).orElseThrow(() -> new RuntimeException("Рецензия не найден с ID: " + id));
+        Review review = reviewRepository.findByIdAndUserId(id, currentUser.id()).orElseThrow(() -> new RuntimeException("Рецензия не найден с ID: " + id));
 
         review.setRating(reviewDetails.getRating());
         review.setComment(reviewDetails.getComment());
         review.setWatchDate(reviewDetails.getWatchDate());
 
-        return reviewRepository.save(review);
+        Review saved = reviewRepository.save(review);
+        eventPublisher.publishEvent(CatalogChangedEvent.of(EntityType.REVIEW, ChangeType.UPDATED, id));
+        return saved;
     }
 
     public void deleteReview(Long id) {
-        reviewRepository.deleteById(id);
+        reviewRepository.deleteByIdIn(currentUser.id(), List.of(id));
+        eventPublisher.publishEvent(CatalogChangedEvent.of(EntityType.REVIEW, ChangeType.DELETED, id));
+    }
+
+    public int deleteReviews(Collection<Long> ids) {
+        int deleted = reviewRepository.deleteByIdIn(currentUser.id(), ids);
+        eventPublisher.publishEvent(new CatalogChangedEvent(EntityType.REVIEW, ChangeType.DELETED, ids));
+        return deleted;
     }
 }
\ No newline at end of file
@@ -1,12 +1,22 @@
 package com.movie.catalog.service;
 
+import com.movie.catalog.archive.ArchiveStore;
+import com.movie.catalog.archive.ArchiveStore.Section;
+import com.movie.catalog.dto.*;
 import com.movie.catalog.entity.*;
+import com.movie.catalog.event.CatalogChangedEvent;
+import com.movie.catalog.event.CatalogChangedEvent.ChangeType;
+import com.movie.catalog.event.CatalogChangedEvent.EntityType;
 import com.movie.catalog.repository.*;
+import com.movie.catalog.snapshot.CatalogSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 /**
@@ -20,18 +30,32 @@ import java.util.*;
  *
  * <p><strong>Основные методы:</strong></p>
  * <ul>
- *   <li>{@link #getAllWatchHistory()} - получает весь список истории просмотра</li>
+ *   <li>{@link #getWatchHistoryPage(WatchSort, String, int)} - получает страницу истории просмотра по курсору</li>
+ *   <li>{@link #getArchivedWatchHistoryPage(String, int)} - получает страницу завершенных просмотров, перенесенных в архив</li>
  *   <li>{@link #getWatchHistoryById(Long)} - получает запись об истории просмотра по её ID</li>
+ *   <li>{@link #getWatchRow(Long)} - получает строку истории просмотра с названием фильма</li>
  *   <li>{@link #getWatchHistoryByMovieId(Long)} - получает все записи истории просмотра для фильма</li>
  *   <li>{@link #saveWatchHistory(WatchHistory)} - сохраняет новую запись истории просмотра</li>
  *   <li>{@link #updateWatchHistory(Long, WatchHistory)} - обновляет данные о существующей записи истории просмотра</li>
  *   <li>{@link #deleteWatchHistory(Long)} - удаляет запись истории просмотра по её ID</li>
  *   <li>{@link #addMovieToWatchHistory(Movie, String)} - быстро добавляет фильм в историю просмотра со статусом запланировано</li>
- *   <li>{@link #changeWatchStatus(Long, String)} - изменяет статус просмотра для фильма</li>
+ *   <li>{@link #changeWatchStatus(Long, String)} - изменяет статус просмотра для фильма по допустимым переходам {@link WatchStatus}</li>
  *   <li>{@link #getWatchStatusStatistics()} - статистика по статусам</li>
+ *   <li>{@link #getWatchStatusCounts()} - число записей по каждому статусу</li>
+ *   <li>{@link #changeStatusBatch(Collection, String)} - изменяет статус набора записей одним запросом по допустимым переходам {@link WatchStatus}</li>
+ *   <li>{@link #markCompletedBatch(Collection, LocalDate)} - отмечает набор записей просмотренными по тем же правилам</li>
+ *   <li>{@link #deleteWatchHistoryBatch(Collection)} - удаляет набор записей одним запросом</li>
  * </ul>
  *
+ * <p>Все операции работают с историей просмотра текущего пользователя ({@link CurrentUser}):
+ * статистика считается только по его записям, а новые записи создаются от его имени.</p>
+ *
+ * <p>В автономном режиме ({@link CatalogSnapshot#isActive()}) список и статистика статусов читаются из снимка каталога.</p>
+ *
+ * <p>При включенной отложенной записи быстрое добавление и смена статуса передаются в {@link WatchStatusWriteBehind}.</p>
+ *
  * @see WatchHistoryRepository
+ * @see WatchStatusWriteBehind
  * @see MovieService
  * @see WatchHistory
  * @see org.springframework.transaction.annotation.Transactional
@@ -41,41 +65,141 @@ import java.util.*;
 @Transactional
 public class WatchHistoryService {
 
+    // архивные просмотры, от завершенных позже к завершенным раньше
+    private static final Comparator<WatchRow> ARCHIVE_ORDER =
+            Comparator.comparing(WatchRow::completedDate).thenComparing(WatchRow::id).reversed();
+
     private final WatchHistoryRepository watchHistoryRepository;
+    private final ArchiveStore archiveStore;
     private final MovieService movieService;
+    private final WatchStatusWriteBehind writeBehind;
+    private final CatalogRowCounts rowCounts;
+    private final CatalogSnapshot snapshot;
+    private final CurrentUser currentUser;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired // автоматическое внедрение зависимости с сервисом
     public WatchHistoryService(WatchHistoryRepository watchHistoryRepository,
-                               MovieService movieService) {
+                               ArchiveStore archiveStore,
+                               MovieService movieService,
+                               WatchStatusWriteBehind writeBehind,
+                               CatalogRowCounts rowCounts,
+                               CatalogSnapshot snapshot,
+                               CurrentUser currentUser,
+                               ApplicationEventPublisher eventPublisher) {
         this.watchHistoryRepository = watchHistoryRepository;
+        this.archiveStore = archiveStore;
         this.movieService = movieService;
+        this.writeBehind = writeBehind;
+        this.rowCounts = rowCounts;
+        this.snapshot = snapshot;
+        this.currentUser = currentUser;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<WatchHistory> getAllWatchHistory() {
-        List<WatchHistory> history = watchHistoryRepository.findAll();
-        history.forEach(this::translateStatusToRussian);
-        return history;
+    @Transactional(readOnly = true)
+    public KeysetPage<WatchRow> getWatchHistoryPage(WatchSort sort, String cursor, int size) {
+        // запрашивается на одну строку больше страницы, чтобы узнать, есть ли следующая
+        Limit limit = Limit.of(size + 1);
+        KeysetCursor after = KeysetCursor.decode(cursor).orElse(null);
+        List<WatchRow> rows;
+
+        try {
+            rows = findRows(sort, after, limit);
+        } catch (DateTimeParseException e) {
+            // курсор от другого порядка сортировки или поврежденный - список показывается с начала
+            rows = findRows(sort, null, limit);
+        }
+
+        // курсор строится по статусу в том виде, в котором он хранится в БД, перевод - после
+        return KeysetPage.of(rows, size, row -> switch (sort) {
+                    case ADDED_DATE -> new KeysetCursor(row.addedDate().toString(), row.id());
+                    case STATUS -> new KeysetCursor(row.status(), row.id());
+                }, rowCounts.watchHistory())
+                .map(row -> row.withStatus(translateStatusToRussian(row.status())));
+    }
+
+    private List<WatchRow> findRows(WatchSort sort, KeysetCursor after, Limit limit) {
+        if (snapshot.isActive()) {
+            return snapshot.findWatchRows(currentUser.id(), sort, after, limit.max());
+        }
+
+        Long userId = currentUser.id();
+
+        if (after == null) {
+            return switch (sort) {
+                case ADDED_DATE -> watchHistoryRepository.findFirstRowsByAddedDate(userId, limit);
+                case STATUS -> watchHistoryRepository.findFirstRowsByStatus(userId, limit);
+            };
+        }
+
+        return switch (sort) {
+            case ADDED_DATE -> watchHistoryRepository.findRowsByAddedDateAfter(userId, LocalDate.parse(after.value()), after.id(), limit);
+            case STATUS -> watchHistoryRepository.findRowsByStatusAfter(userId, after.value(), after.id(), limit);
+        };
     }
 
+    /**
+     * Страница архивных просмотров текущего пользователя. Архив читается из файлов целиком,
+     * поэтому страницы архива медленнее обычного списка.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<WatchRow> getArchivedWatchHistoryPage(String cursor, int size) {
+        List<WatchRow> rows = new ArrayList<>(archiveStore.read(Section.WATCH_HISTORY, currentUser.id(), WatchRow.class, WatchRow::id));
+        rows.sort(ARCHIVE_ORDER);
+
+        KeysetCursor after = KeysetCursor.decode(cursor).orElse(null);
+        int from = 0;
+
+        if (after != null) {
+            try {
+                WatchRow last = new WatchRow(after.id(), null, null, null, null, LocalDate.parse(after.value()));
+                while (from < rows.size() && ARCHIVE_ORDER.compare(rows.get(from), last) <= 0) {
+                    from++;
+                }
+            } catch (DateTimeParseException e) {
+                // поврежденный курсор - архив показывается с начала
+                from = 0;
+            }
+        }
+
+        return KeysetPage.of(rows.subList(from, Math.min(rows.size(), from + size + 1)), size,
+                        row -> new KeysetCursor(row.completedDate().toString(), row.id()), rows.size())
+                .map(row -> row.withStatus(translateStatusToRussian(row.status())));
+    }
+
+    @Transactional(readOnly = true)
     public Optional<WatchHistory> getWatchHistoryById(Long id) {
-        return watchHistoryRepository.findById(id)
+        return watchHistoryRepository.findByIdAndUserId(id, currentUser.id())
                 .map(this::translateStatusToRussian);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<WatchRow> getWatchRow(Long id) {
+        return watchHistoryRepository.findRowById(currentUser.id(), id)
+                .map(row -> row.withStatus(translateStatusToRussian(row.status())));
+    }
+
+    @Transactional(readOnly = true)
     public List<WatchHistory> getWatchHistoryByMovieId(Long movieId) {
-        List<WatchHistory> history = watchHistoryRepository.findByMovieId(movieId);
+        List<WatchHistory> history = watchHistoryRepository.findByUserIdAndMovieId(currentUser.id(), movieId);
         history.forEach(this::translateStatusToRussian);
         return history;
     }
 
     public WatchHistory saveWatchHistory(WatchHistory watchHistory) {
+        if (watchHistory.getId() != null && watchHistoryRepository.findByIdAndUserId(watchHistory.getId(), currentUser.id()).isEmpty()) {
+            throw new RuntimeException("Запись истории просмотра не найдена с ID: " + watchHistory.getId());
+        }
+
         watchHistory.setStatus(translateStatusToEnglish(watchHistory.getStatus()));
-        return watchHistoryRepository.save(watchHistory);
+        watchHistory.setUserId(currentUser.id());
+        return publishSaved(watchHistoryRepository.save(watchHistory), ChangeType.CREATED);
     }
 
     public WatchHistory updateWatchHistory(Long id,
                                            WatchHistory watchHistoryDetails) {
-        WatchHistory watchHistory = watchHistoryRepository.findById(id).orElseThrow(() -> new RuntimeException("Запись истории просмотра не найдена с ID: " + id));
+        WatchHistory watchHistory = watchHistoryRepository.findByIdAndUserId(id, currentUser.id()).orElseThrow(() -> new RuntimeException("Запись истории просмотра не найдена с ID: " + id));
 
         watchHistoryDetails.setStatus(translateStatusToEnglish(watchHistoryDetails.getStatus()));
 
@@ -87,10 +211,13 @@ public class WatchHistoryService {
             watchHistory.setMovie(watchHistoryDetails.getMovie());
         }
 
-        return watchHistoryRepository.save(watchHistory);
+        return publishSaved(watchHistoryRepository.save(watchHistory), ChangeType.UPDATED);
     }
 
-    public void deleteWatchHistory(Long id) { watchHistoryRepository.deleteById(id); }
+    public void deleteWatchHistory(Long id) {
+        watchHistoryRepository.deleteByIdIn(currentUser.id(), List.of(id));
+        eventPublisher.publishEvent(CatalogChangedEvent.of(EntityType.WATCH_HISTORY, ChangeType.DELETED, id));
+    }
 
     public WatchHistory addMovieToWatchHistory(Movie movie,
                                                String status) {
@@ -99,22 +226,134 @@ public class WatchHistoryService {
         watchHistory.setMovie(movie);
         watchHistory.setStatus(translateStatusToEnglish(status));
         watchHistory.setAddedDate(LocalDate.now());
+        watchHistory.setUserId(currentUser.id());
+
+        if (writeBehind.isEnabled()) {
+            writeBehind.enqueue(currentUser.id(), movie.getId(), watchHistory.getStatus(), true);
+            return watchHistory;
+        }
 
-        return watchHistoryRepository.save(watchHistory);
+        return publishSaved(watchHistoryRepository.save(watchHistory), ChangeType.CREATED);
     }
 
+    /**
+     * Переводит последнюю запись истории фильма в новый статус по правилам {@link WatchStatus}.
+     * Переход выполняется одним условным UPDATE; если запись уже в другом статусе,
+     * из которого переход недопустим, она не меняется и выбрасывается исключение.
+     */
     public WatchHistory changeWatchStatus(Long movieId, String newStatus) {
-        WatchHistory watchHistory = watchHistoryRepository.findByMovieIdAndStatus(movieId, "watching").orElseThrow(() -> new RuntimeException("Фильм не найден в истории просмотра"));
+        WatchStatus target = WatchStatus.find(newStatus).orElseThrow(() -> new RuntimeException("Неизвестный статус просмотра: " + newStatus));
 
-        watchHistory.setStatus(translateStatusToEnglish(newStatus));
+        Long userId = currentUser.id();
 
-        if ("completed".equals(newStatus)) {
-            watchHistory.setCompletedDate(LocalDate.now());
+        if (writeBehind.isEnabled()) {
+            // переход проверяется относительно статуса, еще ожидающего записи, а если его нет - последней записи в БД
+            String currentStatus = writeBehind.pendingStatus(userId, movieId)
+                    .or(() -> watchHistoryRepository.findFirstByUserIdAndMovieIdOrderByIdDesc(userId, movieId).map(WatchHistory::getStatus))
+                    .orElseThrow(() -> new RuntimeException("Фильм не найден в истории просмотра"));
+            checkTransition(currentStatus, target);
+
+            // запись в БД выполнится позже, возвращается еще не сохраненное состояние
+            writeBehind.enqueue(userId, movieId, target.getCode(), false);
+            return new WatchHistory(target.getCode(), LocalDate.now(), null);
         }
-        return watchHistoryRepository.save(watchHistory);
+
+        // дата завершения ставится при завершении и сбрасывается при пересмотре
+        LocalDate completedDate = target == WatchStatus.COMPLETED ? LocalDate.now() : null;
+
+        int updated = watchHistoryRepository.transitionLatestStatus(userId, movieId, sourceValuesOf(target), target.getCode(), completedDate);
+        WatchHistory watchHistory = watchHistoryRepository.findFirstByUserIdAndMovieIdOrderByIdDesc(userId, movieId)
+                .orElseThrow(() -> new RuntimeException("Фильм не найден в истории просмотра"));
+
+        if (updated == 0) {
+            checkTransition(watchHistory.getStatus(), target);
+            // переход допустим - значит, статус сменил параллельный запрос между UPDATE и чтением записи
+            throw new RuntimeException("Статус фильма изменился во время запроса, сейчас «" + translateStatusToRussian(watchHistory.getStatus()) + "»");
+        }
+        return publishSaved(watchHistory, ChangeType.UPDATED);
     }
 
-    public List<Object[]> getWatchStatusStatistics() { return watchHistoryRepository.getWatchStatusStatistics(); }
+    private void checkTransition(String currentStatus, WatchStatus target) {
+        WatchStatus current = WatchStatus.find(currentStatus).orElse(null);
+        String currentLabel = translateStatusToRussian(currentStatus);
+
+        if (current == target) {
+            throw new RuntimeException("Фильм уже имеет статус " + currentLabel);
+        }
+        if (current == null || !current.canMoveTo(target)) {
+            throw new RuntimeException("Нельзя сменить статус «" + currentLabel + "» на «" + target.getLabel() + "»");
+        }
+    }
+
+    /**
+     * Переводит записи в новый статус одним условным UPDATE; записи, из статуса которых переход недопустим,
+     * не меняются и не входят ни в результат, ни в событие изменения.
+     */
+    public int changeStatusBatch(Collection<Long> ids, String newStatus) {
+        WatchStatus target = WatchStatus.find(newStatus).orElseThrow(() -> new RuntimeException("Неизвестный статус просмотра: " + newStatus));
+        return transitionBatch(ids, target, target == WatchStatus.COMPLETED ? LocalDate.now() : null);
+    }
+
+    public int markCompletedBatch(Collection<Long> ids, LocalDate completedDate) {
+        return transitionBatch(ids, WatchStatus.COMPLETED, completedDate != null ? completedDate : LocalDate.now());
+    }
+
+    private int transitionBatch(Collection<Long> ids, WatchStatus target, LocalDate completedDate) {
+        // дата завершения ставится при завершении и сбрасывается при переходе в другой статус
+        Long userId = currentUser.id();
+        List<String> fromStatuses = sourceValuesOf(target);
+        List<Long> changedIds = watchHistoryRepository.lockTransitionable(userId, ids, fromStatuses).stream()
+                .map(WatchHistory::getId)
+                .toList();
+
+        if (changedIds.isEmpty()) {
+            return 0;
+        }
+
+        int updated = watchHistoryRepository.transitionStatusByIdIn(userId, changedIds, fromStatuses, target.getCode(), completedDate);
+        eventPublisher.publishEvent(new CatalogChangedEvent(EntityType.WATCH_HISTORY, ChangeType.UPDATED, changedIds));
+        return updated;
+    }
+
+    private static List<String> sourceValuesOf(WatchStatus target) {
+        return WatchStatus.sourcesOf(target).stream()
+                .flatMap(status -> status.getStoredValues().stream())
+                .toList();
+    }
+
+    public int deleteWatchHistoryBatch(Collection<Long> ids) {
+        int deleted = watchHistoryRepository.deleteByIdIn(currentUser.id(), ids);
+        eventPublisher.publishEvent(new CatalogChangedEvent(EntityType.WATCH_HISTORY, ChangeType.DELETED, ids));
+        return deleted;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Object[]> getWatchStatusStatistics() {
+        List<Object[]> statistics = new ArrayList<>();
+        getWatchStatusCounts().forEach((status, count) -> statistics.add(new Object[]{status, count}));
+        return statistics;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Long> getWatchStatusCounts() {
+        // статусы в БД могут храниться как на английском, так и на русском - сводим к русским названиям
+        Map<String, Long> totals = new LinkedHashMap<>();
+
+        if (snapshot.isActive()) {
+            snapshot.countWatchStatuses(currentUser.id()).forEach((status, count) -> totals.merge(translateStatusToRussian(status), count, Long::sum));
+            return totals;
+        }
+
+        for (Object[] stat : watchHistoryRepository.getWatchStatusStatistics(currentUser.id())) {
+            totals.merge(translateStatusToRussian((String) stat[0]), (Long) stat[1], Long::sum);
+        }
+        return totals;
+    }
+
+    private WatchHistory publishSaved(WatchHistory watchHistory, ChangeType changeType) {
+        eventPublisher.publishEvent(CatalogChangedEvent.of(EntityType.WATCH_HISTORY, changeType, watchHistory.getId()));
+        return watchHistory;
+    }
 
     private WatchHistory translateStatusToRussian(WatchHistory watchHistory) {
         if (watchHistory != null) {
@@ -124,27 +363,11 @@ public class WatchHistoryService {
         return watchHistory;
     }
 
-    private String translateStatusToRussian(String englishStatus) {
-        if (englishStatus == null) return null;
-
-        return switch (englishStatus.toLowerCase()) {
-            case "planned" -> "Запланировано";
-            case "watching" -> "Смотрю";
-            case "completed" -> "Просмотрено";
-            case "dropped" -> "Брошено";
-            default -> englishStatus;
-        };
+    static String translateStatusToRussian(String englishStatus) {
+        return WatchStatus.find(englishStatus).map(WatchStatus::getLabel).orElse(englishStatus);
     }
 
-    private String translateStatusToEnglish(String russianStatus) {
-        if (russianStatus == null) return null;
-
-        return switch (russianStatus.toLowerCase()) {
-            case "запланировано" -> "planned";
-            case "смотрю" -> "watching";
-            case "просмотрено" -> "completed";
-            case "брошено" -> "dropped";
-            default -> russianStatus;
-        };
+    static String translateStatusToEnglish(String russianStatus) {
+        return WatchStatus.find(russianStatus).map(WatchStatus::getCode).orElse(russianStatus);
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.movie.catalog.service;
+
+import java.util.*;
+
+/**
+ * Статус просмотра и допустимые переходы между статусами.
+ *
+ * <p>В БД статус хранится английским кодом ({@link #getCode()}), в интерфейсе показывается русское название
+ * ({@link #getLabel()}); в старых записях может встретиться и русское название, поэтому
+ * {@link #getStoredValues()} возвращает оба варианта в нижнем регистре.</p>
+ *
+ * <p>Переходы:
+ * <ul>
+ *   <li>Запланировано - Смотрю, Просмотрено, Брошено</li>
+ *   <li>Смотрю - Просмотрено, Брошено, Запланировано</li>
+ *   <li>Просмотрено - Смотрю (пересмотр)</li>
+ *   <li>Брошено - Запланировано, Смотрю</li>
+ * </ul>
+ * Переход в тот же статус недопустим: повторный запрос не меняет запись второй раз.</p>
+ *
+ * @see WatchHistoryService#changeWatchStatus(Long, String)
+ */
+
+public enum WatchStatus {
+    PLANNED("planned", "Запланировано"),
+    WATCHING("watching", "Смотрю"),
+    COMPLETED("completed", "Просмотрено"),
+    DROPPED("dropped", "Брошено");
+
+    private final String code;
+    private final String label;
+
+    WatchStatus(String code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public List<String> getStoredValues() {
+        return List.of(code, label.toLowerCase());
+    }
+
+    public Set<WatchStatus> next() {
+        return switch (this) {
+            case PLANNED -> EnumSet.of(WATCHING, COMPLETED, DROPPED);
+            case WATCHING -> EnumSet.of(COMPLETED, DROPPED, PLANNED);
+            case COMPLETED -> EnumSet.of(WATCHING);
+            case DROPPED -> EnumSet.of(PLANNED, WATCHING);
+        };
+    }
+
+    public boolean canMoveTo(WatchStatus target) {
+        return next().contains(target);
+    }
+
+    /**
+     * Статусы, из которых допустим переход в {@code target}.
+     */
+    public static Set<WatchStatus> sourcesOf(WatchStatus target) {
+        Set<WatchStatus> sources = EnumSet.noneOf(WatchStatus.class);
+        for (WatchStatus status : values()) {
+            if (status.canMoveTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Статус по английскому коду или русскому названию без учета регистра.
+     */
+    public static Optional<WatchStatus> find(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+
+        String normalized = value.trim().toLowerCase();
+        for (WatchStatus status : values()) {
+            if (status.code.equals(normalized) || status.label.toLowerCase().equals(normalized)) {
+                return Optional.of(status);
+            }
+        }
+        return Optional.empty();
+    }
+}
\ No newline at end of file
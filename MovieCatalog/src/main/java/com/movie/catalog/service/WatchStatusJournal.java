@@ -0,0 +1,126 @@
+package com.movie.catalog.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Локальный журнал изменений статуса просмотра, еще не записанных в БД.
+ *
+ * <p>Каждое изменение дописывается в конец файла строкой {@code movieId;status;create;date;userId}
+ * и сбрасывается на диск до подтверждения клиенту. После успешной записи пакета в БД
+ * журнал атомарно перезаписывается оставшимися изменениями.</p>
+ *
+ * <p>При восстановлении читаются только строки, заканчивающиеся переводом строки: последняя строка без него
+ * оборвана сбоем во время записи. Строка, которую не удается разобрать, пропускается с предупреждением.
+ * После восстановления журнал перезаписывается ({@link #rewrite(Collection)}), поэтому следующая запись
+ * не дописывается к оборванной строке.</p>
+ *
+ * <p>Строки без ID пользователя записаны до разделения истории по пользователям
+ * и восстанавливаются от имени пользователя по умолчанию.</p>
+ *
+ * @see WatchStatusWriteBehind
+ */
+
+class WatchStatusJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchStatusJournal.class);
+
+    private final Path path;
+    private FileChannel channel;
+
+    WatchStatusJournal(Path path) throws IOException {
+        this.path = path.toAbsolutePath();
+
+        if (this.path.getParent() != null) {
+            Files.createDirectories(this.path.getParent());
+        }
+        this.channel = open();
+    }
+
+    List<PendingStatusChange> readAll(Long defaultUserId) throws IOException {
+        List<PendingStatusChange> changes = new ArrayList<>();
+
+        String content = Files.readString(path, StandardCharsets.UTF_8);
+        // все, что после последнего перевода строки, - строка, оборванная сбоем во время записи
+        int end = content.lastIndexOf('\n');
+        if (end < content.length() - 1) {
+            log.warn("Пропущена оборванная последняя строка журнала изменений статуса {}", path);
+        }
+
+        for (String line : content.substring(0, end + 1).split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                changes.add(parse(line, defaultUserId));
+            } catch (RuntimeException e) {
+                log.warn("Пропущена поврежденная строка журнала изменений статуса \"{}\": {}", line, e.getMessage());
+            }
+        }
+
+        return changes;
+    }
+
+    private static PendingStatusChange parse(String line, Long defaultUserId) {
+        // с отрицательным лимитом пустые поля в конце строки не отбрасываются
+        String[] parts = line.split(";", -1);
+
+        if (parts.length != 4 && parts.length != 5) {
+            throw new IllegalArgumentException("ожидается 4 или 5 полей, найдено " + parts.length);
+        }
+        if (parts[1].isEmpty()) {
+            throw new IllegalArgumentException("не указан статус");
+        }
+        if (!parts[2].equals("true") && !parts[2].equals("false")) {
+            throw new IllegalArgumentException("неверный признак создания записи: " + parts[2]);
+        }
+
+        Long userId = parts.length == 5 ? Long.valueOf(parts[4]) : defaultUserId;
+        return new PendingStatusChange(userId, Long.parseLong(parts[0]), parts[1],
+                Boolean.parseBoolean(parts[2]), LocalDate.parse(parts[3]));
+    }
+
+    void append(PendingStatusChange change) throws IOException {
+        channel.write(ByteBuffer.wrap(format(change).getBytes(StandardCharsets.UTF_8)));
+        channel.force(false);
+    }
+
+    void rewrite(Collection<PendingStatusChange> changes) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        StringBuilder content = new StringBuilder();
+        changes.forEach(change -> content.append(format(change)));
+
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)));
+            out.force(true);
+        }
+
+        channel.close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static String format(PendingStatusChange change) {
+        return change.movieId() + ";" + change.status() + ";" + change.createIfMissing() + ";" + change.date()
+                + ";" + change.userId() + "\n";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.movie.catalog.service;
+
+import com.movie.catalog.config.WatchStatusWriteBehindProperties;
+import com.movie.catalog.entity.*;
+import com.movie.catalog.event.CatalogChangedEvent;
+import com.movie.catalog.event.CatalogChangedEvent.ChangeType;
+import com.movie.catalog.event.CatalogChangedEvent.EntityType;
+import com.movie.catalog.repository.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Отложенная запись изменений статуса просмотра (write-behind).
+ *
+ * <p>Когда режим включен ({@code catalog.watch-history.write-behind.enabled=true}),
+ * {@link WatchHistoryService#changeWatchStatus(Long, String)} и
+ * {@link WatchHistoryService#addMovieToWatchHistory(Movie, String)} не пишут в БД в потоке запроса:
+ * <ul>
+ *   <li>изменение сохраняется в журнал на диске и в очередь в памяти</li>
+ *   <li>изменения одного фильма у одного пользователя объединяются - побеждает последнее</li>
+ *   <li>очередь записывается в БД пакетами по расписанию или при достижении размера пакета</li>
+ *   <li>если очередь заполнена, запись выполняется синхронно в потоке запроса; если и после этого
+ *       места нет (БД недоступна), изменение отклоняется с исключением</li>
+ *   <li>при старте неподтвержденные изменения восстанавливаются из журнала</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Допустимость перехода {@link WatchStatus} проверяет {@link WatchHistoryService} до постановки в очередь,
+ * сравнивая с последним статусом в очереди ({@link #pendingStatus(Long, Long)}) или в БД, поэтому здесь изменение
+ * применяется к последней записи истории фильма без повторной проверки. Запись создается, только если изменение
+ * пришло из быстрого добавления фильма; изменение для записи, удаленной до записи очереди, отбрасывается
+ * с предупреждением в журнале приложения. Изменения пакета
+ * записываются от имени их пользователей ({@link CurrentUser#runAs(Long, Runnable)}), поэтому
+ * подписчики событий изменения видят, чью историю изменила запись.</p>
+ *
+ * @see WatchStatusJournal
+ * @see WatchStatusWriteBehindProperties
+ */
+
+@Component
+public class WatchStatusWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchStatusWriteBehind.class);
+
+    private final WatchHistoryRepository watchHistoryRepository;
+    private final MovieRepository movieRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WatchStatusWriteBehindProperties properties;
+    private final CurrentUser currentUser;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<PendingStatusChange.Key, PendingStatusChange> pending = new LinkedHashMap<>();
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private ExecutorService flushExecutor;
+    private WatchStatusJournal journal;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public WatchStatusWriteBehind(WatchHistoryRepository watchHistoryRepository,
+                                  MovieRepository movieRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  WatchStatusWriteBehindProperties properties,
+                                  CurrentUser currentUser,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.watchHistoryRepository = watchHistoryRepository;
+        this.movieRepository = movieRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.currentUser = currentUser;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+
+        journal = new WatchStatusJournal(properties.getJournal());
+        flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "watch-status-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<PendingStatusChange> recovered = journal.readAll(currentUser.defaultId());
+        recovered.forEach(this::merge);
+
+        if (!recovered.isEmpty()) {
+            log.info("Восстановлено {} изменений статуса из журнала, фильмов: {}", recovered.size(), pending.size());
+        }
+        // перезапись убирает оборванную и поврежденные строки, иначе следующая запись допишется к оборванной
+        journal.rewrite(pending.values());
+    }
+
+    public void enqueue(Long userId, Long movieId, String status, boolean createIfMissing) {
+        PendingStatusChange change = new PendingStatusChange(userId, movieId, status, createIfMissing, LocalDate.now());
+
+        if (!offer(change)) {
+            flush();
+
+            if (!offer(change)) {
+                throw new RuntimeException("Очередь изменений статуса заполнена и не записывается в БД, повторите позже");
+            }
+        }
+
+        if (pendingCount() >= properties.getBatchSize() && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Статус фильма пользователя, ожидающий записи в БД.
+     */
+    public Optional<String> pendingStatus(Long userId, Long movieId) {
+        synchronized (pending) {
+            return Optional.ofNullable(pending.get(new PendingStatusChange.Key(userId, movieId))).map(PendingStatusChange::status);
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.watch-history.write-behind.flush-interval:2s}")
+    public void scheduledFlush() {
+        if (isEnabled()) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        synchronized (flushLock) {
+            List<PendingStatusChange> batch;
+
+            synchronized (pending) {
+                batch = new ArrayList<>(pending.values());
+            }
+
+            for (int from = 0; from < batch.size(); from += properties.getBatchSize()) {
+                List<PendingStatusChange> chunk = batch.subList(from, Math.min(batch.size(), from + properties.getBatchSize()));
+
+                try {
+                    // транзакция на каждого пользователя: подписчики событий после коммита видят его как текущего;
+                    // при сбое пакет повторяется целиком, а повторная запись того же статуса ничего не меняет
+                    chunk.stream()
+                            .collect(Collectors.groupingBy(PendingStatusChange::userId, LinkedHashMap::new, Collectors.toList()))
+                            .forEach((userId, changes) -> currentUser.runAs(userId,
+                                    () -> transactionTemplate.executeWithoutResult(status -> apply(userId, changes))));
+                } catch (RuntimeException e) {
+                    log.warn("Не удалось записать {} изменений статуса, повтор при следующей записи: {}", chunk.size(), e.getMessage());
+                    return;
+                }
+
+                acknowledge(chunk);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+
+        flushExecutor.shutdown();
+        flush();
+        journal.close();
+    }
+
+    private void apply(Long userId, List<PendingStatusChange> chunk) {
+        Set<Long> movieIds = chunk.stream().map(PendingStatusChange::movieId).collect(Collectors.toSet());
+        Map<Long, WatchHistory> existing = watchHistoryRepository.findByUserIdAndMovieIdIn(userId, movieIds).stream()
+                .collect(Collectors.toMap(watchHistory -> watchHistory.getMovie().getId(), Function.identity(),
+                        (first, second) -> first.getId() > second.getId() ? first : second));
+
+        List<WatchHistory> toSave = new ArrayList<>();
+
+        for (PendingStatusChange change : chunk) {
+            WatchHistory watchHistory = existing.get(change.movieId());
+
+            if (watchHistory == null) {
+                if (!change.createIfMissing() || !movieRepository.existsById(change.movieId())) {
+                    log.warn("Изменение статуса фильма {} на {} отброшено: записи истории пользователя {} больше нет",
+                            change.movieId(), change.status(), userId);
+                    continue;
+                }
+
+                watchHistory = new WatchHistory(change.status(), change.date(), movieRepository.getReferenceById(change.movieId()));
+                watchHistory.setUserId(userId);
+            }
+
+            watchHistory.setStatus(change.status());
+            // как и при синхронной смене: дата завершения ставится при завершении и сбрасывается при пересмотре
+            watchHistory.setCompletedDate(WatchStatus.COMPLETED.getCode().equals(change.status()) ? change.date() : null);
+            toSave.add(watchHistory);
+        }
+
+        List<WatchHistory> saved = watchHistoryRepository.saveAll(toSave);
+        eventPublisher.publishEvent(new CatalogChangedEvent(EntityType.WATCH_HISTORY, ChangeType.UPDATED,
+                saved.stream().map(WatchHistory::getId).toList()));
+    }
+
+    private void acknowledge(List<PendingStatusChange> written) {
+        synchronized (pending) {
+            // изменение, пришедшее во время записи, заменило объект в очереди и остается в ней
+            written.forEach(change -> pending.remove(change.key(), change));
+
+            try {
+                journal.rewrite(pending.values());
+            } catch (IOException e) {
+                log.warn("Не удалось сжать журнал изменений статуса: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ставит изменение в очередь, если в ней есть место. Изменение фильма, уже стоящего в очереди, место не занимает.
+     */
+    private boolean offer(PendingStatusChange change) {
+        synchronized (pending) {
+            if (pending.size() >= properties.getCapacity() && !pending.containsKey(change.key())) {
+                return false;
+            }
+
+            try {
+                journal.append(change);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось записать изменение статуса в журнал", e);
+            }
+
+            merge(change);
+            return true;
+        }
+    }
+
+    private void merge(PendingStatusChange change) {
+        pending.merge(change.key(), change, PendingStatusChange::mergeWith);
+    }
+}
\ No newline at end of file
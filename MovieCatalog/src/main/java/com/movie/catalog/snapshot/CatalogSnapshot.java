@@ -0,0 +1,556 @@
+package com.movie.catalog.snapshot;
+
+import com.movie.catalog.config.SnapshotProperties;
+import com.movie.catalog.dto.*;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+import static com.movie.catalog.snapshot.SnapshotFormat.*;
+
+/**
+ * Снимок каталога, отображенный в память.
+ *
+ * <p>В автономном режиме ({@code catalog.snapshot.offline=true}) файл снимка отображается в память при старте,
+ * и сервисы читают из него главную страницу, страницу фильма и списки рецензий и истории просмотра вместо БД.
+ * Записи не копируются в кучу: значения читаются из отображенного файла при построении строк страницы.</p>
+ *
+ * <p>Фильмы находятся по ID двоичным поиском по разделу фильмов. Порядки обхода для сортировок списков
+ * строятся один раз при открытии снимка, страница по курсору находится в них двоичным поиском.</p>
+ *
+ * <p>Снимок содержит рецензии и историю просмотра всех пользователей. Методы, читающие их, принимают ID пользователя
+ * и возвращают только его записи; порядки обхода сначала упорядочены по пользователю, поэтому записи
+ * одного пользователя идут в них подряд.</p>
+ *
+ * <p>Вне автономного режима снимок не открывается и {@link #isActive()} возвращает {@code false}.</p>
+ *
+ * @see CatalogSnapshotWriter
+ * @see SnapshotFormat
+ * @see SnapshotProperties
+ */
+
+@Component
+public class CatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshot.class);
+
+    private final SnapshotProperties properties;
+
+    private ByteBuffer buffer;
+
+    private int movieCount;
+    private int moviesOffset;
+    private int reviewCount;
+    private int reviewsOffset;
+    private int watchCount;
+    private int watchOffset;
+    private int stringsOffset;
+
+    private Map<Long, Long> reviewCounts;
+    private Map<Long, Long> watchCounts;
+
+    private int[] reviewsByWatchDate;
+    private int[] reviewsByRating;
+    private int[] watchByAddedDate;
+    private int[] watchByStatus;
+
+    @Autowired // автоматическое внедрение зависимости
+    public CatalogSnapshot(SnapshotProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void open() {
+        if (!properties.isOffline()) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        Path path = properties.getPath();
+        ByteBuffer mapped;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new RuntimeException("Снимок каталога больше 2 ГБ: " + path);
+            }
+            // отображение остается доступным после закрытия канала
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть снимок каталога: " + path, e);
+        }
+
+        if (mapped.capacity() < HEADER_SIZE || mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+            throw new RuntimeException("Файл не является снимком каталога версии " + VERSION + ": " + path);
+        }
+
+        movieCount = mapped.getInt(16);
+        moviesOffset = (int) mapped.getLong(20);
+        reviewCount = mapped.getInt(28);
+        reviewsOffset = (int) mapped.getLong(32);
+        watchCount = mapped.getInt(40);
+        watchOffset = (int) mapped.getLong(44);
+        stringsOffset = (int) mapped.getLong(52);
+        buffer = mapped;
+
+        reviewCounts = new HashMap<>();
+        for (int i = 0; i < reviewCount; i++) {
+            reviewCounts.merge(reviewUserId(i), 1L, Long::sum);
+        }
+        watchCounts = new HashMap<>();
+        for (int i = 0; i < watchCount; i++) {
+            watchCounts.merge(watchUserId(i), 1L, Long::sum);
+        }
+
+        reviewsByWatchDate = order(reviewCount, (a, b) -> compareReviewsByWatchDate(a, reviewUserId(b), reviewWatchDate(b), reviewId(b)));
+        reviewsByRating = order(reviewCount, (a, b) -> compareReviewsByRating(a, reviewUserId(b), reviewRating(b), reviewId(b)));
+        watchByAddedDate = order(watchCount, (a, b) -> compareWatchByAddedDate(a, watchUserId(b), watchAddedDate(b), watchId(b)));
+        watchByStatus = order(watchCount, (a, b) -> compareWatchByStatus(a, watchUserId(b), watchStatus(b), watchId(b)));
+
+        log.info("Открыт снимок каталога {} от {}: {} фильмов, {} рецензий, {} записей истории за {} мс",
+                path, Instant.ofEpochMilli(mapped.getLong(8)), movieCount, reviewCount, watchCount, System.currentTimeMillis() - startTime);
+    }
+
+    public boolean isActive() {
+        return buffer != null;
+    }
+
+    public long countMovies() {
+        return movieCount;
+    }
+
+    public long countReviews(long userId) {
+        return reviewCounts.getOrDefault(userId, 0L);
+    }
+
+    public long countWatchHistory(long userId) {
+        return watchCounts.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Карточки фильмов, название и жанр которых содержат заданные строки без учета регистра.
+     * Фильтр {@code null} не ограничивает выборку.
+     */
+    public List<MovieCard> findMovieCards(String titleFilter, String genreFilter) {
+        String title = titleFilter != null ? titleFilter.toLowerCase() : null;
+        String genre = genreFilter != null ? genreFilter.toLowerCase() : null;
+        List<MovieCard> cards = new ArrayList<>();
+
+        for (int i = 0; i < movieCount; i++) {
+            int base = movieBase(i);
+
+            if (contains(string(base + MOVIE_TITLE), title) && contains(string(base + MOVIE_GENRE), genre)) {
+                cards.add(movieCard(i));
+            }
+        }
+        return cards;
+    }
+
+    public List<String> findDistinctGenres() {
+        Set<String> genres = new LinkedHashSet<>();
+
+        for (int i = 0; i < movieCount; i++) {
+            String genre = string(movieBase(i) + MOVIE_GENRE);
+            if (genre != null) {
+                genres.add(genre);
+            }
+        }
+        return new ArrayList<>(genres);
+    }
+
+    public Optional<String> findMovieTitle(long movieId) {
+        int index = movieIndex(movieId);
+        return index >= 0 ? Optional.ofNullable(string(movieBase(index) + MOVIE_TITLE)) : Optional.empty();
+    }
+
+    /**
+     * Данные страницы фильма: агрегаты рецензий пользователя и его последняя запись истории просмотра фильма - та же,
+     * которую меняет смена статуса.
+     * Статус записи возвращается в том виде, в котором он хранится.
+     */
+    public Optional<MovieDetail> findMovieDetail(long movieId, long userId) {
+        int index = movieIndex(movieId);
+
+        if (index < 0) {
+            return Optional.empty();
+        }
+
+        long reviews = 0;
+        double ratingSum = 0;
+
+        for (int i = 0; i < reviewCount; i++) {
+            if (reviewMovieId(i) == movieId && reviewUserId(i) == userId) {
+                reviews++;
+                ratingSum += reviewRating(i);
+            }
+        }
+
+        // записи упорядочены по ID - поиск с конца находит запись фильма с наибольшим ID
+        int watch = -1;
+        for (int i = watchCount - 1; i >= 0 && watch < 0; i--) {
+            if (watchMovieId(i) == movieId && watchUserId(i) == userId) {
+                watch = i;
+            }
+        }
+
+        int base = movieBase(index);
+        return Optional.of(new MovieDetail(
+                movieId,
+                string(base + MOVIE_TITLE),
+                intOrNull(base + MOVIE_RELEASE_YEAR),
+                string(base + MOVIE_DESCRIPTION),
+                floatOrNull(base + MOVIE_RATING),
+                intOrNull(base + MOVIE_DURATION),
+                string(base + MOVIE_GENRE),
+                string(base + MOVIE_POSTER),
+                reviews,
+                reviews > 0 ? ratingSum / reviews : null,
+                watch >= 0 ? watchId(watch) : null,
+                watch >= 0 ? watchStatus(watch) : null,
+                watch >= 0 ? date(watchBase(watch) + WATCH_ADDED_DATE) : null,
+                watch >= 0 ? date(watchBase(watch) + WATCH_COMPLETED_DATE) : null));
+    }
+
+    /**
+     * Статусы просмотра и средние оценки пользователя для набора фильмов за один проход по рецензиям и истории просмотра.
+     * Статусы возвращаются в том виде, в котором они хранятся.
+     */
+    public List<MovieBadge> findMovieBadges(Collection<Long> movieIds, long userId) {
+        Set<Long> wanted = new HashSet<>(movieIds);
+        Map<Long, double[]> ratings = new HashMap<>();
+        Map<Long, String> statuses = new HashMap<>();
+
+        for (int i = 0; i < reviewCount; i++) {
+            long movieId = reviewMovieId(i);
+            if (wanted.contains(movieId) && reviewUserId(i) == userId) {
+                double[] sumAndCount = ratings.computeIfAbsent(movieId, id -> new double[2]);
+                sumAndCount[0] += reviewRating(i);
+                sumAndCount[1]++;
+            }
+        }
+
+        // записи упорядочены по ID - более поздняя запись фильма заменяет более раннюю
+        for (int i = 0; i < watchCount; i++) {
+            long movieId = watchMovieId(i);
+            if (wanted.contains(movieId) && watchUserId(i) == userId) {
+                statuses.put(movieId, watchStatus(i));
+            }
+        }
+
+        List<MovieBadge> badges = new ArrayList<>();
+        for (Long movieId : wanted) {
+            if (movieIndex(movieId) >= 0) {
+                double[] sumAndCount = ratings.get(movieId);
+                badges.add(new MovieBadge(movieId, statuses.get(movieId),
+                        sumAndCount != null ? sumAndCount[0] / sumAndCount[1] : null));
+            }
+        }
+        return badges;
+    }
+
+    public List<ReviewRow> findReviewRowsByMovieId(long movieId, long userId) {
+        return IntStream.range(0, reviewCount)
+                .filter(i -> reviewMovieId(i) == movieId && reviewUserId(i) == userId)
+                .mapToObj(this::reviewRow)
+                .toList();
+    }
+
+    public List<ReviewRow> findLatestReviewRows(long movieId, long userId, int page, int size) {
+        int[] order = reviewsByWatchDate;
+        return Arrays.stream(order, firstOfUser(order, this::reviewUserId, userId), order.length)
+                .takeWhile(i -> reviewUserId(i) == userId)
+                .filter(i -> reviewMovieId(i) == movieId)
+                .skip((long) page * size)
+                .limit(size)
+                .mapToObj(this::reviewRow)
+                .toList();
+    }
+
+    /**
+     * Страница списка рецензий пользователя в порядке {@code sort} после строки курсора.
+     *
+     * @throws java.time.format.DateTimeParseException если курсор содержит некорректную дату
+     * @throws NumberFormatException если курсор содержит некорректную оценку
+     */
+    public List<ReviewRow> findReviewRows(long userId, ReviewSort sort, KeysetCursor after, int limit) {
+        int[] order = sort == ReviewSort.RATING ? reviewsByRating : reviewsByWatchDate;
+        int from = firstOfUser(order, this::reviewUserId, userId);
+
+        if (after != null) {
+            from = switch (sort) {
+                case WATCH_DATE -> {
+                    int watchDate = Math.toIntExact(LocalDate.parse(after.value()).toEpochDay());
+                    yield firstAfter(order, i -> compareReviewsByWatchDate(i, userId, watchDate, after.id()));
+                }
+                case RATING -> {
+                    float rating = Float.parseFloat(after.value());
+                    yield firstAfter(order, i -> compareReviewsByRating(i, userId, rating, after.id()));
+                }
+            };
+        }
+
+        return Arrays.stream(order, from, order.length)
+                .takeWhile(i -> reviewUserId(i) == userId)
+                .limit(limit)
+                .mapToObj(this::reviewRow)
+                .toList();
+    }
+
+    /**
+     * Страница истории просмотра пользователя в порядке {@code sort} после строки курсора.
+     * Статусы возвращаются в том виде, в котором они хранятся.
+     *
+     * @throws java.time.format.DateTimeParseException если курсор содержит некорректную дату
+     */
+    public List<WatchRow> findWatchRows(long userId, WatchSort sort, KeysetCursor after, int limit) {
+        int[] order = sort == WatchSort.STATUS ? watchByStatus : watchByAddedDate;
+        int from = firstOfUser(order, this::watchUserId, userId);
+
+        if (after != null) {
+            from = switch (sort) {
+                case ADDED_DATE -> {
+                    int addedDate = Math.toIntExact(LocalDate.parse(after.value()).toEpochDay());
+                    yield firstAfter(order, i -> compareWatchByAddedDate(i, userId, addedDate, after.id()));
+                }
+                case STATUS -> firstAfter(order, i -> compareWatchByStatus(i, userId, after.value(), after.id()));
+            };
+        }
+
+        return Arrays.stream(order, from, order.length)
+                .takeWhile(i -> watchUserId(i) == userId)
+                .limit(limit)
+                .mapToObj(this::watchRow)
+                .toList();
+    }
+
+    /**
+     * Число записей истории просмотра пользователя по статусу в том виде, в котором он хранится.
+     */
+    public Map<String, Long> countWatchStatuses(long userId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+
+        for (int i = 0; i < watchCount; i++) {
+            if (watchUserId(i) == userId) {
+                counts.merge(watchStatus(i), 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    // сравнение записи с ключом (пользователь, значение, ID) в порядке списка: отрицательный результат - запись идет раньше ключа;
+    // записи упорядочены сначала по пользователю, внутри пользователя - в порядке списка
+
+    private int compareReviewsByWatchDate(int review, long userId, int watchDate, long id) {
+        int result = Long.compare(reviewUserId(review), userId);
+        result = result != 0 ? result : Integer.compare(watchDate, reviewWatchDate(review));
+        return result != 0 ? result : Long.compare(id, reviewId(review));
+    }
+
+    private int compareReviewsByRating(int review, long userId, float rating, long id) {
+        int result = Long.compare(reviewUserId(review), userId);
+        result = result != 0 ? result : Float.compare(rating, reviewRating(review));
+        return result != 0 ? result : Long.compare(id, reviewId(review));
+    }
+
+    private int compareWatchByAddedDate(int watch, long userId, int addedDate, long id) {
+        int result = Long.compare(watchUserId(watch), userId);
+        result = result != 0 ? result : Integer.compare(addedDate, watchAddedDate(watch));
+        return result != 0 ? result : Long.compare(id, watchId(watch));
+    }
+
+    private int compareWatchByStatus(int watch, long userId, String status, long id) {
+        int result = Long.compare(watchUserId(watch), userId);
+        result = result != 0 ? result : watchStatus(watch).compareTo(status);
+        return result != 0 ? result : Long.compare(watchId(watch), id);
+    }
+
+    private static int[] order(int count, Comparator<Integer> comparator) {
+        return IntStream.range(0, count)
+                .boxed()
+                .sorted(comparator)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Позиция первой записи порядка {@code order}, идущей после ключа курсора.
+     */
+    private static int firstAfter(int[] order, IntUnaryOperator compareToCursor) {
+        int low = 0;
+        int high = order.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (compareToCursor.applyAsInt(order[middle]) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Позиция первой записи пользователя в порядке {@code order}.
+     */
+    private static int firstOfUser(int[] order, IntToLongFunction userIdOf, long userId) {
+        return firstAfter(order, i -> userIdOf.applyAsLong(i) < userId ? -1 : 1);
+    }
+
+    private int movieIndex(long movieId) {
+        int low = 0;
+        int high = movieCount - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long id = buffer.getLong(movieBase(middle));
+
+            if (id < movieId) {
+                low = middle + 1;
+            } else if (id > movieId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private MovieCard movieCard(int index) {
+        int base = movieBase(index);
+        return new MovieCard(
+                buffer.getLong(base),
+                string(base + MOVIE_TITLE),
+                intOrNull(base + MOVIE_RELEASE_YEAR),
+                floatOrNull(base + MOVIE_RATING),
+                intOrNull(base + MOVIE_DURATION),
+                string(base + MOVIE_GENRE),
+                string(base + MOVIE_DESCRIPTION),
+                string(base + MOVIE_POSTER));
+    }
+
+    private ReviewRow reviewRow(int index) {
+        int base = reviewBase(index);
+        long movieId = reviewMovieId(index);
+        return new ReviewRow(
+                reviewId(index),
+                movieId,
+                findMovieTitle(movieId).orElse(null),
+                floatOrNull(base + REVIEW_RATING),
+                string(base + REVIEW_COMMENT),
+                date(base + REVIEW_WATCH_DATE));
+    }
+
+    private WatchRow watchRow(int index) {
+        int base = watchBase(index);
+        long movieId = watchMovieId(index);
+        return new WatchRow(
+                watchId(index),
+                movieId,
+                findMovieTitle(movieId).orElse(null),
+                watchStatus(index),
+                date(base + WATCH_ADDED_DATE),
+                date(base + WATCH_COMPLETED_DATE));
+    }
+
+    private int movieBase(int index) {
+        return moviesOffset + index * MOVIE_RECORD_SIZE;
+    }
+
+    private int reviewBase(int index) {
+        return reviewsOffset + index * REVIEW_RECORD_SIZE;
+    }
+
+    private int watchBase(int index) {
+        return watchOffset + index * WATCH_RECORD_SIZE;
+    }
+
+    private long reviewId(int index) {
+        return buffer.getLong(reviewBase(index));
+    }
+
+    private long reviewMovieId(int index) {
+        return buffer.getLong(reviewBase(index) + REVIEW_MOVIE_ID);
+    }
+
+    private long reviewUserId(int index) {
+        return buffer.getLong(reviewBase(index) + REVIEW_USER_ID);
+    }
+
+    private float reviewRating(int index) {
+        return buffer.getFloat(reviewBase(index) + REVIEW_RATING);
+    }
+
+    private int reviewWatchDate(int index) {
+        return buffer.getInt(reviewBase(index) + REVIEW_WATCH_DATE);
+    }
+
+    private long watchId(int index) {
+        return buffer.getLong(watchBase(index));
+    }
+
+    private long watchMovieId(int index) {
+        return buffer.getLong(watchBase(index) + WATCH_MOVIE_ID);
+    }
+
+    private long watchUserId(int index) {
+        return buffer.getLong(watchBase(index) + WATCH_USER_ID);
+    }
+
+    private String watchStatus(int index) {
+        return string(watchBase(index) + WATCH_STATUS);
+    }
+
+    private int watchAddedDate(int index) {
+        return buffer.getInt(watchBase(index) + WATCH_ADDED_DATE);
+    }
+
+    private Integer intOrNull(int position) {
+        int value = buffer.getInt(position);
+        return value != NULL_INT ? value : null;
+    }
+
+    private Float floatOrNull(int position) {
+        float value = buffer.getFloat(position);
+        return Float.isNaN(value) ? null : value;
+    }
+
+    private LocalDate date(int position) {
+        int epochDay = buffer.getInt(position);
+        return epochDay != NULL_INT ? LocalDate.ofEpochDay(epochDay) : null;
+    }
+
+    private String string(int position) {
+        int length = buffer.getInt(position + 4);
+
+        if (length < 0) {
+            return null;
+        }
+
+        // абсолютное чтение не меняет позицию буфера, поэтому безопасно из нескольких потоков
+        byte[] bytes = new byte[length];
+        buffer.get(stringsOffset + buffer.getInt(position), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean contains(String value, String filter) {
+        return filter == null || value != null && value.toLowerCase().contains(filter);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+package com.movie.catalog.snapshot;
+
+import com.movie.catalog.config.SnapshotProperties;
+import com.movie.catalog.entity.*;
+import com.movie.catalog.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+import static com.movie.catalog.snapshot.SnapshotFormat.*;
+
+/**
+ * Выгрузка каталога в файл снимка.
+ *
+ * <p>Фильмы, рецензии и история просмотра читаются в одной транзакции только для чтения и записываются
+ * во временный файл рядом со снимком, который затем заменяет прежний снимок. Приложение, уже открывшее
+ * прежний снимок, продолжает читать его до перезапуска.</p>
+ *
+ * <p>Снимок содержит весь каталог фильмов, а также рецензии и историю просмотра всех пользователей
+ * с ID пользователя в каждой записи: в автономном режиме {@link CatalogSnapshot} показывает каждому
+ * пользователю только его записи.</p>
+ *
+ * <p>Повторяющиеся строки (статусы, жанры) хранятся в области строк один раз.</p>
+ *
+ * @see CatalogSnapshot
+ * @see SnapshotFormat
+ */
+
+@Component
+public class CatalogSnapshotWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotWriter.class);
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final MovieRepository movieRepository;
+    private final ReviewRepository reviewRepository;
+    private final WatchHistoryRepository watchHistoryRepository;
+    private final SnapshotProperties properties;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public CatalogSnapshotWriter(MovieRepository movieRepository,
+                                 ReviewRepository reviewRepository,
+                                 WatchHistoryRepository watchHistoryRepository,
+                                 SnapshotProperties properties) {
+        this.movieRepository = movieRepository;
+        this.reviewRepository = reviewRepository;
+        this.watchHistoryRepository = watchHistoryRepository;
+        this.properties = properties;
+    }
+
+    @Transactional(readOnly = true)
+    public SnapshotSummary export() {
+        long startTime = System.currentTimeMillis();
+
+        List<Movie> movies = movieRepository.findAll(BY_ID);
+        List<Review> reviews = reviewRepository.findAll(BY_ID);
+        List<WatchHistory> watchHistory = watchHistoryRepository.findAll(BY_ID);
+
+        StringArea strings = new StringArea();
+
+        long moviesOffset = HEADER_SIZE;
+        long reviewsOffset = moviesOffset + (long) movies.size() * MOVIE_RECORD_SIZE;
+        long watchOffset = reviewsOffset + (long) reviews.size() * REVIEW_RECORD_SIZE;
+        long stringsOffset = watchOffset + (long) watchHistory.size() * WATCH_RECORD_SIZE;
+
+        ByteBuffer records = ByteBuffer.allocate((int) stringsOffset);
+
+        records.putInt(MAGIC)
+                .putInt(VERSION)
+                .putLong(System.currentTimeMillis())
+                .putInt(movies.size()).putLong(moviesOffset)
+                .putInt(reviews.size()).putLong(reviewsOffset)
+                .putInt(watchHistory.size()).putLong(watchOffset)
+                .putLong(stringsOffset);
+
+        for (Movie movie : movies) {
+            records.putLong(movie.getId())
+                    .putInt(intOrNull(movie.getReleaseYear()))
+                    .putInt(intOrNull(movie.getDurationMinutes()))
+                    .putFloat(floatOrNull(movie.getRating()));
+            strings.put(records, movie.getTitle());
+            strings.put(records, movie.getGenre());
+            strings.put(records, movie.getDescription());
+            strings.put(records, movie.getPosterKey());
+        }
+
+        for (Review review : reviews) {
+            // у отложенно загружаемого фильма ID доступен без запроса к БД
+            records.putLong(review.getId())
+                    .putLong(review.getMovie().getId())
+                    .putLong(review.getUserId())
+                    .putFloat(floatOrNull(review.getRating()))
+                    .putInt(dateOrNull(review.getWatchDate()));
+            strings.put(records, review.getComment());
+        }
+
+        for (WatchHistory entry : watchHistory) {
+            records.putLong(entry.getId())
+                    .putLong(entry.getMovie().getId())
+                    .putLong(entry.getUserId());
+            strings.put(records, entry.getStatus());
+            records.putInt(dateOrNull(entry.getAddedDate()))
+                    .putInt(dateOrNull(entry.getCompletedDate()));
+        }
+
+        long bytes = write(records.flip(), strings.toBuffer());
+        long elapsed = System.currentTimeMillis() - startTime;
+
+        log.info("Снимок каталога выгружен в {}: {} фильмов, {} рецензий, {} записей истории, {} байт за {} мс",
+                properties.getPath(), movies.size(), reviews.size(), watchHistory.size(), bytes, elapsed);
+
+        return new SnapshotSummary(properties.getPath().toAbsolutePath().toString(), movies.size(), reviews.size(), watchHistory.size(), bytes, elapsed);
+    }
+
+    private long write(ByteBuffer records, ByteBuffer strings) {
+        Path target = properties.getPath().toAbsolutePath();
+
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (records.hasRemaining() || strings.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{records, strings});
+                }
+                channel.force(true);
+            }
+
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(target);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать снимок каталога: " + target, e);
+        }
+    }
+
+    private static int intOrNull(Integer value) {
+        return value != null ? value : NULL_INT;
+    }
+
+    private static float floatOrNull(Float value) {
+        return value != null ? value : Float.NaN;
+    }
+
+    private static int dateOrNull(LocalDate date) {
+        return date != null ? Math.toIntExact(date.toEpochDay()) : NULL_INT;
+    }
+
+    /**
+     * Область строк снимка: каждая различная строка записывается один раз.
+     */
+    private static final class StringArea {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final Map<String, Integer> offsets = new HashMap<>();
+
+        void put(ByteBuffer record, String value) {
+            if (value == null) {
+                record.putInt(0).putInt(-1);
+                return;
+            }
+
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            int offset = offsets.computeIfAbsent(value, v -> {
+                int start = bytes.size();
+                bytes.writeBytes(encoded);
+                return start;
+            });
+            record.putInt(offset).putInt(encoded.length);
+        }
+
+        ByteBuffer toBuffer() {
+            return ByteBuffer.wrap(bytes.toByteArray());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.movie.catalog.snapshot;
+
+/**
+ * Формат файла снимка каталога.
+ *
+ * <p>Файл состоит из заголовка, трех разделов записей фиксированной длины и области строк:
+ * <pre>
+ * заголовок   magic, версия формата, время создания, число и смещение записей каждого раздела, смещение строк
+ * фильмы      id, год, длительность, рейтинг, название, жанр, описание, ключ постера
+ * рецензии    id, id фильма, id пользователя, оценка, дата просмотра, комментарий
+ * просмотры   id, id фильма, id пользователя, статус, дата добавления, дата завершения
+ * строки      UTF-8 без разделителей
+ * </pre>
+ * Строка в записи - пара (смещение в области строк, длина в байтах), даты - номер дня от 1970-01-01.
+ * Записи каждого раздела упорядочены по ID, поэтому раздел сам служит индексом по ID: запись находится
+ * двоичным поиском, а ее смещение вычисляется как {@code начало раздела + номер * длина записи}.</p>
+ *
+ * <p>Отсутствующие значения: {@link #NULL_INT} для чисел и дат, {@code NaN} для оценок, длина -1 для строк.</p>
+ */
+
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x4D43534E; // "MCSN"
+    static final int VERSION = 3;
+
+    static final int NULL_INT = Integer.MIN_VALUE;
+
+    // заголовок: magic, version, createdAt, 3 x (count, offset), stringsOffset
+    static final int HEADER_SIZE = 4 + 4 + 8 + 3 * (4 + 8) + 8;
+
+    // id, releaseYear, durationMinutes, rating, title, genre, description, posterKey
+    static final int MOVIE_RECORD_SIZE = 8 + 4 + 4 + 4 + 4 * 8;
+    static final int MOVIE_RELEASE_YEAR = 8;
+    static final int MOVIE_DURATION = 12;
+    static final int MOVIE_RATING = 16;
+    static final int MOVIE_TITLE = 20;
+    static final int MOVIE_GENRE = 28;
+    static final int MOVIE_DESCRIPTION = 36;
+    static final int MOVIE_POSTER = 44;
+
+    // id, movieId, userId, rating, watchDate, comment
+    static final int REVIEW_RECORD_SIZE = 8 + 8 + 8 + 4 + 4 + 8;
+    static final int REVIEW_MOVIE_ID = 8;
+    static final int REVIEW_USER_ID = 16;
+    static final int REVIEW_RATING = 24;
+    static final int REVIEW_WATCH_DATE = 28;
+    static final int REVIEW_COMMENT = 32;
+
+    // id, movieId, userId, status, addedDate, completedDate
+    static final int WATCH_RECORD_SIZE = 8 + 8 + 8 + 8 + 4 + 4;
+    static final int WATCH_MOVIE_ID = 8;
+    static final int WATCH_USER_ID = 16;
+    static final int WATCH_STATUS = 24;
+    static final int WATCH_ADDED_DATE = 32;
+    static final int WATCH_COMPLETED_DATE = 36;
+
+    private SnapshotFormat() {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.movie.catalog.snapshot;
+
+/**
+ * Итог выгрузки снимка каталога.
+ *
+ * @param path          файл снимка
+ * @param movies        число фильмов
+ * @param reviews       число рецензий
+ * @param watchHistory  число записей истории просмотра
+ * @param bytes         размер файла в байтах
+ * @param elapsedMillis время выгрузки в миллисекундах
+ */
+
+public record SnapshotSummary(String path,
+                              int movies,
+                              int reviews,
+                              int watchHistory,
+                              long bytes,
+                              long elapsedMillis) {
+}
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.movie.catalog.sqlstats;
+
+import com.movie.catalog.config.SqlStatsProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика SQL-запросов в памяти по отпечаткам.
+ *
+ * <p>Для каждого отпечатка ({@link SqlFingerprint}) хранятся число вызовов, ошибок и медленных вызовов,
+ * суммарное и максимальное время и гистограмма времени с фиксированными границами корзин.
+ * Перцентили в отчете - верхняя граница корзины, в которую попал перцентиль.</p>
+ *
+ * <p>Число отпечатков ограничено {@code catalog.sql-stats.max-fingerprints}: запросы сверх лимита
+ * учитываются одной строкой {@link #OTHER}, поэтому память не растет от запросов с непредвиденным текстом.</p>
+ *
+ * @see QueryStatsListener
+ * @see SqlStatsProperties
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "catalog.sql-stats", name = "enabled", havingValue = "true")
+public class QueryStats {
+
+    public static final String OTHER = "(прочие запросы)";
+
+    // верхние границы корзин гистограммы в микросекундах, последняя корзина - все, что дольше
+    private static final long[] BUCKET_BOUNDS = {
+            100, 250, 500,
+            1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000,
+            1_000_000, 2_500_000, 5_000_000, 10_000_000
+    };
+
+    private final SqlStatsProperties properties;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // текст запроса Hibernate повторяется, поэтому отпечаток считается один раз на каждый текст
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    @Autowired // автоматическое внедрение зависимости
+    public QueryStats(SqlStatsProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Учитывает выполнение запроса.
+     */
+    public void record(String sql, long elapsedNanos, boolean success, boolean slow) {
+        String fingerprint = fingerprint(sql);
+
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            if (entries.size() >= properties.getMaxFingerprints()) {
+                fingerprint = OTHER;
+            }
+            entry = entries.computeIfAbsent(fingerprint, key -> new Entry(key, sql));
+        }
+
+        entry.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), success, slow);
+    }
+
+    /**
+     * Первые {@code limit} отпечатков в порядке {@code order}.
+     */
+    public List<QueryStatsReport> top(Order order, int limit) {
+        return entries.values().stream()
+                .map(Entry::report)
+                .sorted(order.comparator)
+                .limit(Math.max(limit, 0))
+                .toList();
+    }
+
+    public void reset() {
+        entries.clear();
+        fingerprints.clear();
+    }
+
+    private String fingerprint(String sql) {
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint == null) {
+            fingerprint = SqlFingerprint.of(sql);
+            // запросы со значениями прямо в тексте дают новый текст на каждый вызов, такие не кэшируем сверх лимита
+            if (fingerprints.size() < properties.getMaxFingerprints() * 4) {
+                fingerprints.put(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    /** Порядок строк отчета. */
+    public enum Order {
+        SLOWEST(Comparator.comparingDouble(QueryStatsReport::meanMillis).reversed()),
+        TOTAL(Comparator.comparingDouble(QueryStatsReport::totalMillis).reversed()),
+        FREQUENT(Comparator.comparingLong(QueryStatsReport::calls).reversed());
+
+        private final Comparator<QueryStatsReport> comparator;
+
+        Order(Comparator<QueryStatsReport> comparator) {
+            this.comparator = comparator;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final String example;
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder slowCalls = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final AtomicLong maxMicros = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+
+        private Entry(String fingerprint, String example) {
+            this.fingerprint = fingerprint;
+            this.example = example;
+        }
+
+        private void record(long micros, boolean success, boolean slow) {
+            calls.increment();
+            totalMicros.add(micros);
+            maxMicros.accumulateAndGet(micros, Math::max);
+            buckets.incrementAndGet(bucket(micros));
+
+            if (!success) {
+                errors.increment();
+            }
+            if (slow) {
+                slowCalls.increment();
+            }
+        }
+
+        private QueryStatsReport report() {
+            long[] counts = new long[buckets.length()];
+            long count = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+                count += counts[i];
+            }
+
+            long calls = this.calls.sum();
+            long total = totalMicros.sum();
+            long max = maxMicros.get();
+
+            return new QueryStatsReport(
+                    fingerprint,
+                    example,
+                    calls,
+                    errors.sum(),
+                    slowCalls.sum(),
+                    millis(total),
+                    calls > 0 ? millis(total) / calls : 0,
+                    millis(max),
+                    millis(percentile(counts, count, 0.50, max)),
+                    millis(percentile(counts, count, 0.95, max)),
+                    millis(percentile(counts, count, 0.99, max))
+            );
+        }
+
+        private static int bucket(long micros) {
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                if (micros <= BUCKET_BOUNDS[i]) {
+                    return i;
+                }
+            }
+            return BUCKET_BOUNDS.length;
+        }
+
+        private static long percentile(long[] counts, long count, double quantile, long max) {
+            if (count == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(count * quantile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    // граница корзины не может быть больше наблюдавшегося максимума
+                    return i < BUCKET_BOUNDS.length ? Math.min(BUCKET_BOUNDS[i], max) : max;
+                }
+            }
+            return max;
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.movie.catalog.sqlstats;
+
+import com.movie.catalog.config.SqlStatsProperties;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Замер времени каждого SQL-запроса основного DataSource.
+ *
+ * <p>Время выполнения учитывается в {@link QueryStats}. Запросы дольше {@code catalog.sql-stats.slow-threshold}
+ * с долей {@code catalog.sql-stats.slow-sample-rate} пишутся в логгер {@code catalog.sql.slow}: текст запроса
+ * пишется с параметрами {@code ?}, значения параметров в журнал не попадают.</p>
+ *
+ * @see SqlStatsDataSourcePostProcessor
+ * @see SqlStatsProperties
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "catalog.sql-stats", name = "enabled", havingValue = "true")
+public class QueryStatsListener implements QueryExecutionListener {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("catalog.sql.slow");
+
+    private static final String STARTED_AT = QueryStatsListener.class.getName() + ".startedAt";
+
+    private final QueryStats stats;
+    private final SqlStatsProperties properties;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public QueryStatsListener(QueryStats stats,
+                              SqlStatsProperties properties) {
+        this.stats = stats;
+        this.properties = properties;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        if (startedAt == null || queryInfoList.isEmpty()) {
+            return;
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        String sql = queryInfoList.size() == 1
+                ? queryInfoList.get(0).getQuery()
+                : queryInfoList.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining("; "));
+        boolean slow = elapsedNanos >= properties.getSlowThreshold().toNanos();
+
+        stats.record(sql, elapsedNanos, execInfo.isSuccess(), slow);
+
+        if (slow && sampled()) {
+            slowLog.warn("Медленный запрос: {} мс{}{}: {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    execInfo.isBatch() ? ", пакет из " + execInfo.getBatchSize() : "",
+                    execInfo.isSuccess() ? "" : ", ошибка",
+                    truncate(sql));
+        }
+    }
+
+    private boolean sampled() {
+        double rate = properties.getSlowSampleRate();
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private String truncate(String sql) {
+        int max = properties.getMaxLoggedSqlLength();
+        return sql.length() <= max ? sql : sql.substring(0, max) + "...";
+    }
+}
\ No newline at end of file
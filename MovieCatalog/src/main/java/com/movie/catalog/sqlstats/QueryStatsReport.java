@@ -0,0 +1,30 @@
+package com.movie.catalog.sqlstats;
+
+/**
+ * Строка отчета статистики SQL-запросов. Время - в миллисекундах.
+ *
+ * @param fingerprint отпечаток запроса
+ * @param example     текст первого учтенного запроса с этим отпечатком
+ * @param calls       число выполнений
+ * @param errors      число выполнений, завершившихся ошибкой
+ * @param slowCalls   число выполнений дольше {@code catalog.sql-stats.slow-threshold}
+ * @param totalMillis суммарное время
+ * @param meanMillis  среднее время
+ * @param maxMillis   максимальное время
+ * @param p50Millis   медиана по гистограмме
+ * @param p95Millis   95-й перцентиль по гистограмме
+ * @param p99Millis   99-й перцентиль по гистограмме
+ */
+
+public record QueryStatsReport(String fingerprint,
+                               String example,
+                               long calls,
+                               long errors,
+                               long slowCalls,
+                               double totalMillis,
+                               double meanMillis,
+                               double maxMillis,
+                               double p50Millis,
+                               double p95Millis,
+                               double p99Millis) {
+}
\ No newline at end of file
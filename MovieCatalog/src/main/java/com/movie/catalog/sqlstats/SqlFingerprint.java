@@ -0,0 +1,41 @@
+package com.movie.catalog.sqlstats;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Отпечаток SQL-запроса: текст запроса без значений.
+ *
+ * <p>Комментарии удаляются, строковые и числовые литералы заменяются на {@code ?}, списки
+ * {@code IN (?, ?, ...)} и многострочные {@code VALUES} сворачиваются до одного элемента,
+ * пробелы схлопываются, текст приводится к нижнему регистру. Запросы, отличающиеся только
+ * значениями или длиной списка параметров, получают один отпечаток.</p>
+ *
+ * @see QueryStats
+ */
+
+public final class SqlFingerprint {
+
+    private static final Pattern BLOCK_COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern LINE_COMMENT = Pattern.compile("--[^\\n]*");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    // цифры внутри идентификаторов (алиасы Hibernate вида m1_0) не трогаем
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$])\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern VALUES_ROWS = Pattern.compile("(?i)\\bvalues\\s*(\\([^()]*\\))(?:\\s*,\\s*\\([^()]*\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        String fingerprint = BLOCK_COMMENT.matcher(sql).replaceAll(" ");
+        fingerprint = LINE_COMMENT.matcher(fingerprint).replaceAll(" ");
+        fingerprint = STRING_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = IN_LIST.matcher(fingerprint).replaceAll("in (?...)");
+        fingerprint = VALUES_ROWS.matcher(fingerprint).replaceAll("values $1, ...");
+        fingerprint = WHITESPACE.matcher(fingerprint).replaceAll(" ");
+        return fingerprint.trim().toLowerCase(Locale.ROOT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.movie.catalog.sqlstats;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Обертка основного DataSource ({@code dataSource}) для замера времени SQL-запросов.
+ *
+ * <p>Оборачивается только бин {@code dataSource}, с которым работают JPA и репозитории: в режиме чтения
+ * с реплик и в режиме снимка это {@code LazyConnectionDataSourceProxy}, поэтому внутренние
+ * источники данных не меняют свой тип и замер каждого запроса выполняется один раз.</p>
+ *
+ * @see QueryStatsListener
+ */
+
+@Component
+@ConditionalOnProperty(prefix = "catalog.sql-stats", name = "enabled", havingValue = "true")
+public class SqlStatsDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    // слушатель берется при создании DataSource, чтобы постпроцессор не создавал свои зависимости раньше времени
+    private final ObjectProvider<QueryStatsListener> listener;
+
+    @Autowired // автоматическое внедрение зависимости
+    public SqlStatsDataSourcePostProcessor(ObjectProvider<QueryStatsListener> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(DATA_SOURCE_BEAN)
+                    .listener(listener.getObject())
+                    .build();
+        }
+        return bean;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.movie.catalog.web;
+
+import com.movie.catalog.config.LiveUpdatesProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Общая рассылка событий ленты изменений всем подписчикам (server-sent events).
+ *
+ * <p>Событие сериализуется один раз и раскладывается по буферам клиентов ({@link LiveUpdateClient}).
+ * Отправку выполняет небольшой общий пул потоков, поэтому простаивающие соединения не держат
+ * ни потоков, ни памяти сверх своего буфера. Медленный клиент теряет самые старые события
+ * и не задерживает остальных.</p>
+ *
+ * <p>Событие рассылается всем подписчикам или только подписчикам одного пользователя.</p>
+ *
+ * @see CatalogLiveFeed
+ * @see LiveUpdatesProperties
+ */
+
+@Component
+public class CatalogEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogEventBroadcaster.class);
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("ping").build();
+
+    private final LiveUpdatesProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Set<LiveUpdateClient> clients = new CopyOnWriteArraySet<>();
+    private final ExecutorService dispatchExecutor;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public CatalogEventBroadcaster(LiveUpdatesProperties properties,
+                                   ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatchExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getDispatchThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "live-updates-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        if (clients.size() >= properties.getMaxClients()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Превышено число подписчиков ленты изменений");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeout().toMillis());
+        LiveUpdateClient client = new LiveUpdateClient(emitter, userId, Math.max(1, properties.getClientBufferSize()));
+
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(error -> clients.remove(client));
+        clients.add(client);
+
+        return emitter;
+    }
+
+    public boolean hasSubscribers() {
+        return !clients.isEmpty();
+    }
+
+    public boolean hasSubscribers(Long userId) {
+        return clients.stream().anyMatch(client -> client.userId().equals(userId));
+    }
+
+    public Set<Long> subscribedUsers() {
+        return clients.stream().map(LiveUpdateClient::userId).collect(Collectors.toSet());
+    }
+
+    public int subscriberCount() {
+        return clients.size();
+    }
+
+    public void publish(String eventName, Object payload) {
+        publish(eventName, payload, client -> true);
+    }
+
+    public void publish(Long userId, String eventName, Object payload) {
+        publish(eventName, payload, client -> client.userId().equals(userId));
+    }
+
+    private void publish(String eventName, Object payload, Predicate<LiveUpdateClient> recipients) {
+        if (clients.isEmpty()) {
+            return;
+        }
+
+        Set<DataWithMediaType> event = SseEmitter.event()
+                .name(eventName)
+                .data(objectMapper.writeValueAsString(payload))
+                .build();
+
+        clients.stream().filter(recipients).forEach(client -> {
+            client.offer(event);
+            dispatch(client);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.live-updates.heartbeat-interval:20s}")
+    public void heartbeat() {
+        clients.forEach(client -> {
+            client.offer(HEARTBEAT);
+            dispatch(client);
+        });
+    }
+
+    private void dispatch(LiveUpdateClient client) {
+        if (!client.startDrain()) {
+            return;
+        }
+
+        dispatchExecutor.execute(() -> {
+            try {
+                Set<DataWithMediaType> event;
+                while ((event = client.poll()) != null) {
+                    client.emitter().send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // клиент закрыл соединение
+                clients.remove(client);
+                client.emitter().completeWithError(e);
+                log.debug("Подписчик ленты изменений отключен, потеряно событий: {}", client.dropped());
+            } finally {
+                client.endDrain();
+            }
+
+            if (clients.contains(client) && client.hasPending()) {
+                dispatch(client);
+            }
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        clients.forEach(client -> client.emitter().complete());
+        clients.clear();
+        dispatchExecutor.shutdownNow();
+    }
+}
\ No newline at end of file
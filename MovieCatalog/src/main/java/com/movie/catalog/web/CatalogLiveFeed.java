@@ -0,0 +1,138 @@
+package com.movie.catalog.web;
+
+import com.movie.catalog.event.CatalogChangedEvent;
+import com.movie.catalog.service.*;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Источник событий для ленты изменений каталога.
+ *
+ * <p>После коммита каждой записи в {@code MovieService}, {@code ReviewService} и {@code WatchHistoryService}
+ * отправляет подписчикам два события:
+ * <ul>
+ *   <li>{@code catalog} - что изменилось: тип сущности, тип изменения и ID</li>
+ *   <li>{@code stats} - актуальные значения карточек статистики главной страницы</li>
+ * </ul>
+ * </p>
+ *
+ * <p>Изменения фильмов получают все подписчики, а изменения рецензий и истории просмотра - только
+ * подписчики пользователя, выполнившего запись ({@link CurrentUser}). Статистика пересчитывается для каждого
+ * затронутого пользователя отдельно: после изменения фильмов - для всех подписанных пользователей.</p>
+ *
+ * <p>Статистика пересчитывается в отдельном потоке и только при наличии подписчиков;
+ * несколько изменений подряд приводят к одному пересчету для каждого пользователя.</p>
+ *
+ * @see CatalogEventBroadcaster
+ * @see CatalogChangedEvent
+ */
+
+@Component
+public class CatalogLiveFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogLiveFeed.class);
+
+    private final CatalogEventBroadcaster broadcaster;
+    private final MovieService movieService;
+    private final WatchHistoryService watchHistoryService;
+    private final CurrentUser currentUser;
+    private final Set<Long> statsUsers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean statsScheduled = new AtomicBoolean();
+    private final ExecutorService statsExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-updates-stats");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired // автоматическое внедрение зависимостей с сервисами
+    public CatalogLiveFeed(CatalogEventBroadcaster broadcaster,
+                           MovieService movieService,
+                           WatchHistoryService watchHistoryService,
+                           CurrentUser currentUser) {
+        this.broadcaster = broadcaster;
+        this.movieService = movieService;
+        this.watchHistoryService = watchHistoryService;
+        this.currentUser = currentUser;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!broadcaster.hasSubscribers()) {
+            return;
+        }
+
+        CatalogChange change = new CatalogChange(event.entityType().name(), event.changeType().name(), event.ids());
+
+        switch (event.entityType()) {
+            case MOVIE -> {
+                broadcaster.publish("catalog", change);
+                // число фильмов входит в статистику каждого пользователя
+                statsUsers.addAll(broadcaster.subscribedUsers());
+            }
+            case WATCH_HISTORY -> {
+                broadcaster.publish(currentUser.id(), "catalog", change);
+                statsUsers.add(currentUser.id());
+            }
+            case REVIEW -> {
+                broadcaster.publish(currentUser.id(), "catalog", change);
+                return;
+            }
+        }
+
+        if (!statsUsers.isEmpty() && statsScheduled.compareAndSet(false, true)) {
+            statsExecutor.execute(this::publishStats);
+        }
+    }
+
+    private void publishStats() {
+        statsScheduled.set(false);
+
+        List<Long> users = List.copyOf(statsUsers);
+        statsUsers.removeAll(users);
+
+        for (Long userId : users) {
+            if (!broadcaster.hasSubscribers(userId)) {
+                continue;
+            }
+
+            try {
+                currentUser.runAs(userId, () -> {
+                    Map<String, Long> counts = watchHistoryService.getWatchStatusCounts();
+                    broadcaster.publish(userId, "stats", new CatalogStats(
+                            movieService.countMovies(),
+                            counts.getOrDefault("Просмотрено", 0L),
+                            counts.getOrDefault("Смотрю", 0L),
+                            counts.getOrDefault("Запланировано", 0L)));
+                });
+            } catch (RuntimeException e) {
+                log.warn("Не удалось пересчитать статистику пользователя {} для ленты изменений", userId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        statsExecutor.shutdownNow();
+    }
+
+    /** Событие {@code catalog}: что изменилось. */
+    public record CatalogChange(String entity, String change, Collection<Long> ids) {
+    }
+
+    /** Событие {@code stats}: значения карточек статистики главной страницы. */
+    public record CatalogStats(long movies, long completed, long watching, long planned) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.movie.catalog.web;
+
+import com.movie.catalog.config.UserProperties;
+import com.movie.catalog.service.CurrentUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Определение пользователя запроса по заголовку {@code catalog.users.header}.
+ *
+ * <p>Запрос без заголовка выполняется от имени пользователя по умолчанию, запрос с некорректным
+ * значением заголовка отклоняется с кодом 400. После обработки запроса пользователь потока сбрасывается.</p>
+ *
+ * @see CurrentUser
+ * @see UserProperties
+ */
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CurrentUserFilter extends OncePerRequestFilter {
+
+    private final CurrentUser currentUser;
+    private final UserProperties properties;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public CurrentUserFilter(CurrentUser currentUser,
+                             UserProperties properties) {
+        this.currentUser = currentUser;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(properties.getHeader());
+        Long userId = currentUser.defaultId();
+
+        if (header != null && !header.isBlank()) {
+            try {
+                userId = Long.parseLong(header.trim());
+            } catch (NumberFormatException e) {
+                userId = null;
+            }
+
+            if (userId == null || userId <= 0) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Некорректный ID пользователя в заголовке " + properties.getHeader());
+                return;
+            }
+        }
+
+        currentUser.set(userId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            currentUser.clear();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.movie.catalog.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Замер времени от запуска JVM до ответа на первый запрос.
+ *
+ * <p>Spring Boot сообщает время до готовности контекста, но при отложенной инициализации часть работы
+ * переносится на первый запрос. Этот фильтр записывает в журнал полное время до первого ответа - по нему
+ * сравниваются обычный запуск и запуск с профилем {@code fast-start}.</p>
+ *
+ * @see com.movie.catalog.config.FastStartConfig
+ */
+
+@Component
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(FirstRequestTimer.class);
+
+    private final AtomicBoolean measured = new AtomicBoolean();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!measured.get() && measured.compareAndSet(false, true)) {
+                log.info("Первый запрос {} {} обработан через {} мс после запуска JVM",
+                        request.getMethod(), request.getRequestURI(), ManagementFactory.getRuntimeMXBean().getUptime());
+            }
+        }
+    }
+}
\ No newline at end of file
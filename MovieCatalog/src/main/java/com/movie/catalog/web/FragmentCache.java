@@ -0,0 +1,105 @@
+package com.movie.catalog.web;
+
+import com.movie.catalog.config.FragmentCacheProperties;
+import com.movie.catalog.config.PrimaryReads;
+import com.movie.catalog.service.CatalogDataVersion;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Кэш отрисованных фрагментов Thymeleaf.
+ *
+ * <p>Фрагмент отрисовывается отдельно от страницы и вставляется в нее готовым HTML.
+ * Результат хранится вместе с версией данных {@link CatalogDataVersion}, поэтому любая запись
+ * в каталог делает все фрагменты устаревшими. Данные для фрагмента передаются через {@link Supplier}
+ * и запрашиваются у сервисов только при промахе кэша - из основной БД ({@link PrimaryReads}), чтобы фрагмент
+ * не был отрисован по данным отстающей реплики.</p>
+ *
+ * <p>Кэш ограничен {@code catalog.fragment-cache.max-entries} фрагментами; при переполнении вытесняется
+ * фрагмент, который дольше всех не запрашивался.</p>
+ *
+ * <p>Подходит для дорогих и редко меняющихся областей страницы: список жанров, карточки статистики.</p>
+ *
+ * @see CatalogDataVersion
+ * @see FragmentCacheProperties
+ */
+
+@Component
+public class FragmentCache {
+
+    private final SpringTemplateEngine templateEngine;
+    private final CatalogDataVersion dataVersion;
+    private final FragmentCacheProperties properties;
+    private final ThymeleafEvaluationContext evaluationContext;
+    private final JakartaServletWebApplication webApplication;
+
+    private final Map<String, CachedFragment> fragments;
+
+    @Autowired // автоматическое внедрение зависимостей
+    public FragmentCache(SpringTemplateEngine templateEngine,
+                         CatalogDataVersion dataVersion,
+                         FragmentCacheProperties properties,
+                         ApplicationContext applicationContext,
+                         ConversionService mvcConversionService,
+                         ServletContext servletContext) {
+        this.templateEngine = templateEngine;
+        this.dataVersion = dataVersion;
+        this.properties = properties;
+        this.evaluationContext = new ThymeleafEvaluationContext(applicationContext, mvcConversionService);
+        this.webApplication = JakartaServletWebApplication.buildApplication(servletContext);
+        this.fragments = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedFragment> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        });
+    }
+
+    public String render(String template,
+                         String fragment,
+                         String key,
+                         Supplier<Map<String, Object>> variables,
+                         HttpServletRequest request,
+                         HttpServletResponse response) {
+        // версия берется до чтения данных, чтобы запись во время отрисовки не закрепила старый результат
+        long version = dataVersion.current();
+        String cacheKey = template + "::" + fragment + "::" + key;
+
+        if (properties.isEnabled()) {
+            CachedFragment cached = fragments.get(cacheKey);
+
+            if (cached != null && cached.version() == version) {
+                return cached.html();
+            }
+        }
+
+        Map<String, Object> contextVariables = new HashMap<>(PrimaryReads.call(variables));
+        contextVariables.put(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME, evaluationContext);
+
+        WebContext context = new WebContext(webApplication.buildExchange(request, response),
+                RequestContextUtils.getLocale(request), contextVariables);
+        String html = templateEngine.process(template, Set.of(fragment), context);
+
+        if (properties.isEnabled()) {
+            fragments.put(cacheKey, new CachedFragment(version, html));
+        }
+
+        return html;
+    }
+
+    private record CachedFragment(long version, String html) {
+    }
+}
\ No newline at end of file
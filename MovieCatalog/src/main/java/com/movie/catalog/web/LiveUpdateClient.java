@@ -0,0 +1,72 @@
+package com.movie.catalog.web;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Подписчик ленты изменений с ограниченным буфером неотправленных событий.
+ *
+ * <p>Если клиент не успевает читать, при переполнении буфера отбрасываются самые старые события:
+ * для ленты важнее последнее состояние, чем полная история.</p>
+ *
+ * <p>Клиент подписан от имени пользователя: события о его рецензиях и истории просмотра
+ * и его статистика не отправляются другим пользователям.</p>
+ */
+
+class LiveUpdateClient {
+
+    private final SseEmitter emitter;
+    private final Long userId;
+    private final int capacity;
+    private final Deque<Set<DataWithMediaType>> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private long dropped;
+
+    LiveUpdateClient(SseEmitter emitter, Long userId, int capacity) {
+        this.emitter = emitter;
+        this.userId = userId;
+        this.capacity = capacity;
+        this.buffer = new ArrayDeque<>(capacity);
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    Long userId() {
+        return userId;
+    }
+
+    synchronized void offer(Set<DataWithMediaType> event) {
+        if (buffer.size() >= capacity) {
+            buffer.pollFirst();
+            dropped++;
+        }
+        buffer.addLast(event);
+    }
+
+    synchronized Set<DataWithMediaType> poll() {
+        return buffer.pollFirst();
+    }
+
+    synchronized boolean hasPending() {
+        return !buffer.isEmpty();
+    }
+
+    synchronized long dropped() {
+        return dropped;
+    }
+
+    boolean startDrain() {
+        return draining.compareAndSet(false, true);
+    }
+
+    void endDrain() {
+        draining.set(false);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.movie.catalog.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Ограничение запросов в автономном режиме чтения из снимка каталога.
+ *
+ * <p>Пропускаются только GET запросы страниц, которые читаются из снимка: главная, страница фильма,
+ * списки рецензий и истории просмотра. Остальные запросы перенаправляются на главную страницу
+ * с сообщением об ошибке.</p>
+ *
+ * @see com.movie.catalog.config.SnapshotModeConfig
+ * @see com.movie.catalog.snapshot.CatalogSnapshot
+ */
+
+public class SnapshotReadOnlyInterceptor implements HandlerInterceptor {
+
+    private static final List<PathPattern> READABLE_PAGES = List.of(
+            PathPatternParser.defaultInstance.parse("/"),
+            PathPatternParser.defaultInstance.parse("/movies/view/{id}"),
+            PathPatternParser.defaultInstance.parse("/reviews"),
+            PathPatternParser.defaultInstance.parse("/reviews/movie/{movieId}"),
+            PathPatternParser.defaultInstance.parse("/watch-history"),
+            PathPatternParser.defaultInstance.parse("/events"));
+
+    @Override
+    public boolean preHandle(HttpServletRequest request,
+                             HttpServletResponse response,
+                             Object handler) throws IOException {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+
+        if ("GET".equals(request.getMethod()) && READABLE_PAGES.stream().anyMatch(pattern -> pattern.matches(path))) {
+            return true;
+        }
+
+        RequestContextUtils.getOutputFlashMap(request)
+                .put("errorMessage", "Каталог открыт из снимка только для чтения - эта страница недоступна");
+        RequestContextUtils.saveOutputFlashMap("/", request, response);
+        response.sendRedirect(request.getContextPath() + "/");
+        return false;
+    }
+}
\ No newline at end of file
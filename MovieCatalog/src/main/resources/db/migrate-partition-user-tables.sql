@@ -0,0 +1,85 @@
+-- Перевод существующей БД PostgreSQL (11+) на секционированные таблицы рецензий и истории просмотра с сохранением данных.
+-- Нужен, когда схему ведет не Hibernate (spring.jpa.hibernate.ddl-auto=validate или none, например профиль fast-start):
+-- тогда partition-user-tables.sql не выполняется. Запуск при остановленном приложении:
+--   psql -v ON_ERROR_STOP=1 -d movie_catalog -f migrate-partition-user-tables.sql
+-- Скрипт выполняется одной транзакцией и отказывается работать, если таблицы уже секционированы.
+--
+-- Первичный ключ секционированной таблицы должен включать ключ секционирования, поэтому он составной (id, user_id).
+-- Сущности Review и WatchHistory по-прежнему используют id как @Id: он выдается столбцом IDENTITY и уникален сам по себе,
+-- а проверка схемы Hibernate (validate) сравнивает таблицы и столбцы, но не первичные ключи.
+
+BEGIN;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table
+               WHERE partrelid IN ('watch_history'::regclass, 'reviews'::regclass)) THEN
+        RAISE EXCEPTION 'Таблицы watch_history и reviews уже секционированы';
+    END IF;
+END $$;
+
+CREATE TABLE watch_history_partitioned (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    user_id bigint DEFAULT 1 NOT NULL,
+    movie_id bigint NOT NULL REFERENCES movies (id) ON DELETE CASCADE,
+    status varchar(20) NOT NULL,
+    added_date date NOT NULL,
+    completed_date date,
+    CONSTRAINT watch_history_partitioned_pkey PRIMARY KEY (id, user_id)
+) PARTITION BY HASH (user_id);
+
+CREATE TABLE watch_history_p0 PARTITION OF watch_history_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE watch_history_p1 PARTITION OF watch_history_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE watch_history_p2 PARTITION OF watch_history_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE watch_history_p3 PARTITION OF watch_history_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE watch_history_p4 PARTITION OF watch_history_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE watch_history_p5 PARTITION OF watch_history_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE watch_history_p6 PARTITION OF watch_history_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE watch_history_p7 PARTITION OF watch_history_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+INSERT INTO watch_history_partitioned (id, user_id, movie_id, status, added_date, completed_date)
+SELECT id, user_id, movie_id, status, added_date, completed_date FROM watch_history;
+
+DROP TABLE watch_history CASCADE;
+ALTER TABLE watch_history_partitioned RENAME TO watch_history;
+ALTER TABLE watch_history RENAME CONSTRAINT watch_history_partitioned_pkey TO watch_history_pkey;
+SELECT setval(pg_get_serial_sequence('watch_history', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM watch_history;
+
+CREATE INDEX idx_watch_history_user_movie_id ON watch_history (user_id, movie_id);
+CREATE INDEX idx_watch_history_user_added_date_id ON watch_history (user_id, added_date, id);
+CREATE INDEX idx_watch_history_user_status_id ON watch_history (user_id, status, id);
+CREATE INDEX idx_watch_history_movie_id ON watch_history (movie_id);
+
+CREATE TABLE reviews_partitioned (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    user_id bigint DEFAULT 1 NOT NULL,
+    movie_id bigint NOT NULL REFERENCES movies (id) ON DELETE CASCADE,
+    rating real NOT NULL,
+    comment varchar(1000),
+    watch_date date NOT NULL,
+    CONSTRAINT reviews_partitioned_pkey PRIMARY KEY (id, user_id)
+) PARTITION BY HASH (user_id);
+
+CREATE TABLE reviews_p0 PARTITION OF reviews_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE reviews_p1 PARTITION OF reviews_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE reviews_p2 PARTITION OF reviews_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE reviews_p3 PARTITION OF reviews_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE reviews_p4 PARTITION OF reviews_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE reviews_p5 PARTITION OF reviews_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE reviews_p6 PARTITION OF reviews_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE reviews_p7 PARTITION OF reviews_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+INSERT INTO reviews_partitioned (id, user_id, movie_id, rating, comment, watch_date)
+SELECT id, user_id, movie_id, rating, comment, watch_date FROM reviews;
+
+DROP TABLE reviews CASCADE;
+ALTER TABLE reviews_partitioned RENAME TO reviews;
+ALTER TABLE reviews RENAME CONSTRAINT reviews_partitioned_pkey TO reviews_pkey;
+SELECT setval(pg_get_serial_sequence('reviews', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM reviews;
+
+CREATE INDEX idx_reviews_user_movie_id ON reviews (user_id, movie_id);
+CREATE INDEX idx_reviews_user_watch_date_id ON reviews (user_id, watch_date, id);
+CREATE INDEX idx_reviews_user_rating_id ON reviews (user_id, rating, id);
+CREATE INDEX idx_reviews_movie_id ON reviews (movie_id);
+
+COMMIT;
\ No newline at end of file
@@ -0,0 +1,61 @@
+-- Рецензии и история просмотра секционируются по хэшу ID пользователя (PostgreSQL 11+).
+-- Скрипт выполняется Hibernate после создания схемы (spring.jpa.hibernate.ddl-auto=create или create-drop)
+-- и заменяет обычные таблицы секционированными с теми же столбцами и индексами.
+-- Запросы пользователя содержат условие user_id = ?, поэтому планировщик читает только одну секцию,
+-- а индексы каждой секции остаются небольшими при тысячах пользователей.
+-- Первичный ключ секционированной таблицы должен включать ключ секционирования, поэтому он составной (id, user_id);
+-- сущности по-прежнему используют id как @Id - он выдается IDENTITY и уникален сам по себе.
+-- Для БД, схему которой Hibernate не создает (ddl-auto=validate или none), та же схема с переносом данных -
+-- в миграции migrate-partition-user-tables.sql.
+
+DROP TABLE IF EXISTS watch_history CASCADE;
+DROP TABLE IF EXISTS reviews CASCADE;
+
+CREATE TABLE watch_history (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    user_id bigint DEFAULT 1 NOT NULL,
+    movie_id bigint NOT NULL REFERENCES movies (id) ON DELETE CASCADE,
+    status varchar(20) NOT NULL,
+    added_date date NOT NULL,
+    completed_date date,
+    PRIMARY KEY (id, user_id)
+) PARTITION BY HASH (user_id);
+
+CREATE TABLE watch_history_p0 PARTITION OF watch_history FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE watch_history_p1 PARTITION OF watch_history FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE watch_history_p2 PARTITION OF watch_history FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE watch_history_p3 PARTITION OF watch_history FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE watch_history_p4 PARTITION OF watch_history FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE watch_history_p5 PARTITION OF watch_history FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE watch_history_p6 PARTITION OF watch_history FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE watch_history_p7 PARTITION OF watch_history FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+CREATE INDEX idx_watch_history_user_movie_id ON watch_history (user_id, movie_id);
+CREATE INDEX idx_watch_history_user_added_date_id ON watch_history (user_id, added_date, id);
+CREATE INDEX idx_watch_history_user_status_id ON watch_history (user_id, status, id);
+-- удаление и перенос записей фильма выполняются по всем пользователям
+CREATE INDEX idx_watch_history_movie_id ON watch_history (movie_id);
+
+CREATE TABLE reviews (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    user_id bigint DEFAULT 1 NOT NULL,
+    movie_id bigint NOT NULL REFERENCES movies (id) ON DELETE CASCADE,
+    rating real NOT NULL,
+    comment varchar(1000),
+    watch_date date NOT NULL,
+    PRIMARY KEY (id, user_id)
+) PARTITION BY HASH (user_id);
+
+CREATE TABLE reviews_p0 PARTITION OF reviews FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE reviews_p1 PARTITION OF reviews FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE reviews_p2 PARTITION OF reviews FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE reviews_p3 PARTITION OF reviews FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE reviews_p4 PARTITION OF reviews FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE reviews_p5 PARTITION OF reviews FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE reviews_p6 PARTITION OF reviews FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE reviews_p7 PARTITION OF reviews FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+CREATE INDEX idx_reviews_user_movie_id ON reviews (user_id, movie_id);
+CREATE INDEX idx_reviews_user_watch_date_id ON reviews (user_id, watch_date, id);
+CREATE INDEX idx_reviews_user_rating_id ON reviews (user_id, rating, id);
+CREATE INDEX idx_reviews_movie_id ON reviews (movie_id);
\ No newline at end of file
@@ -0,0 +1,37 @@
+/*
+ * Лента изменений каталога (server-sent events, GET /events).
+ *
+ * Элемент с атрибутом data-live-updates задает адрес потока (data-live-url) и список сущностей,
+ * изменения которых требуют обновить страницу (MOVIE, REVIEW, WATCH_HISTORY).
+ * Карточки статистики с атрибутом data-stat обновляются на месте.
+ */
+(function () {
+    var root = document.querySelector('[data-live-updates]');
+    if (!root || !window.EventSource) {
+        return;
+    }
+
+    var entities = root.getAttribute('data-live-updates').split(',');
+    var notice = document.querySelector('.live-notice');
+    var source = new EventSource(root.getAttribute('data-live-url'));
+
+    source.addEventListener('stats', function (event) {
+        var stats = JSON.parse(event.data);
+        // на странице с фильтром карточка "Всего фильмов" показывает число найденных фильмов
+        var filtered = window.location.search.length > 0;
+
+        document.querySelectorAll('[data-stat]').forEach(function (element) {
+            var name = element.getAttribute('data-stat');
+            if (name in stats && !(filtered && name === 'movies')) {
+                element.textContent = stats[name];
+            }
+        });
+    });
+
+    source.addEventListener('catalog', function (event) {
+        var change = JSON.parse(event.data);
+        if (notice && entities.indexOf(change.entity) >= 0) {
+            notice.hidden = false;
+        }
+    });
+})();
\ No newline at end of file